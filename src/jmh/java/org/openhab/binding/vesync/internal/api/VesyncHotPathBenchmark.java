@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassHumidifierStatus;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassPurifierStatus;
+import org.openhab.binding.vesync.internal.dto.responses.v1.VesyncV1AirPurifierDeviceDetailsResponse;
+import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.handlers.VeSyncBaseDeviceHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * The {@link VesyncHotPathBenchmark} measures the work the binding does for each poll: decoding the responses of the
+ * API, encoding a bypass request, hashing the credentials and resolving the device a handler addresses. The bodies are
+ * those the {@link VesyncCloudStandIn} serves, so they match what the binding decodes against a real fleet.
+ *
+ * Run {@link #main(String[])} to report the throughput of each path together with its allocation rate, from the JMH
+ * GC profiler.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VesyncHotPathBenchmark {
+
+    private static final String ACCOUNT_ID = VesyncCloudStandIn.ACCOUNT_ID;
+    private static final String TOKEN = "AbCdEfGhIjKlMnOpQrStUvWxYz0123456789==";
+    private static final String CREDENTIALS = "someone@example.com:aPassword";
+
+    /**
+     * The responses for a single device.
+     */
+    @State(Scope.Benchmark)
+    public static class Responses {
+        private byte[] purifierStatus = new byte[0];
+        private byte[] humidifierStatus = new byte[0];
+        private byte[] purifierDetails = new byte[0];
+        private @NonNullByDefault({}) VesyncCloudStandIn.Device purifier;
+        private @NonNullByDefault({}) VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase purifierAddress;
+        private @NonNullByDefault({}) VesyncRequestTemplateCache templates;
+
+        @Setup
+        public void setup() {
+            final VesyncCloudStandIn cloud = new VesyncCloudStandIn(1, 1);
+            purifier = cloud.getDevices().get(0);
+            final VesyncCloudStandIn.Device humidifier = cloud.getDevices().get(1);
+
+            purifierStatus = accepted(purifier.apply(DEVICE_GET_PURIFIER_STATUS, null));
+            humidifierStatus = accepted(humidifier.apply(DEVICE_GET_HUMIDIFIER_STATUS, null));
+            purifierDetails = VeSyncConstants.GSON_WIRE.toJson(purifier.toV1Details()).getBytes(StandardCharsets.UTF_8);
+            purifierAddress = VeSyncConstants.GSON.fromJson(purifier.toManagedDevice(),
+                    VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase.class);
+            templates = new VesyncRequestTemplateCache();
+        }
+    }
+
+    /**
+     * The devices of an account, of the size given by the parameter.
+     */
+    @State(Scope.Benchmark)
+    public static class Fleet {
+        @Param({ "10", "100", "1000", "10000" })
+        public int devices;
+
+        private byte[] devicesPage = new byte[0];
+        private @NonNullByDefault({}) Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> macLookup;
+        private @NonNullByDefault({}) String configMac;
+        private @NonNullByDefault({}) String deviceName;
+
+        @Setup
+        public void setup() throws AuthenticationException {
+            final VesyncCloudStandIn cloud = new VesyncCloudStandIn(devices / 2, devices - devices / 2);
+            final JsonArray list = new JsonArray(devices);
+            cloud.getDevices().forEach(device -> list.add(device.toManagedDevice()));
+            final JsonObject page = new JsonObject();
+            page.addProperty("total", devices);
+            page.addProperty("pageNo", 1);
+            page.addProperty("pageSize", devices);
+            page.add("list", list);
+            devicesPage = accepted(page);
+
+            macLookup = new HashMap<>();
+            for (VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device : decode(devicesPage,
+                    VesyncManagedDevicesPage.class).result.list) {
+                macLookup.put(device.getMacId(), device);
+            }
+            // Address the last device, as configured by a user
+            final VesyncCloudStandIn.Device last = cloud.getDevices().get(devices - 1);
+            configMac = last.macId.toUpperCase(Locale.ROOT);
+            deviceName = last.deviceName;
+        }
+    }
+
+    private static byte[] accepted(final JsonObject result) {
+        final JsonObject response = new JsonObject();
+        response.addProperty("traceId", "1634255391");
+        response.addProperty("code", 0);
+        response.addProperty("msg", "request success");
+        response.add("result", result);
+        return VeSyncConstants.GSON_WIRE.toJson(response).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static <T extends VesyncResponse> T decode(final byte[] body, final Class<T> responseType)
+            throws AuthenticationException {
+        return VesyncResponseDecoder.decodeAccepted(new ByteArrayInputStream(body), StandardCharsets.UTF_8,
+                responseType);
+    }
+
+    @Benchmark
+    public VesyncV2BypassPurifierStatus decodePurifierStatus(final Responses responses)
+            throws AuthenticationException {
+        return decode(responses.purifierStatus, VesyncV2BypassPurifierStatus.class);
+    }
+
+    @Benchmark
+    public VesyncV2BypassHumidifierStatus decodeHumidifierStatus(final Responses responses)
+            throws AuthenticationException {
+        return decode(responses.humidifierStatus, VesyncV2BypassHumidifierStatus.class);
+    }
+
+    @Benchmark
+    public VesyncV1AirPurifierDeviceDetailsResponse decodePurifierDetails(final Responses responses)
+            throws AuthenticationException {
+        return decode(responses.purifierDetails, VesyncV1AirPurifierDeviceDetailsResponse.class);
+    }
+
+    @Benchmark
+    public VesyncManagedDevicesPage decodeDevicesPage(final Fleet fleet) throws AuthenticationException {
+        return decode(fleet.devicesPage, VesyncManagedDevicesPage.class);
+    }
+
+    @Benchmark
+    public byte[] encodeBypassRequest(final Responses responses) {
+        final VesyncRequestManagedDeviceBypassV2 request = new VesyncRequestManagedDeviceBypassV2();
+        request.payload.method = DEVICE_GET_PURIFIER_STATUS;
+        return responses.templates.encode(responses.purifier.macId, responses.purifierAddress, ACCOUNT_ID, TOKEN,
+                request);
+    }
+
+    @Benchmark
+    public String calculateMd5() {
+        return VesyncV2ApiHelper.calculateMd5(CREDENTIALS);
+    }
+
+    @Benchmark
+    public String lookupByMac(final Fleet fleet) {
+        return VeSyncBaseDeviceHandler.resolveLookupKey(fleet.macLookup, fleet.configMac, null);
+    }
+
+    @Benchmark
+    public String lookupByName(final Fleet fleet) {
+        return VeSyncBaseDeviceHandler.resolveLookupKey(fleet.macLookup, null, fleet.deviceName);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VesyncHotPathBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
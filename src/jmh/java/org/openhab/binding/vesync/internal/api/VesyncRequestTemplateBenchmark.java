@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@link VesyncRequestTemplateBenchmark} compares encoding a BypassV2 request via the
+ * {@link VesyncRequestTemplateCache} with encoding it reflectively through Gson.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VesyncRequestTemplateBenchmark {
+
+    private static final String MAC_ID = "aa:bb:cc:dd:ee:ff";
+    private static final String ACCOUNT_ID = "1234567";
+    private static final String TOKEN = "AbCdEfGhIjKlMnOpQrStUvWxYz0123456789==";
+
+    private @NonNullByDefault({}) VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device;
+    private @NonNullByDefault({}) VesyncRequestTemplateCache templates;
+
+    @Setup
+    public void setup() {
+        device = VeSyncConstants.GSON.fromJson(
+                "{\"cid\": \"vsaq2bdbcd4e8b7b4e5a9f6b6b5e5d2c\", \"configModule\": \"WFON_AP_Core400S_EU\", "
+                        + "\"deviceRegion\": \"EU\", \"macID\": \"" + MAC_ID + "\"}",
+                VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase.class);
+        templates = new VesyncRequestTemplateCache();
+    }
+
+    private static VesyncRequestManagedDeviceBypassV2 createRequest() {
+        final VesyncRequestManagedDeviceBypassV2 request = new VesyncRequestManagedDeviceBypassV2();
+        request.payload.method = "setLevel";
+        request.payload.data = new VesyncRequestManagedDeviceBypassV2.SetLevelPayload(0, "wind", 2);
+        return request;
+    }
+
+    private VesyncRequestManagedDeviceBypassV2 createAddressedRequest() {
+        final VesyncRequestManagedDeviceBypassV2 request = createRequest();
+        request.accountId = ACCOUNT_ID;
+        request.token = TOKEN;
+        request.cid = device.cid;
+        request.configModule = device.configModule;
+        request.deviceRegion = device.deviceRegion;
+        return request;
+    }
+
+    @Benchmark
+    public String prettyGson() {
+        return VeSyncConstants.GSON.toJson(createAddressedRequest());
+    }
+
+    @Benchmark
+    public byte[] compactGson() {
+        return VesyncRequestEncoder.encode(createAddressedRequest());
+    }
+
+    @Benchmark
+    public byte[] template() {
+        return templates.encode(MAC_ID, device, ACCOUNT_ID, TOKEN, createRequest());
+    }
+}
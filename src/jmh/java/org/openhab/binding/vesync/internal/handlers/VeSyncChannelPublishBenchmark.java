@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.openhab.binding.vesync.internal.VeSyncConstants.*;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassHumidifierStatus;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassPurifierStatus;
+import org.openhab.core.cache.ExpiringCache;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatusInfo;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+import org.openhab.core.thing.binding.builder.ThingBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.google.gson.JsonObject;
+
+/**
+ * The {@link VeSyncChannelPublishBenchmark} measures the allocations of publishing the result of a poll to the
+ * channels of a device. Each invocation applies a status which differs from the last in every numeric channel, so no
+ * update is suppressed as unchanged.
+ *
+ * The allocating benchmark publishes the same channels as the handlers did before the channel UIDs and states were
+ * shared, building a channel UID and a state for each channel. The framework is replaced by a proxy, whose argument
+ * arrays are allocated by both, so the difference of the normalized allocation rates from the JMH GC profiler
+ * ({@code gc.alloc.rate.norm}) is what publishing no longer allocates.
+ *
+ * Run {@link #main(String[])} to report the throughput and allocation rate of each path.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VeSyncChannelPublishBenchmark {
+
+    /**
+     * A handler of each device type, with the statuses they alternate between.
+     */
+    @State(Scope.Thread)
+    public static class Handlers {
+        private @NonNullByDefault({}) VeSyncDeviceAirPurifierHandler purifier;
+        private @NonNullByDefault({}) VeSyncDeviceAirHumidifierHandler humidifier;
+        private @NonNullByDefault({}) ThingHandlerCallback callback;
+        private @NonNullByDefault({}) ThingUID purifierUID;
+        private final VesyncV2BypassPurifierStatus[] purifierStatuses = new VesyncV2BypassPurifierStatus[2];
+        private final VesyncV2BypassHumidifierStatus[] humidifierStatuses = new VesyncV2BypassHumidifierStatus[2];
+        private final ExpiringCache<VesyncResponse> cache = new ExpiringCache<>(Duration.ofSeconds(5), () -> null);
+        private int next;
+
+        @Setup
+        public void setup() {
+            callback = createCallback();
+            final Thing purifierThing = ThingBuilder.create(THING_TYPE_AIR_PURIFIER, "benchmark")
+                    .withProperties(
+                            Map.of(DEVICE_PROP_DEVICE_TYPE, VeSyncDeviceAirPurifierHandler.DEV_TYPE_CORE_400S))
+                    .build();
+            purifierUID = purifierThing.getUID();
+            purifier = new VeSyncDeviceAirPurifierHandler(purifierThing);
+            purifier.setCallback(callback);
+            final Thing humidifierThing = ThingBuilder.create(THING_TYPE_AIR_HUMIDIFIER, "benchmark")
+                    .withProperties(
+                            Map.of(DEVICE_PROP_DEVICE_TYPE, VeSyncDeviceAirHumidifierHandler.DEV_TYPE_CLASSIC_300S))
+                    .build();
+            humidifier = new VeSyncDeviceAirHumidifierHandler(humidifierThing);
+            humidifier.setCallback(callback);
+
+            // Link every channel the statuses are published to
+            for (String channelID : new String[] { DEVICE_CHANNEL_ENABLED, DEVICE_CHANNEL_CHILD_LOCK_ENABLED,
+                    DEVICE_CHANNEL_DISPLAY_ENABLED, DEVICE_CHANNEL_AIR_FILTER_LIFE_PERCENTAGE_REMAINING,
+                    DEVICE_CHANNEL_FAN_MODE_ENABLED, DEVICE_CHANNEL_FAN_SPEED_ENABLED, DEVICE_CHANNEL_ERROR_CODE,
+                    DEVICE_CHANNEL_AIRQUALITY_BASIC, DEVICE_CHANNEL_AIRQUALITY_PPM25,
+                    DEVICE_CHANNEL_AF_CONFIG_DISPLAY_FOREVER, DEVICE_CHANNEL_AF_CONFIG_AUTO_MODE_PREF,
+                    DEVICE_CHANNEL_AF_CONFIG_AUTO_ROOM_SIZE, DEVICE_CHANNEL_AF_AUTO_OFF_CALC_TIME,
+                    DEVICE_CHANNEL_AF_SCHEDULES_COUNT }) {
+                purifier.channelLinked(new ChannelUID(purifierUID, channelID));
+            }
+            for (String channelID : new String[] { DEVICE_CHANNEL_ENABLED, DEVICE_CHANNEL_DISPLAY_ENABLED,
+                    DEVICE_CHANNEL_WATER_LACKS, DEVICE_CHANNEL_HUMIDITY_HIGH, DEVICE_CHANNEL_WATER_TANK_LIFTED,
+                    DEVICE_CHANNEL_STOP_AT_TARGET, DEVICE_CHANNEL_HUMIDITY, DEVICE_CHANNEL_MIST_LEVEL,
+                    DEVICE_CHANNEL_HUMIDIFIER_MODE, DEVICE_CHANNEL_AF_NIGHT_LIGHT,
+                    DEVICE_CHANNEL_CONFIG_TARGET_HUMIDITY }) {
+                humidifier.channelLinked(new ChannelUID(humidifierThing.getUID(), channelID));
+            }
+
+            for (int i = 0; i < 2; ++i) {
+                purifierStatuses[i] = GSON.fromJson(success(purifierStatus(i)), VesyncV2BypassPurifierStatus.class);
+                humidifierStatuses[i] = GSON.fromJson(success(humidifierStatus(i)),
+                        VesyncV2BypassHumidifierStatus.class);
+            }
+        }
+
+        private int next() {
+            next ^= 1;
+            return next;
+        }
+    }
+
+    private static ThingHandlerCallback createCallback() {
+        return (ThingHandlerCallback) Proxy.newProxyInstance(ThingHandlerCallback.class.getClassLoader(),
+                new Class<?>[] { ThingHandlerCallback.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "statusUpdated":
+                            ((Thing) args[0]).setStatusInfo((ThingStatusInfo) args[1]);
+                            return null;
+                        case "isChannelLinked":
+                            return true;
+                        default:
+                            return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                    }
+                });
+    }
+
+    private static JsonObject success(final JsonObject result) {
+        final JsonObject inner = new JsonObject();
+        inner.addProperty("code", 0);
+        inner.add("result", result);
+        final JsonObject response = new JsonObject();
+        response.addProperty("traceId", "1634255391");
+        response.addProperty("code", 0);
+        response.addProperty("msg", "request success");
+        response.add("result", inner);
+        return response;
+    }
+
+    private static JsonObject purifierStatus(final int variant) {
+        final JsonObject status = new JsonObject();
+        status.addProperty("enabled", true);
+        status.addProperty("filter_life", 90 + variant);
+        status.addProperty("mode", variant == 0 ? "manual" : "sleep");
+        status.addProperty("level", 1 + variant);
+        status.addProperty("air_quality", 1 + variant);
+        status.addProperty("air_quality_value", 5 + variant);
+        status.addProperty("display", true);
+        status.addProperty("child_lock", false);
+        status.addProperty("device_error_code", variant);
+        final JsonObject autoPreference = new JsonObject();
+        autoPreference.addProperty("type", "default");
+        autoPreference.addProperty("room_size", 600 + variant);
+        final JsonObject configuration = new JsonObject();
+        configuration.addProperty("display", true);
+        configuration.addProperty("display_forever", false);
+        configuration.add("auto_preference", autoPreference);
+        status.add("configuration", configuration);
+        final JsonObject extension = new JsonObject();
+        extension.addProperty("schedule_count", variant);
+        extension.addProperty("timer_remain", 0);
+        status.add("extension", extension);
+        return status;
+    }
+
+    private static JsonObject humidifierStatus(final int variant) {
+        final JsonObject status = new JsonObject();
+        status.addProperty("enabled", true);
+        status.addProperty("humidity", 45 + variant);
+        status.addProperty("mist_virtual_level", 3 + variant);
+        status.addProperty("mist_level", 3 + variant);
+        status.addProperty("mode", variant == 0 ? "manual" : "auto");
+        status.addProperty("water_lacks", false);
+        status.addProperty("humidity_high", false);
+        status.addProperty("water_tank_lifted", false);
+        status.addProperty("display", true);
+        status.addProperty("automatic_stop_reach_target", true);
+        status.addProperty("night_light_brightness", variant == 0 ? 0 : 100);
+        status.addProperty("warm_enabled", false);
+        status.addProperty("warm_level", 0);
+        final JsonObject configuration = new JsonObject();
+        configuration.addProperty("auto_target_humidity", 55 + variant);
+        configuration.addProperty("display", true);
+        configuration.addProperty("automatic_stop", true);
+        status.add("configuration", configuration);
+        return status;
+    }
+
+    @Benchmark
+    public void publishPurifierStatus(final Handlers handlers) {
+        handlers.purifier.applyV2BypassPollResult(handlers.purifierStatuses[handlers.next()], handlers.cache, true);
+    }
+
+    @Benchmark
+    public void publishHumidifierStatus(final Handlers handlers) {
+        handlers.humidifier.applyPollResult(handlers.humidifierStatuses[handlers.next()], handlers.cache, true);
+    }
+
+    @Benchmark
+    public void publishPurifierStatusAllocating(final Handlers handlers) {
+        final VesyncV2BypassPurifierStatus.PurifierStatus.AirPurifierStatus status = handlers.purifierStatuses[handlers
+                .next()].result.result;
+        publish(handlers, DEVICE_CHANNEL_ENABLED, OnOffType.from(status.enabled));
+        publish(handlers, DEVICE_CHANNEL_CHILD_LOCK_ENABLED, OnOffType.from(status.childLock));
+        publish(handlers, DEVICE_CHANNEL_DISPLAY_ENABLED, OnOffType.from(status.display));
+        publish(handlers, DEVICE_CHANNEL_AIR_FILTER_LIFE_PERCENTAGE_REMAINING, new DecimalType(status.filterLife));
+        publish(handlers, DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType(status.mode));
+        publish(handlers, DEVICE_CHANNEL_FAN_SPEED_ENABLED, new DecimalType(status.level));
+        publish(handlers, DEVICE_CHANNEL_ERROR_CODE, new DecimalType(status.deviceErrorCode));
+        publish(handlers, DEVICE_CHANNEL_AIRQUALITY_BASIC, new DecimalType(status.airQuality));
+        publish(handlers, DEVICE_CHANNEL_AIRQUALITY_PPM25, new DecimalType(status.airQualityValue));
+        publish(handlers, DEVICE_CHANNEL_AF_CONFIG_DISPLAY_FOREVER,
+                OnOffType.from(status.configuration.displayForever));
+        publish(handlers, DEVICE_CHANNEL_AF_CONFIG_AUTO_MODE_PREF,
+                new StringType(status.configuration.autoPreference.autoType));
+        publish(handlers, DEVICE_CHANNEL_AF_CONFIG_AUTO_ROOM_SIZE,
+                new DecimalType(status.configuration.autoPreference.roomSize));
+        publish(handlers, DEVICE_CHANNEL_AF_SCHEDULES_COUNT, new DecimalType(status.extension.scheduleCount));
+    }
+
+    private static void publish(final Handlers handlers, final String channelID,
+            final org.openhab.core.types.State state) {
+        handlers.callback.stateUpdated(new ChannelUID(handlers.purifierUID, channelID), state);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(VeSyncChannelPublishBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -36,8 +36,153 @@ public class VeSyncBridgeConfiguration {
     public String username = "";
 
     /**
-     * The polling interval to use for air purifier devices.
+     * The polling interval to use for air purifier devices, while they are active.
      */
     @Nullable
     public Integer airPurifierPollInterval;
+
+    /**
+     * The longest polling interval to use for devices that are idle.
+     */
+    @Nullable
+    public Integer pollIntervalCeiling;
+
+    /**
+     * The factor the polling interval of an idle device grows by, for each poll that finds it unchanged.
+     */
+    @Nullable
+    public Double pollIntervalDecay;
+
+    /**
+     * The seconds a device is polled at the polling interval, after a command or a change of its state.
+     */
+    @Nullable
+    public Integer activePollWindow;
+
+    /**
+     * The polling interval to use for devices that are offline.
+     */
+    @Nullable
+    public Integer offlineHeartbeatInterval;
+
+    /**
+     * The number of threads the polls of the devices that are due are run on.
+     */
+    @Nullable
+    public Integer pollWorkers;
+
+    /**
+     * The most seconds each poll of a device is moved away from its phase, at random.
+     */
+    @Nullable
+    public Integer pollJitter;
+
+    /**
+     * The number of first polls of devices that may be in progress at the same time, when the bridge starts.
+     */
+    @Nullable
+    public Integer startupPollConcurrency;
+
+    /**
+     * The number of device polls that may be in progress at the same time.
+     */
+    @Nullable
+    public Integer maxPollsInFlight;
+
+    /**
+     * The seconds after which an unchanged state of a channel is published again, or 0 to only publish changes.
+     */
+    @Nullable
+    public Integer stateRefreshInterval;
+
+    /**
+     * Whether the status of each device in the device list is used to skip the polls of devices that are off or
+     * offline.
+     */
+    @Nullable
+    public Boolean piggybackPolling;
+
+    /**
+     * The seconds between refreshes of the device list, while the device list is used to skip polls.
+     */
+    @Nullable
+    public Integer deviceListRefreshInterval;
+
+    /**
+     * The sustained number of requests per minute that may be sent to the VeSync API for the account.
+     */
+    @Nullable
+    public Integer apiRequestsPerMinute;
+
+    /**
+     * The number of requests that may be sent to the VeSync API back to back, when the budget has not been used.
+     */
+    @Nullable
+    public Integer apiRequestBurst;
+
+    /**
+     * The comma separated response codes the VeSync API is taken to throttle the account with.
+     */
+    @Nullable
+    public String apiThrottleCodes;
+
+    /**
+     * The number of devices requested per page when discovering the devices of the account.
+     */
+    @Nullable
+    public Integer discoveryPageSize;
+
+    /**
+     * The maximum number of device pages requested at the same time when discovering the devices of the account.
+     */
+    @Nullable
+    public Integer discoveryConcurrency;
+
+    /**
+     * Whether connections to the VeSync API are kept open for reuse by further requests.
+     */
+    @Nullable
+    public Boolean httpKeepAlive;
+
+    /**
+     * The maximum number of connections open to each VeSync API host.
+     */
+    @Nullable
+    public Integer httpMaxConnectionsPerHost;
+
+    /**
+     * The seconds an idle connection to the VeSync API is kept open for reuse.
+     */
+    @Nullable
+    public Integer httpIdleTimeout;
+
+    /**
+     * The seconds establishing a connection to the VeSync API may take.
+     */
+    @Nullable
+    public Integer httpConnectTimeout;
+
+    /**
+     * The seconds a login request may take.
+     */
+    @Nullable
+    public Integer loginRequestTimeout;
+
+    /**
+     * The seconds a request for a page of the devices of the account may take.
+     */
+    @Nullable
+    public Integer deviceListRequestTimeout;
+
+    /**
+     * The seconds a request for the status of, or a command to, a device may take.
+     */
+    @Nullable
+    public Integer deviceRequestTimeout;
+
+    /**
+     * The scheme, host and optionally port of the VeSync API, to use a stand-in rather than the VeSync cloud.
+     */
+    @Nullable
+    public String apiHost;
 }
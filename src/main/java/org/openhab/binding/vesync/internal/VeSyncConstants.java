@@ -32,6 +32,13 @@ public class VeSyncConstants {
             .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).setPrettyPrinting()
             .disableHtmlEscaping().serializeNulls().create();
 
+    /**
+     * Compact encoding used for the requests sent to the API, {@link #GSON} is retained for diagnostics.
+     */
+    public static final Gson GSON_WIRE = new GsonBuilder()
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES).disableHtmlEscaping()
+            .serializeNulls().create();
+
     private static final String BINDING_ID = "vesync";
 
     public static final long DEFAULT_REFRESH_INTERVAL_DISCOVERED_DEVICES = 3600;
@@ -79,6 +86,26 @@ public class VeSyncConstants {
 
     public static final String DEVICE_CHANNEL_CONFIG_TARGET_HUMIDITY = "configTargetHumidity";
 
+    // Poll statistics channels, published by the bridge
+    public static final String DEVICE_CHANNEL_POLL_NEXT_IN = "pollNextIn";
+    public static final String DEVICE_CHANNEL_POLL_LATE_BY = "pollLateBy";
+
+    // Bridge Channel Names
+    public static final String BRIDGE_CHANNEL_STATUS_REQUESTS_SHARED = "statusRequestsShared";
+    public static final String BRIDGE_CHANNEL_STATUS_REQUESTS_SENT = "statusRequestsSent";
+    public static final String BRIDGE_CHANNEL_API_REQUEST_BUDGET = "apiRequestBudget";
+    public static final String BRIDGE_CHANNEL_API_REQUEST_QUEUE_DEPTH = "apiRequestQueueDepth";
+    public static final String BRIDGE_CHANNEL_HTTP_CONNECTIONS_ACTIVE = "httpConnectionsActive";
+    public static final String BRIDGE_CHANNEL_HTTP_CONNECTIONS_IDLE = "httpConnectionsIdle";
+    public static final String BRIDGE_CHANNEL_HTTP_REQUESTS_QUEUED = "httpRequestsQueued";
+    public static final String BRIDGE_CHANNEL_API_LATENCY_P50 = "apiLatencyP50";
+    public static final String BRIDGE_CHANNEL_API_LATENCY_P95 = "apiLatencyP95";
+    public static final String BRIDGE_CHANNEL_API_LATENCY_P99 = "apiLatencyP99";
+    public static final String BRIDGE_CHANNEL_API_REQUEST_RATE = "apiRequestRate";
+    public static final String BRIDGE_CHANNEL_API_ERROR_RATE = "apiErrorRate";
+    public static final String BRIDGE_CHANNEL_POLL_MAX_LATE_BY = "pollMaxLateBy";
+    public static final String BRIDGE_CHANNEL_STATE_UPDATES_SUPPRESSED = "stateUpdatesSuppressed";
+
     // Property name constants
     public static final String DEVICE_PROP_DEVICE_NAME = "Device Name";
     public static final String DEVICE_PROP_DEVICE_TYPE = "Device Type";
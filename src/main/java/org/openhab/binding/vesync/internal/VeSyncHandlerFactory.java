@@ -18,6 +18,7 @@ import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.api.VesyncHttpTransport;
 import org.openhab.binding.vesync.internal.api.VesyncV2ApiHelper;
 import org.openhab.binding.vesync.internal.handlers.VeSyncBridgeHandler;
 import org.openhab.binding.vesync.internal.handlers.VeSyncDeviceAirHumidifierHandler;
@@ -31,6 +32,7 @@ import org.openhab.core.thing.ThingUID;
 import org.openhab.core.thing.binding.BaseThingHandlerFactory;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
@@ -47,7 +49,12 @@ public class VeSyncHandlerFactory extends BaseThingHandlerFactory {
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Set.of(THING_TYPE_BRIDGE,
             THING_TYPE_AIR_PURIFIER, THING_TYPE_AIR_HUMIDIFIER);
 
-    private final VesyncV2ApiHelper api = new VesyncV2ApiHelper();
+    private final HttpClientFactory httpClientFactory;
+
+    @Activate
+    public VeSyncHandlerFactory(final @Reference HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
 
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
@@ -63,7 +70,10 @@ public class VeSyncHandlerFactory extends BaseThingHandlerFactory {
         } else if (VeSyncDeviceAirHumidifierHandler.SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID)) {
             return new VeSyncDeviceAirHumidifierHandler(thing);
         } else if (THING_TYPE_BRIDGE.equals(thingTypeUID)) {
-            return new VeSyncBridgeHandler((Bridge) thing, api);
+            // Each bridge is for its own account, so has its own session, device catalog, request budget and
+            // HTTP client
+            return new VeSyncBridgeHandler((Bridge) thing,
+                    new VesyncV2ApiHelper(new VesyncHttpTransport(httpClientFactory, thing.getUID().getId())));
         }
 
         return null;
@@ -98,13 +108,4 @@ public class VeSyncHandlerFactory extends BaseThingHandlerFactory {
                     "The thing type " + thingTypeUID + " is not supported by the VeSync binding.");
         }
     }
-
-    @Reference
-    protected void setHttpClientFactory(HttpClientFactory httpClientFactory) {
-        api.setHttpClient(httpClientFactory.getCommonHttpClient());
-    }
-
-    protected void unsetHttpClientFactory(HttpClientFactory httpClientFactory) {
-        api.setHttpClient(null);
-    }
 }
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+
+/**
+ * The {@link VesyncDeviceCatalogDiff} describes the changes between two generations of the device catalog of an
+ * account, keyed by the mac id of the device. Devices whose type or uuid changed are treated as having been removed
+ * and added, as a different device is now using the mac id.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncDeviceCatalogDiff {
+
+    private final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> added;
+    private final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> removed;
+    private final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> renamed;
+    private final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> connectionStatusChanged;
+    private final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> addressingChanged;
+
+    private VesyncDeviceCatalogDiff(final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> added,
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> removed,
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> renamed,
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> connectionStatusChanged,
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> addressingChanged) {
+        this.added = Collections.unmodifiableMap(added);
+        this.removed = Collections.unmodifiableMap(removed);
+        this.renamed = Collections.unmodifiableMap(renamed);
+        this.connectionStatusChanged = Collections.unmodifiableMap(connectionStatusChanged);
+        this.addressingChanged = Collections.unmodifiableMap(addressingChanged);
+    }
+
+    /**
+     * Compute the changes between two generations of the device catalog.
+     *
+     * @param previous - the previous catalog, by mac id
+     * @param current - the current catalog, by mac id
+     * @return - the changes between the catalogs
+     */
+    public static VesyncDeviceCatalogDiff compute(
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> previous,
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> current) {
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> added = new HashMap<>();
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> removed = new HashMap<>();
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> renamed = new HashMap<>();
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> connectionStatusChanged = new HashMap<>();
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> addressingChanged = new HashMap<>();
+
+        current.forEach((macId, device) -> {
+            final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase before = previous.get(macId);
+            if (before == null || !Objects.equals(before.deviceType, device.deviceType)
+                    || !Objects.equals(before.uuid, device.uuid)) {
+                if (before != null) {
+                    removed.put(macId, before);
+                }
+                added.put(macId, device);
+                return;
+            }
+            if (!Objects.equals(before.deviceName, device.deviceName)) {
+                renamed.put(macId, device);
+            }
+            if (!Objects.equals(before.connectionStatus, device.connectionStatus)) {
+                connectionStatusChanged.put(macId, device);
+            }
+            if (!Objects.equals(before.deviceRegion, device.deviceRegion) || !Objects.equals(before.cid, device.cid)
+                    || !Objects.equals(before.configModule, device.configModule)) {
+                addressingChanged.put(macId, device);
+            }
+        });
+        previous.forEach((macId, device) -> {
+            if (!current.containsKey(macId)) {
+                removed.put(macId, device);
+            }
+        });
+        return new VesyncDeviceCatalogDiff(added, removed, renamed, connectionStatusChanged, addressingChanged);
+    }
+
+    /**
+     * @return - the devices that are new to the catalog, by mac id
+     */
+    public Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return - the devices that are no longer in the catalog, as they were last seen, by mac id
+     */
+    public Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return - the devices whose name has changed, by mac id
+     */
+    public Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> getRenamed() {
+        return renamed;
+    }
+
+    /**
+     * @return - the devices whose connection status to the cloud has changed, by mac id
+     */
+    public Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> getConnectionStatusChanged() {
+        return connectionStatusChanged;
+    }
+
+    /**
+     * @return - the devices whose region, cid or config module has changed, by mac id
+     */
+    public Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> getAddressingChanged() {
+        return addressingChanged;
+    }
+
+    /**
+     * @return - the mac ids of all devices affected by any change
+     */
+    public Set<String> getChangedMacIds() {
+        final Set<String> changed = new HashSet<>(added.keySet());
+        changed.addAll(removed.keySet());
+        changed.addAll(renamed.keySet());
+        changed.addAll(connectionStatusChanged.keySet());
+        changed.addAll(addressingChanged.keySet());
+        return changed;
+    }
+
+    /**
+     * @return - true if there were no changes between the catalogs
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && renamed.isEmpty() && connectionStatusChanged.isEmpty()
+                && addressingChanged.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "VesyncDeviceCatalogDiff [added=" + added.keySet() + ", removed=" + removed.keySet() + ", renamed="
+                + renamed.keySet() + ", connectionStatusChanged=" + connectionStatusChanged.keySet()
+                + ", addressingChanged=" + addressingChanged.keySet() + "]";
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * The {@link VesyncDeviceCatalogStore} persists a compact snapshot of the devices of the account for a bridge, so
+ * device handlers can resolve the addressing of their device as soon as the bridge next starts, rather than waiting
+ * for the first scan of the devices to complete.
+ *
+ * Only the fields needed to address and identify the devices are kept. The snapshot is only used for the account it
+ * was taken for.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncDeviceCatalogStore {
+
+    private static final String STORE_SUFFIX = ".devices.json";
+
+    private static final List<String> SNAPSHOT_FIELDS = List.of("macID", "cid", "configModule", "deviceRegion",
+            "deviceType", "uuid", "deviceName", "type", "connectionStatus");
+
+    private final VesyncUserDataFile file;
+
+    public VesyncDeviceCatalogStore(final Path file) {
+        this(new VesyncUserDataFile(file));
+    }
+
+    private VesyncDeviceCatalogStore(final VesyncUserDataFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Create the store for the given bridge in the openHAB userdata folder.
+     *
+     * @param bridgeId - the UID of the bridge
+     * @return - the store
+     */
+    public static VesyncDeviceCatalogStore forBridge(final String bridgeId) {
+        return new VesyncDeviceCatalogStore(VesyncUserDataFile.forBridge(bridgeId, STORE_SUFFIX));
+    }
+
+    /**
+     * Load the stored devices for the given account.
+     *
+     * @param account - identifies the account the devices must be for
+     * @return - the devices by mac id, or null if there is no snapshot for the account
+     */
+    public @Nullable Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> load(final String account) {
+        final Snapshot snapshot = file.read(Snapshot.class);
+        if (snapshot == null || snapshot.devices == null || !account.equals(snapshot.account)) {
+            return null;
+        }
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> devices = new HashMap<>();
+        for (JsonElement element : snapshot.devices) {
+            final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device = VeSyncConstants.GSON
+                    .fromJson(element, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase.class);
+            if (device != null && device.getMacId() != null) {
+                devices.put(device.getMacId(), device);
+            }
+        }
+        return devices;
+    }
+
+    /**
+     * Store the devices for the given account, replacing any snapshot already stored.
+     *
+     * @param account - identifies the account the devices are for
+     * @param devices - the devices by mac id
+     */
+    public void save(final String account,
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> devices) {
+        final JsonArray compact = new JsonArray(devices.size());
+        for (VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device : devices.values()) {
+            final JsonObject full = VeSyncConstants.GSON.toJsonTree(device).getAsJsonObject();
+            final JsonObject fields = new JsonObject();
+            for (String field : SNAPSHOT_FIELDS) {
+                final JsonElement value = full.get(field);
+                if (value != null && !value.isJsonNull()) {
+                    fields.add(field, value);
+                }
+            }
+            compact.add(fields);
+        }
+        file.write(new Snapshot(account, compact));
+    }
+
+    /**
+     * Delete the stored devices, if any.
+     */
+    public void delete() {
+        file.delete();
+    }
+
+    private static final class Snapshot {
+        private String account;
+        private JsonArray devices;
+
+        Snapshot(final String account, final JsonArray devices) {
+            this.account = account;
+            this.devices = devices;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.api.Destination;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpHeader;
+import org.openhab.core.io.net.http.HttpClientFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link VesyncHttpTransport} owns the HTTP client used to communicate with the VeSync cloud for an account. The
+ * client is dedicated to the account, rather than the shared openHAB client, so its connection pool and timeouts can
+ * be tuned without affecting, or being affected by, other bindings.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncHttpTransport {
+
+    /**
+     * The groups of endpoints that have their own request timeout.
+     */
+    public enum Endpoint {
+        LOGIN,
+        DEVICE_LIST,
+        DEVICE;
+
+        public static Endpoint forUrl(final String url) {
+            if (V1_LOGIN_ENDPOINT.equals(url)) {
+                return LOGIN;
+            } else if (V1_MANAGED_DEVICES_ENDPOINT.equals(url)) {
+                return DEVICE_LIST;
+            }
+            return DEVICE;
+        }
+    }
+
+    public static final String CONSUMER_NAME = "vesync";
+
+    // The consumer names the HTTP client factory accepts
+    private static final int MAX_CONSUMER_NAME_LENGTH = 20;
+
+    public static final boolean DEFAULT_KEEP_ALIVE = true;
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_DESTINATION = 4;
+    public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 30;
+    public static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 5;
+    public static final int DEFAULT_LOGIN_TIMEOUT_SECONDS = 10;
+    public static final int DEFAULT_DEVICE_LIST_TIMEOUT_SECONDS = 10;
+    public static final int DEFAULT_DEVICE_TIMEOUT_SECONDS = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(VesyncHttpTransport.class);
+
+    private final HttpClientFactory httpClientFactory;
+    private final String consumerName;
+
+    private @Nullable HttpClient httpClient;
+
+    private volatile String apiHost = API_HOST;
+    private volatile boolean keepAlive = DEFAULT_KEEP_ALIVE;
+    private int maxConnectionsPerDestination = DEFAULT_MAX_CONNECTIONS_PER_DESTINATION;
+    private int idleTimeoutSeconds = DEFAULT_IDLE_TIMEOUT_SECONDS;
+    private int connectTimeoutSeconds = DEFAULT_CONNECT_TIMEOUT_SECONDS;
+    private final Map<Endpoint, Integer> requestTimeoutSeconds = new EnumMap<>(Map.of(Endpoint.LOGIN,
+            DEFAULT_LOGIN_TIMEOUT_SECONDS, Endpoint.DEVICE_LIST, DEFAULT_DEVICE_LIST_TIMEOUT_SECONDS, Endpoint.DEVICE,
+            DEFAULT_DEVICE_TIMEOUT_SECONDS));
+
+    /**
+     * @param httpClientFactory - the factory of the HTTP client
+     * @param bridgeId - the id of the bridge, so its client and the client's threads can be told apart
+     */
+    public VesyncHttpTransport(final HttpClientFactory httpClientFactory, final String bridgeId) {
+        this.httpClientFactory = httpClientFactory;
+        this.consumerName = consumerName(bridgeId);
+    }
+
+    /**
+     * @return - the name of the client of the given bridge, as the HTTP client factory accepts it: lower case letters,
+     *         digits, '-' and '_', and at most 20 characters.
+     */
+    static String consumerName(final String bridgeId) {
+        final String name = CONSUMER_NAME + "-" + bridgeId.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_-]", "_");
+        return name.length() > MAX_CONSUMER_NAME_LENGTH ? name.substring(0, MAX_CONSUMER_NAME_LENGTH) : name;
+    }
+
+    /**
+     * Configure the connections to the VeSync cloud. Changes to the connection pool take effect the next time the
+     * transport is started.
+     *
+     * @param keepAlive - true if connections are reused for further requests
+     * @param maxConnectionsPerDestination - the maximum number of connections open to each host
+     * @param idleTimeoutSeconds - how long an idle connection is kept open for reuse
+     * @param connectTimeoutSeconds - how long establishing a connection may take
+     */
+    public synchronized void configureConnections(final boolean keepAlive, final int maxConnectionsPerDestination,
+            final int idleTimeoutSeconds, final int connectTimeoutSeconds) {
+        this.keepAlive = keepAlive;
+        this.maxConnectionsPerDestination = Math.max(1, maxConnectionsPerDestination);
+        this.idleTimeoutSeconds = Math.max(1, idleTimeoutSeconds);
+        this.connectTimeoutSeconds = Math.max(1, connectTimeoutSeconds);
+    }
+
+    /**
+     * Configure the host requests are sent to, e.g. to use a local stand-in for the VeSync cloud.
+     *
+     * @param apiHost - the scheme, host and optionally port of the API, or null to use the VeSync cloud
+     */
+    public void configureApiHost(final @Nullable String apiHost) {
+        this.apiHost = apiHost == null || apiHost.isBlank() ? API_HOST : apiHost.trim().replaceAll("/+$", "");
+    }
+
+    /**
+     * Configure how long requests to the given group of endpoints may take in total, including waiting for a
+     * connection.
+     *
+     * @param endpoint - the group of endpoints
+     * @param timeoutSeconds - the request timeout
+     */
+    public synchronized void configureRequestTimeout(final Endpoint endpoint, final int timeoutSeconds) {
+        requestTimeoutSeconds.put(endpoint, Math.max(1, timeoutSeconds));
+    }
+
+    /**
+     * Start a new HTTP client with the current configuration, replacing any client already running.
+     *
+     * @throws IllegalStateException - if the client could not be started
+     */
+    public synchronized void start() {
+        stop();
+        final HttpClient client = httpClientFactory.createHttpClient(consumerName);
+        client.setMaxConnectionsPerDestination(maxConnectionsPerDestination);
+        client.setIdleTimeout(TimeUnit.SECONDS.toMillis(idleTimeoutSeconds));
+        client.setConnectTimeout(TimeUnit.SECONDS.toMillis(connectTimeoutSeconds));
+        try {
+            client.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not start the HTTP client for VeSync", e);
+        }
+        httpClient = client;
+    }
+
+    /**
+     * Stop the HTTP client, closing its connections.
+     */
+    public synchronized void stop() {
+        final HttpClient client = httpClient;
+        httpClient = null;
+        if (client != null) {
+            try {
+                client.stop();
+            } catch (Exception e) {
+                logger.debug("Failed to stop the HTTP client for VeSync: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Create a POST request to the given url, with the timeout configured for its endpoint.
+     *
+     * @param url - the url to post to
+     * @return - the request
+     * @throws IllegalStateException - if the transport has not been started
+     */
+    public synchronized Request newPost(final String url) {
+        final HttpClient client = httpClient;
+        if (client == null) {
+            throw new IllegalStateException("The HTTP client for VeSync is not started");
+        }
+        final Request request = client.POST(resolve(url));
+        request.timeout(getRequestTimeoutSeconds(Endpoint.forUrl(url)), TimeUnit.SECONDS);
+        if (!keepAlive) {
+            request.header(HttpHeader.CONNECTION, "close");
+        }
+        return request;
+    }
+
+    /**
+     * @return - the url to send the request for the given VeSync cloud url to, on the configured host.
+     */
+    String resolve(final String url) {
+        final String host = apiHost;
+        if (API_HOST.equals(host) || !url.startsWith(API_HOST)) {
+            return url;
+        }
+        return host + url.substring(API_HOST.length());
+    }
+
+    /**
+     * @return - the timeout for requests to the given group of endpoints, in seconds
+     */
+    public synchronized int getRequestTimeoutSeconds(final Endpoint endpoint) {
+        final Integer timeout = requestTimeoutSeconds.get(endpoint);
+        return timeout != null ? timeout : DEFAULT_DEVICE_TIMEOUT_SECONDS;
+    }
+
+    /**
+     * @return - the current statistics of the connection pools of the client.
+     */
+    public PoolStatistics getPoolStatistics() {
+        final HttpClient client;
+        synchronized (this) {
+            client = httpClient;
+        }
+        int active = 0;
+        int idle = 0;
+        int queued = 0;
+        if (client != null) {
+            for (Destination destination : client.getDestinations()) {
+                if (!(destination instanceof HttpDestination)) {
+                    continue;
+                }
+                final HttpDestination httpDestination = (HttpDestination) destination;
+                queued += httpDestination.getQueuedRequestCount();
+                final ConnectionPool pool = httpDestination.getConnectionPool();
+                if (pool instanceof AbstractConnectionPool) {
+                    active += ((AbstractConnectionPool) pool).getActiveConnectionCount();
+                    idle += ((AbstractConnectionPool) pool).getIdleConnectionCount();
+                }
+            }
+        }
+        return new PoolStatistics(active, idle, queued);
+    }
+
+    /**
+     * A snapshot of the connection pools of the client, summed over all destinations.
+     */
+    public static final class PoolStatistics {
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int queuedRequests;
+
+        PoolStatistics(final int activeConnections, final int idleConnections, final int queuedRequests) {
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.queuedRequests = queuedRequests;
+        }
+
+        public int getActiveConnections() {
+            return activeConnections;
+        }
+
+        public int getIdleConnections() {
+            return idleConnections;
+        }
+
+        public int getQueuedRequests() {
+            return queuedRequests;
+        }
+    }
+}
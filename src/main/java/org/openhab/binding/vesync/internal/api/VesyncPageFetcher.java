@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link VesyncPageFetcher} fetches a known range of pages concurrently, limiting the number of pages requested
+ * at any one time. Each of the concurrent workers requests its next page only once its previous page has arrived.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public final class VesyncPageFetcher {
+
+    private VesyncPageFetcher() {
+    }
+
+    /**
+     * Fetch the pages in the given range.
+     *
+     * @param firstPage - the number of the first page to fetch
+     * @param lastPage - the number of the last page to fetch, inclusive
+     * @param maxConcurrentPages - the maximum number of pages requested at any one time
+     * @param fetchPage - requests the page with the given number
+     * @return - a future completed with the pages in page order once all have arrived, or completed exceptionally if
+     *         any page could not be fetched
+     */
+    public static <T> CompletableFuture<List<T>> fetchPages(final int firstPage, final int lastPage,
+            final int maxConcurrentPages, final IntFunction<CompletableFuture<T>> fetchPage) {
+        final int pageCount = lastPage - firstPage + 1;
+        if (pageCount <= 0) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        }
+        final Object[] pages = new Object[pageCount];
+        final AtomicInteger nextPage = new AtomicInteger(firstPage);
+        final CompletableFuture<?>[] workers = new CompletableFuture<?>[Math.min(Math.max(1, maxConcurrentPages),
+                pageCount)];
+        for (int i = 0; i < workers.length; ++i) {
+            workers[i] = fetchNextPage(firstPage, lastPage, nextPage, pages, fetchPage);
+        }
+        return CompletableFuture.allOf(workers).thenApply(done -> {
+            @SuppressWarnings("unchecked")
+            final List<T> result = (List<T>) new ArrayList<>(Arrays.asList(pages));
+            return result;
+        });
+    }
+
+    private static <T> CompletableFuture<Void> fetchNextPage(final int firstPage, final int lastPage,
+            final AtomicInteger nextPage, final Object[] pages, final IntFunction<CompletableFuture<T>> fetchPage) {
+        final int pageNo = nextPage.getAndIncrement();
+        if (pageNo > lastPage) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return fetchPage.apply(pageNo).thenCompose(page -> {
+            // Each slot is written by a single worker, and read once all workers have completed
+            pages[pageNo - firstPage] = page;
+            return fetchNextPage(firstPage, lastPage, nextPage, pages, fetchPage);
+        });
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link VesyncRateGovernor} is a token bucket limiting the rate of requests sent to the VeSync cloud for an
+ * account. Requests that exceed the budget are queued, rather than blocking a thread, and released as tokens become
+ * available.
+ *
+ * When the cloud signals it is throttling or struggling, the effective rate is halved and no requests are released
+ * for an exponentially increasing back-off period. Further signals during that period are responses to requests sent
+ * before it, so do not back off again. Successful requests slowly restore the configured rate.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRateGovernor {
+
+    public static final int DEFAULT_REQUESTS_PER_MINUTE = 600;
+    public static final int DEFAULT_BURST_SIZE = 30;
+
+    private static final int MAX_QUEUE_DEPTH = 1000;
+    private static final double MIN_REQUESTS_PER_SECOND = 1.0 / 60;
+    private static final int RECOVERY_STEPS = 20;
+    private static final long BASE_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier nanoClock;
+
+    private final Deque<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+
+    private double requestsPerSecond;
+    private double effectiveRequestsPerSecond;
+    private int burstSize;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+    private int backoffLevel;
+    private boolean drainScheduled;
+
+    public VesyncRateGovernor(final ScheduledExecutorService scheduler) {
+        this(scheduler, System::nanoTime);
+    }
+
+    VesyncRateGovernor(final ScheduledExecutorService scheduler, final LongSupplier nanoClock) {
+        this.scheduler = scheduler;
+        this.nanoClock = nanoClock;
+        this.lastRefillNanos = nanoClock.getAsLong();
+        this.pausedUntilNanos = lastRefillNanos;
+        configure(DEFAULT_REQUESTS_PER_MINUTE, DEFAULT_BURST_SIZE);
+        this.tokens = burstSize;
+    }
+
+    /**
+     * Configure the budget of the account.
+     *
+     * @param requestsPerMinute - the sustained number of requests allowed per minute
+     * @param burstSize - the number of requests that may be sent back to back, when the budget has not been used
+     */
+    public synchronized void configure(final int requestsPerMinute, final int burstSize) {
+        this.requestsPerSecond = Math.max(MIN_REQUESTS_PER_SECOND, requestsPerMinute / 60.0);
+        this.effectiveRequestsPerSecond = backoffLevel == 0 ? this.requestsPerSecond
+                : Math.min(this.effectiveRequestsPerSecond, this.requestsPerSecond);
+        this.burstSize = Math.max(1, burstSize);
+        this.tokens = Math.min(tokens, this.burstSize);
+    }
+
+    /**
+     * Acquire permission to send a request.
+     *
+     * @return - a future completed when the request may be sent, or completed exceptionally with a
+     *         {@link RejectedExecutionException} if too many requests are already waiting.
+     */
+    public CompletableFuture<Void> acquire() {
+        synchronized (this) {
+            final long now = nanoClock.getAsLong();
+            refill(now);
+            if (waiting.isEmpty() && tokens >= 1 && now >= pausedUntilNanos) {
+                tokens -= 1;
+                return CompletableFuture.completedFuture(null);
+            }
+            if (waiting.size() >= MAX_QUEUE_DEPTH) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("Too many requests waiting for the VeSync API budget"));
+            }
+            final CompletableFuture<Void> permit = new CompletableFuture<>();
+            waiting.add(permit);
+            scheduleDrain(now);
+            return permit;
+        }
+    }
+
+    /**
+     * Report the cloud throttled or failed a request, reducing the rate and pausing the release of requests, unless
+     * the release of requests is already paused.
+     */
+    public synchronized void onThrottled() {
+        final long now = nanoClock.getAsLong();
+        if (now - pausedUntilNanos < 0) {
+            return;
+        }
+        effectiveRequestsPerSecond = Math.max(MIN_REQUESTS_PER_SECOND, effectiveRequestsPerSecond / 2);
+        final long backoff = Math.min(MAX_BACKOFF_NANOS, BASE_BACKOFF_NANOS << Math.min(backoffLevel, 16));
+        backoffLevel++;
+        pausedUntilNanos = Math.max(pausedUntilNanos, now + backoff);
+        tokens = 0;
+    }
+
+    /**
+     * Report the cloud accepted a request, gradually restoring the configured rate.
+     */
+    public synchronized void onSuccess() {
+        if (effectiveRequestsPerSecond < requestsPerSecond) {
+            effectiveRequestsPerSecond = Math.min(requestsPerSecond,
+                    effectiveRequestsPerSecond + requestsPerSecond / RECOVERY_STEPS);
+        }
+        if (effectiveRequestsPerSecond >= requestsPerSecond) {
+            backoffLevel = 0;
+        }
+    }
+
+    /**
+     * Fail the requests waiting for budget with a {@link RejectedExecutionException}, e.g. as the account is being
+     * disposed of. Requests acquired afterwards are governed as before.
+     */
+    public void close() {
+        final List<CompletableFuture<Void>> rejected;
+        synchronized (this) {
+            rejected = new ArrayList<>(waiting);
+            waiting.clear();
+        }
+        final RejectedExecutionException closed = new RejectedExecutionException(
+                "The VeSync API budget was closed while the request was waiting");
+        rejected.forEach(permit -> permit.completeExceptionally(closed));
+    }
+
+    /**
+     * @return - the current budget in requests per minute, after any back-off has been applied
+     */
+    public synchronized double getBudget() {
+        return effectiveRequestsPerSecond * 60;
+    }
+
+    /**
+     * @return - the longest a request acquired now waits for budget, at the current rate: the remainder of any pause,
+     *         then the release of the requests already waiting and of the request itself
+     */
+    public synchronized long getMaxWaitNanos() {
+        final long paused = Math.max(0, pausedUntilNanos - nanoClock.getAsLong());
+        return paused + (long) ((waiting.size() + 1) / effectiveRequestsPerSecond * 1_000_000_000.0);
+    }
+
+    /**
+     * @return - the number of requests waiting for budget to be sent
+     */
+    public synchronized int getQueueDepth() {
+        return waiting.size();
+    }
+
+    private void drain() {
+        final List<CompletableFuture<Void>> released = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            final long now = nanoClock.getAsLong();
+            refill(now);
+            while (!waiting.isEmpty() && tokens >= 1 && now >= pausedUntilNanos) {
+                tokens -= 1;
+                released.add(waiting.poll());
+            }
+            if (!waiting.isEmpty()) {
+                scheduleDrain(now);
+            }
+        }
+        // Release outside of the lock, as the dependent stages run on this thread
+        released.forEach(permit -> permit.complete(null));
+    }
+
+    private void refill(final long now) {
+        final long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burstSize, tokens + elapsed * effectiveRequestsPerSecond / 1_000_000_000.0);
+            lastRefillNanos = now;
+        }
+    }
+
+    private void scheduleDrain(final long now) {
+        if (drainScheduled) {
+            return;
+        }
+        final long untilToken = tokens >= 1 ? 0
+                : (long) Math.ceil((1 - tokens) * 1_000_000_000.0 / effectiveRequestsPerSecond);
+        final long delay = Math.max(untilToken, pausedUntilNanos - now);
+        drainScheduled = true;
+        scheduler.schedule(this::drain, Math.max(delay, 1), TimeUnit.NANOSECONDS);
+    }
+}
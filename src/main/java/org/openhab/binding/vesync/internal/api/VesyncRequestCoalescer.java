@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link VesyncRequestCoalescer} implements single-flight semantics for idempotent requests. Concurrent callers
+ * using the same key share the one outstanding request and its decoded result, rather than each sending their own.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRequestCoalescer {
+
+    private static final String KEY_SEPARATOR = "/";
+
+    private final Map<String, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Generate the key for a request of the given method to the given device.
+     *
+     * @param macId - the mac id of the device
+     * @param method - the method of the request
+     * @return - the key to coalesce the request under
+     */
+    public static String key(final String macId, final String method) {
+        return macId + KEY_SEPARATOR + method;
+    }
+
+    /**
+     * Join the outstanding request for the key, or start a new one via the supplier if there is none.
+     *
+     * @param key - the key identifying the request
+     * @param request - supplies the request to send if there is no outstanding request to join
+     * @return - a future for the result of the shared request
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(final String key, final Supplier<CompletableFuture<T>> request) {
+        final CompletableFuture<T> created = new CompletableFuture<>();
+        final CompletableFuture<?> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            hits.incrementAndGet();
+            // Hand out copies so a caller cancelling its future does not affect the other callers
+            return ((CompletableFuture<T>) existing).copy();
+        }
+        misses.incrementAndGet();
+
+        try {
+            request.get().whenComplete((result, failure) -> {
+                inFlight.remove(key, created);
+                if (failure != null) {
+                    created.completeExceptionally(failure);
+                } else {
+                    created.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created.copy();
+    }
+
+    /**
+     * Stop new callers joining any outstanding requests for the device, e.g. because a command has been sent that
+     * will make their result stale. Callers already waiting on those requests still receive their results.
+     *
+     * @param macId - the mac id of the device
+     */
+    public void forget(final String macId) {
+        final String prefix = macId + KEY_SEPARATOR;
+        inFlight.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * @return - the number of requests that were served by joining an outstanding request
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return - the number of requests that had to be sent as there was no outstanding request to join
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequest;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link VesyncRequestEncoder} serializes requests for the wire in the compact form, exactly once per request.
+ * The encoding is done into a buffer that is reused by the calling thread, so the only allocation retained is the
+ * final body handed to the HTTP client.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public final class VesyncRequestEncoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<EncodeBuffer> BUFFERS = ThreadLocal.withInitial(EncodeBuffer::new);
+
+    private VesyncRequestEncoder() {
+    }
+
+    /**
+     * Encode the request for sending to the API.
+     *
+     * @param request - the request to encode
+     * @return - the UTF-8 encoded body of the request
+     */
+    public static byte[] encode(final VesyncRequest request) {
+        final EncodeBuffer buffer = BUFFERS.get();
+        final byte[] encoded;
+        try {
+            encoded = buffer.encode(request);
+        } catch (IOException e) {
+            // Writing to memory can only fail due to the request itself, do not reuse a buffer in an unknown state
+            BUFFERS.remove();
+            throw new JsonIOException(e);
+        }
+        if (buffer.bytes.size() > MAX_RETAINED_BUFFER_SIZE) {
+            // Do not hold on to the memory of an unusually large request
+            BUFFERS.remove();
+        }
+        return encoded;
+    }
+
+    private static final class EncodeBuffer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        private final Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+
+        private byte[] encode(final VesyncRequest request) throws IOException {
+            bytes.reset();
+            final JsonWriter jsonWriter = VeSyncConstants.GSON_WIRE.newJsonWriter(writer);
+            VeSyncConstants.GSON_WIRE.toJson(request, request.getClass(), jsonWriter);
+            jsonWriter.flush();
+            return bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,328 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.API_HOST;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link VesyncRequestMetrics} records the latency and outcome of the requests sent to the VeSync API, for each
+ * endpoint and method. Recording only shares a lock with the other recording threads, so it can be done on the HTTP
+ * client's threads, and the recorded values are drained into a {@link Snapshot} each time they are published. A
+ * drain excludes recording, so each request is counted in both the outcomes and latencies of the same snapshot.
+ *
+ * Latencies are kept in a log-linear histogram of milliseconds, with 8 buckets for each power of 2, so percentiles are
+ * reported within 12.5% of the recorded latency.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRequestMetrics {
+
+    /**
+     * The outcome of a request that was sent.
+     */
+    public enum Outcome {
+        /** The API accepted the request */
+        SUCCESS,
+        /** The API accepted the request, but the device it was addressed to is offline */
+        DEVICE_OFFLINE,
+        /** The API rejected the credentials or the token of the session */
+        AUTH_FAILURE,
+        /** No response was received in time */
+        TIMEOUT,
+        /** The request failed in transport or with an HTTP status other than OK */
+        HTTP_ERROR,
+        /** The API responded, but did not accept the request */
+        API_ERROR;
+
+        /**
+         * @return - true if the outcome counts as an error of the API.
+         */
+        public boolean isError() {
+            return this != SUCCESS && this != DEVICE_OFFLINE;
+        }
+    }
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 21;
+    static final long MAX_TRACKED_MILLIS = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private static final String NO_METHOD = "";
+
+    private final Map<String, Map<String, Operation>> operations = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final AtomicLong lastSnapshotNanos;
+
+    public VesyncRequestMetrics() {
+        this(System::nanoTime);
+    }
+
+    VesyncRequestMetrics(final LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.lastSnapshotNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Get the metrics of requests of the given method to the given endpoint, creating them the first time.
+     *
+     * @param url - the url of the endpoint
+     * @param method - the method of the request, e.g. the bypass method
+     * @return - the metrics to record the requests with
+     */
+    public Operation forOperation(final String url, final String method) {
+        return operations.computeIfAbsent(url, u -> new ConcurrentHashMap<>()).computeIfAbsent(method,
+                m -> new Operation(operationName(url, m)));
+    }
+
+    /**
+     * @return - the nanosecond time to measure the latency of a request from.
+     */
+    public long startTimer() {
+        return nanoClock.getAsLong();
+    }
+
+    /**
+     * Drain the values recorded since the last snapshot.
+     *
+     * @return - the values recorded for all operations, and for each operation that was used in the interval
+     */
+    public Snapshot snapshot() {
+        final long now = nanoClock.getAsLong();
+        final long intervalNanos = Math.max(0, now - lastSnapshotNanos.getAndSet(now));
+        final long[] totalOutcomes = new long[Outcome.values().length];
+        final long[] totalLatencies = new long[BUCKETS];
+        final Map<String, Snapshot> byOperation = new TreeMap<>();
+        for (Map<String, Operation> methods : operations.values()) {
+            for (Operation operation : methods.values()) {
+                final long[] outcomes = new long[totalOutcomes.length];
+                final long[] latencies = new long[BUCKETS];
+                if (operation.drain(outcomes, latencies)) {
+                    add(totalOutcomes, outcomes);
+                    add(totalLatencies, latencies);
+                    byOperation.put(operation.name, new Snapshot(intervalNanos, outcomes, latencies, Map.of()));
+                }
+            }
+        }
+        return new Snapshot(intervalNanos, totalOutcomes, totalLatencies, byOperation);
+    }
+
+    private static void add(final long[] total, final long[] values) {
+        for (int i = 0; i < total.length; ++i) {
+            total[i] += values[i];
+        }
+    }
+
+    private static String operationName(final String url, final String method) {
+        final String endpoint = url.startsWith(API_HOST) ? url.substring(API_HOST.length()) : url;
+        return NO_METHOD.equals(method) ? endpoint : endpoint + " " + method;
+    }
+
+    static int bucketOf(final long millis) {
+        final long value = Math.max(0, Math.min(MAX_TRACKED_MILLIS, millis));
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int subBucket = (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * @return - the largest latency in milliseconds recorded in the given bucket.
+     */
+    static long highestValueOf(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        final long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * The metrics of the requests of one method to one endpoint.
+     */
+    public final class Operation {
+        private final String name;
+        private final LongAdder[] outcomes = new LongAdder[Outcome.values().length];
+        private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+        private final ReadWriteLock drainLock = new ReentrantReadWriteLock();
+
+        private Operation(final String name) {
+            this.name = name;
+            for (int i = 0; i < outcomes.length; ++i) {
+                outcomes[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Record the outcome of a request.
+         *
+         * @param outcome - the outcome of the request
+         * @param startNanos - the time the request was sent, from {@link VesyncRequestMetrics#startTimer()}
+         */
+        public void record(final Outcome outcome, final long startNanos) {
+            final int bucket = bucketOf(TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - startNanos));
+            drainLock.readLock().lock();
+            try {
+                outcomes[outcome.ordinal()].increment();
+                latencies.incrementAndGet(bucket);
+            } finally {
+                drainLock.readLock().unlock();
+            }
+        }
+
+        private boolean drain(final long[] outcomeCounts, final long[] latencyCounts) {
+            boolean used = false;
+            drainLock.writeLock().lock();
+            try {
+                for (int i = 0; i < outcomes.length; ++i) {
+                    outcomeCounts[i] = outcomes[i].sumThenReset();
+                    used |= outcomeCounts[i] != 0;
+                }
+                for (int i = 0; i < BUCKETS; ++i) {
+                    if (latencies.get(i) != 0) {
+                        latencyCounts[i] = latencies.getAndSet(i, 0);
+                    }
+                }
+            } finally {
+                drainLock.writeLock().unlock();
+            }
+            return used;
+        }
+    }
+
+    /**
+     * The values recorded in an interval.
+     */
+    public static final class Snapshot {
+        private final long intervalNanos;
+        private final long[] outcomes;
+        private final long[] latencies;
+        private final Map<String, Snapshot> operations;
+
+        private Snapshot(final long intervalNanos, final long[] outcomes, final long[] latencies,
+                final Map<String, Snapshot> operations) {
+            this.intervalNanos = intervalNanos;
+            this.outcomes = outcomes;
+            this.latencies = latencies;
+            this.operations = Collections.unmodifiableMap(operations);
+        }
+
+        /**
+         * @return - the number of requests that completed in the interval.
+         */
+        public long getRequests() {
+            long requests = 0;
+            for (long count : outcomes) {
+                requests += count;
+            }
+            return requests;
+        }
+
+        /**
+         * @return - the number of requests with the given outcome.
+         */
+        public long getCount(final Outcome outcome) {
+            return outcomes[outcome.ordinal()];
+        }
+
+        /**
+         * @return - the number of requests with each outcome.
+         */
+        public Map<Outcome, Long> getCounts() {
+            final Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counts.put(outcome, outcomes[outcome.ordinal()]);
+            }
+            return counts;
+        }
+
+        /**
+         * @return - the number of requests that completed with an error.
+         */
+        public long getErrors() {
+            long errors = 0;
+            for (Outcome outcome : Outcome.values()) {
+                if (outcome.isError()) {
+                    errors += outcomes[outcome.ordinal()];
+                }
+            }
+            return errors;
+        }
+
+        /**
+         * @return - the requests completed per minute over the interval.
+         */
+        public double getRequestsPerMinute() {
+            return intervalNanos > 0 ? getRequests() * (double) TimeUnit.MINUTES.toNanos(1) / intervalNanos : 0;
+        }
+
+        /**
+         * @return - the percentage of the requests that completed with an error, or 0 if there were no requests.
+         */
+        public double getErrorRatePercent() {
+            final long requests = getRequests();
+            return requests > 0 ? 100.0 * getErrors() / requests : 0;
+        }
+
+        /**
+         * @param percentile - the percentile, between 0 and 100
+         * @return - the latency in milliseconds the given percentile of requests completed within, or 0 if there were
+         *         no requests.
+         */
+        public long getLatencyPercentileMillis(final double percentile) {
+            long count = 0;
+            for (long bucketCount : latencies) {
+                count += bucketCount;
+            }
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+            long seen = 0;
+            for (int i = 0; i < latencies.length; ++i) {
+                seen += latencies[i];
+                if (seen >= rank) {
+                    return highestValueOf(i);
+                }
+            }
+            return MAX_TRACKED_MILLIS;
+        }
+
+        /**
+         * @return - the snapshots of the operations used in the interval, by endpoint and method.
+         */
+        public Map<String, Snapshot> getOperations() {
+            return operations;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * The {@link VesyncRequestTemplateCache} holds pre-encoded BypassV2 requests per device and method. Only the
+ * authentication, trace id and payload data differ between requests for the same device and method, so everything
+ * else is encoded once and those fields are spliced into the pre-encoded bytes for each request.
+ *
+ * The templates depend on the addressing data of the device, so must be forgotten when that changes.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRequestTemplateCache {
+
+    private static final String SLOT_MARKER = "\u0000vesync-slot-";
+
+    /**
+     * The fields of a request that are spliced into the template.
+     */
+    enum Slot {
+        ACCOUNT_ID("accountID"),
+        TOKEN("token"),
+        TRACE_ID("traceId"),
+        DATA("data");
+
+        private final String fieldName;
+        private final String marker;
+
+        Slot(final String fieldName) {
+            this.fieldName = fieldName;
+            this.marker = VeSyncConstants.GSON_WIRE.toJson(SLOT_MARKER + fieldName);
+        }
+    }
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Encode a BypassV2 request for the device, using the template for the device and method.
+     *
+     * @param macId - the mac id of the device the request is addressed to
+     * @param device - the addressing data of the device
+     * @param accountId - the account id of the current session
+     * @param token - the token of the current session
+     * @param request - the request providing the method, trace id and payload data
+     * @return - the UTF-8 encoded body of the request
+     */
+    public byte[] encode(final String macId, final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device,
+            final @Nullable String accountId, final @Nullable String token,
+            final VesyncRequestManagedDeviceBypassV2 request) {
+        final String method = request.payload.method;
+        final Template template = templates.computeIfAbsent(VesyncRequestCoalescer.key(macId, method),
+                key -> new Template(device, method));
+        return template.render(accountId, token, request.traceId, request.payload.data);
+    }
+
+    /**
+     * Discard the templates of a device, e.g. because its addressing data has changed.
+     *
+     * @param macId - the mac id of the device
+     */
+    public void forget(final String macId) {
+        final String prefix = VesyncRequestCoalescer.key(macId, "");
+        templates.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    /**
+     * Discard all templates.
+     */
+    public void clear() {
+        templates.clear();
+    }
+
+    /**
+     * @return - the number of templates currently held
+     */
+    public int size() {
+        return templates.size();
+    }
+
+    private static final class Template {
+        private final byte[][] segments;
+        private final Slot[] slots;
+        private final int constantLength;
+
+        private Template(final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device,
+                final @Nullable String method) {
+            final VesyncRequestManagedDeviceBypassV2 prototype = new VesyncRequestManagedDeviceBypassV2();
+            prototype.cid = device.cid;
+            prototype.configModule = device.configModule;
+            prototype.deviceRegion = device.deviceRegion;
+            prototype.payload.method = method;
+
+            // Replace the variable fields with markers, so the encoding can be split around them
+            final JsonObject tree = VeSyncConstants.GSON_WIRE.toJsonTree(prototype).getAsJsonObject();
+            for (Slot slot : Slot.values()) {
+                final JsonObject holder = slot == Slot.DATA ? tree.getAsJsonObject("payload") : tree;
+                holder.add(slot.fieldName, new JsonPrimitive(SLOT_MARKER + slot.fieldName));
+            }
+            final String encoded = VeSyncConstants.GSON_WIRE.toJson(tree);
+
+            final List<byte[]> segmentList = new ArrayList<>();
+            final List<Slot> slotList = new ArrayList<>();
+            int start = 0;
+            int length = 0;
+            while (true) {
+                @Nullable
+                Slot next = null;
+                int nextIndex = encoded.length();
+                for (Slot slot : Slot.values()) {
+                    final int index = encoded.indexOf(slot.marker, start);
+                    if (index >= 0 && index < nextIndex) {
+                        next = slot;
+                        nextIndex = index;
+                    }
+                }
+                final byte[] segment = encoded.substring(start, nextIndex).getBytes(StandardCharsets.UTF_8);
+                segmentList.add(segment);
+                length += segment.length;
+                if (next == null) {
+                    break;
+                }
+                slotList.add(next);
+                start = nextIndex + next.marker.length();
+            }
+            this.segments = segmentList.toArray(new byte[0][]);
+            this.slots = slotList.toArray(new Slot[0]);
+            this.constantLength = length;
+        }
+
+        private byte[] render(final @Nullable String accountId, final @Nullable String token,
+                final @Nullable String traceId, final VesyncRequestManagedDeviceBypassV2.@Nullable EmptyPayload data) {
+            final byte[][] values = new byte[slots.length][];
+            int length = constantLength;
+            for (int i = 0; i < slots.length; ++i) {
+                final @Nullable Object value;
+                switch (slots[i]) {
+                    case ACCOUNT_ID:
+                        value = accountId;
+                        break;
+                    case TOKEN:
+                        value = token;
+                        break;
+                    case TRACE_ID:
+                        value = traceId;
+                        break;
+                    default:
+                        value = data;
+                        break;
+                }
+                values[i] = VeSyncConstants.GSON_WIRE.toJson(value).getBytes(StandardCharsets.UTF_8);
+                length += values[i].length;
+            }
+
+            final byte[] output = new byte[length];
+            int position = append(output, 0, segments[0]);
+            for (int i = 0; i < slots.length; ++i) {
+                position = append(output, position, values[i]);
+                position = append(output, position, segments[i + 1]);
+            }
+            return output;
+        }
+
+        private static int append(final byte[] output, final int position, final byte[] bytes) {
+            System.arraycopy(bytes, 0, output, position, bytes.length);
+            return position + bytes.length;
+        }
+    }
+}
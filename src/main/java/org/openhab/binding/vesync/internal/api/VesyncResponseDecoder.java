@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.RequestRejectedException;
+import org.openhab.binding.vesync.internal.exceptions.SessionRejectedException;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link VesyncResponseDecoder} decodes the body of a response from the VeSync API in a single streaming pass,
+ * directly into the DTO the caller requires. The common envelope fields are part of every response DTO, so they are
+ * checked on the decoded result rather than by parsing the body a second time.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public final class VesyncResponseDecoder {
+
+    /**
+     * Response codes the API uses when the token of the session is invalid or has expired.
+     */
+    private static final Set<String> SESSION_REJECTED_CODES = Set.of("4001004");
+
+    private VesyncResponseDecoder() {
+    }
+
+    /**
+     * Decode a response body, rejecting it if the API did not accept the request.
+     *
+     * @param body - the body of the response
+     * @param charset - the character set the body is encoded in
+     * @param responseType - the type to decode the response as
+     * @return - the decoded response
+     * @throws AuthenticationException - if the body could not be decoded, or the API did not accept the request
+     */
+    public static <T extends VesyncResponse> T decodeAccepted(final InputStream body, final Charset charset,
+            final Class<T> responseType) throws AuthenticationException {
+        return decodeAccepted(new InputStreamReader(body, charset), responseType);
+    }
+
+    /**
+     * Decode a response body, rejecting it if the API did not accept the request.
+     *
+     * @param body - the body of the response
+     * @param responseType - the type to decode the response as
+     * @return - the decoded response
+     * @throws AuthenticationException - if the body could not be decoded, or the API did not accept the request
+     * @throws SessionRejectedException - if the API rejected the token the request was sent with
+     * @throws RequestRejectedException - if the API did not accept the request for another reason
+     */
+    public static <T extends VesyncResponse> T decodeAccepted(final Reader body, final Class<T> responseType)
+            throws AuthenticationException {
+        final T response = decode(body, responseType);
+        if (isSessionRejected(response)) {
+            throw new SessionRejectedException("Session rejected by the API: " + response);
+        }
+        if (!isAccepted(response)) {
+            throw new RequestRejectedException("Invalid / unexpected JSON response: " + response, response.getCode());
+        }
+        return response;
+    }
+
+    /**
+     * Decode a response body.
+     *
+     * @param body - the body of the response
+     * @param responseType - the type to decode the response as
+     * @return - the decoded response
+     * @throws AuthenticationException - if the body is empty or could not be decoded
+     */
+    public static <T extends VesyncResponse> T decode(final Reader body, final Class<T> responseType)
+            throws AuthenticationException {
+        final @Nullable T response;
+        try (JsonReader reader = new JsonReader(body)) {
+            response = VeSyncConstants.GSON.fromJson(reader, responseType);
+        } catch (IOException | JsonParseException e) {
+            throw new AuthenticationException(e);
+        }
+        if (response == null) {
+            throw new AuthenticationException("Empty response");
+        }
+        return response;
+    }
+
+    /**
+     * @return - true if the API rejected the request due to the token of the session it was sent with. Only the
+     *         response code decides this, as the message is free text; an HTTP 401 is handled with the status of the
+     *         response.
+     */
+    public static boolean isSessionRejected(final VesyncResponse response) {
+        final String code = response.getCode();
+        return code != null && SESSION_REJECTED_CODES.contains(code);
+    }
+
+    /**
+     * @return - true if the API rejected the request with one of the given codes, taken as throttling the account.
+     *         Unlike the rejection of a session, the API documents no code for this, so the codes are configured.
+     */
+    public static boolean isThrottled(final RequestRejectedException rejected, final Set<String> throttledCodes) {
+        final String code = rejected.getCode();
+        return code != null && throttledCodes.contains(code);
+    }
+
+    /**
+     * @return - the response codes of a comma separated list, e.g. those configured as throttling the account.
+     */
+    public static Set<String> parseCodes(final @Nullable String codes) {
+        if (codes == null) {
+            return Set.of();
+        }
+        return Arrays.stream(codes.split(",")).map(String::trim).filter(code -> !code.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @return - true if the API accepted the request, i.e. it succeeded or was accepted for a device that is offline.
+     */
+    public static boolean isAccepted(final VesyncResponse response) {
+        return response.isMsgSuccess() || response.isMsgDeviceOffline();
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncLoginResponse;
+import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.SessionRejectedException;
+
+/**
+ * The {@link VesyncSessionManager} manages the lifecycle of the session with the VeSync cloud for an account.
+ *
+ * A new login is run when there is no session, when the token of the session has reached its maximum age, or when the
+ * API rejects the token of the session. Only one login runs at a time, requests needing a session while it runs wait
+ * for its result. Requests rejected due to their session are replayed once with the new session.
+ *
+ * After a failed login, further logins are only attempted after an exponentially increasing delay, so invalid
+ * credentials do not cause a login per request.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncSessionManager {
+
+    public static final long DEFAULT_MAX_TOKEN_AGE_NANOS = TimeUnit.HOURS.toNanos(12);
+
+    private static final long MIN_LOGIN_RETRY_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long MAX_LOGIN_RETRY_NANOS = TimeUnit.MINUTES.toNanos(30);
+
+    private final LongSupplier nanoClock;
+    private final long maxTokenAgeNanos;
+
+    private @Nullable Supplier<CompletableFuture<VesyncLoginResponse.VesyncUserSession>> login;
+    private int loginGeneration;
+
+    private VesyncLoginResponse.@Nullable VesyncUserSession session;
+    private long sessionCreatedNanos;
+
+    private @Nullable CompletableFuture<VesyncLoginResponse.VesyncUserSession> loginInFlight;
+    private @Nullable Throwable lastLoginFailure;
+    private long loginRetryNotBeforeNanos;
+    private int consecutiveLoginFailures;
+    private long loginCount;
+
+    public VesyncSessionManager() {
+        this(System::nanoTime, DEFAULT_MAX_TOKEN_AGE_NANOS);
+    }
+
+    VesyncSessionManager(final LongSupplier nanoClock, final long maxTokenAgeNanos) {
+        this.nanoClock = nanoClock;
+        this.maxTokenAgeNanos = maxTokenAgeNanos;
+    }
+
+    /**
+     * Set how to login to the account, discarding the current session.
+     *
+     * @param login - sends a login request for the account, or null if there are no credentials to login with
+     */
+    public synchronized void setLogin(
+            final @Nullable Supplier<CompletableFuture<VesyncLoginResponse.VesyncUserSession>> login) {
+        this.login = login;
+        // Results of logins still running for the previous credentials are discarded
+        ++loginGeneration;
+        session = null;
+        loginInFlight = null;
+        lastLoginFailure = null;
+        consecutiveLoginFailures = 0;
+    }
+
+    /**
+     * Login to the account, regardless of any current session or earlier failures to login.
+     *
+     * @return - a future completed with the new session, or completed exceptionally if the login failed
+     */
+    public CompletableFuture<VesyncLoginResponse.VesyncUserSession> login() {
+        synchronized (this) {
+            final CompletableFuture<VesyncLoginResponse.VesyncUserSession> inFlight = loginInFlight;
+            if (inFlight != null) {
+                return inFlight.copy();
+            }
+            return startLogin();
+        }
+    }
+
+    /**
+     * Get a valid session, logging in if required.
+     *
+     * @return - a future completed with the session, or completed exceptionally if no session could be established
+     */
+    public CompletableFuture<VesyncLoginResponse.VesyncUserSession> getSession() {
+        synchronized (this) {
+            final VesyncLoginResponse.VesyncUserSession current = session;
+            final long now = nanoClock.getAsLong();
+            if (current != null && now - sessionCreatedNanos < maxTokenAgeNanos) {
+                return CompletableFuture.completedFuture(current);
+            }
+            final CompletableFuture<VesyncLoginResponse.VesyncUserSession> inFlight = loginInFlight;
+            if (inFlight != null) {
+                return inFlight.copy();
+            }
+            final Throwable failure = lastLoginFailure;
+            if (failure != null && now - loginRetryNotBeforeNanos < 0) {
+                return CompletableFuture
+                        .failedFuture(new AuthenticationException("Login failed, retry is pending", failure));
+            }
+            return startLogin();
+        }
+    }
+
+    /**
+     * Reuse a session established earlier, e.g. before a restart, rather than logging in. If the API rejects it, a
+     * login is run as for any other rejected session.
+     *
+     * @param restored - the session to reuse
+     * @param ageNanos - the time since the session was established
+     * @return - true if the session is used, false if it is too old or a session has already been established
+     */
+    public synchronized boolean restore(final VesyncLoginResponse.VesyncUserSession restored, final long ageNanos) {
+        if (login == null || session != null || loginInFlight != null || ageNanos >= maxTokenAgeNanos) {
+            return false;
+        }
+        session = restored;
+        sessionCreatedNanos = nanoClock.getAsLong() - Math.max(0, ageNanos);
+        return true;
+    }
+
+    /**
+     * Report the API rejected the given session. If it is still the current session it is discarded, so the next
+     * request logs in again.
+     *
+     * @param rejected - the session the API rejected
+     */
+    public synchronized void invalidate(final VesyncLoginResponse.VesyncUserSession rejected) {
+        if (session == rejected) {
+            session = null;
+        }
+    }
+
+    /**
+     * Run a request with a valid session. If the API rejects the session, the request is replayed once with a new
+     * session.
+     *
+     * @param request - sends the request using the given session
+     * @return - a future completed with the result of the request
+     */
+    public <T> CompletableFuture<T> execute(
+            final Function<VesyncLoginResponse.VesyncUserSession, CompletableFuture<T>> request) {
+        return getSession().thenCompose(current -> request.apply(current).handle((result, failure) -> {
+            if (failure == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            if (unwrap(failure) instanceof SessionRejectedException) {
+                invalidate(current);
+                return getSession().thenCompose(request);
+            }
+            return CompletableFuture.<T> failedFuture(unwrap(failure));
+        }).thenCompose(Function.identity()));
+    }
+
+    /**
+     * @return - the current session, or null if there is none.
+     */
+    public synchronized VesyncLoginResponse.@Nullable VesyncUserSession getCurrentSession() {
+        return session;
+    }
+
+    /**
+     * @return - the number of logins that have been started
+     */
+    public synchronized long getLoginCount() {
+        return loginCount;
+    }
+
+    private CompletableFuture<VesyncLoginResponse.VesyncUserSession> startLogin() {
+        final Supplier<CompletableFuture<VesyncLoginResponse.VesyncUserSession>> currentLogin = login;
+        if (currentLogin == null) {
+            return CompletableFuture.failedFuture(new AuthenticationException("User is not logged in"));
+        }
+        final int generation = loginGeneration;
+        final CompletableFuture<VesyncLoginResponse.VesyncUserSession> attempt = new CompletableFuture<>();
+        loginInFlight = attempt;
+        ++loginCount;
+        try {
+            currentLogin.get().whenComplete((newSession, failure) -> onLoginComplete(generation, attempt,
+                    failure == null && newSession == null ? new AuthenticationException("No session in response")
+                            : failure,
+                    newSession));
+        } catch (RuntimeException e) {
+            onLoginComplete(generation, attempt, e, null);
+        }
+        return attempt.copy();
+    }
+
+    private void onLoginComplete(final int generation,
+            final CompletableFuture<VesyncLoginResponse.VesyncUserSession> attempt, final @Nullable Throwable failure,
+            final VesyncLoginResponse.@Nullable VesyncUserSession newSession) {
+        synchronized (this) {
+            if (loginInFlight == attempt) {
+                loginInFlight = null;
+            }
+            if (generation == loginGeneration) {
+                final long now = nanoClock.getAsLong();
+                if (failure == null && newSession != null) {
+                    session = newSession;
+                    sessionCreatedNanos = now;
+                    lastLoginFailure = null;
+                    consecutiveLoginFailures = 0;
+                } else {
+                    session = null;
+                    lastLoginFailure = failure;
+                    final long backoff = Math.min(MAX_LOGIN_RETRY_NANOS,
+                            MIN_LOGIN_RETRY_NANOS << Math.min(consecutiveLoginFailures, 16));
+                    ++consecutiveLoginFailures;
+                    loginRetryNotBeforeNanos = now + backoff;
+                }
+            }
+        }
+        // Complete outside of the lock, as the waiting requests continue on this thread
+        if (failure == null && newSession != null) {
+            attempt.complete(newSession);
+        } else {
+            attempt.completeExceptionally(failure != null ? unwrap(failure) : new AuthenticationException("Login failed"));
+        }
+    }
+
+    private static Throwable unwrap(final Throwable failure) {
+        final Throwable cause = failure.getCause();
+        return failure instanceof CompletionException && cause != null ? cause : failure;
+    }
+}
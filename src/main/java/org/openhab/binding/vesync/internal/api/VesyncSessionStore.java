@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.nio.file.Path;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncLoginResponse;
+
+/**
+ * The {@link VesyncSessionStore} persists the last session established for a bridge, so it can be reused when the
+ * bridge next starts rather than logging in again. The file holds the token of the session, so it is only readable
+ * and writable by the owner of the openHAB process.
+ *
+ * A stored session is only reused for the same account, identified by a hash of its username, so nothing derived
+ * from the password is stored with it.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncSessionStore {
+
+    private static final String STORE_SUFFIX = ".session.json";
+
+    private final VesyncUserDataFile file;
+    private final LongSupplier millisClock;
+
+    public VesyncSessionStore(final Path file) {
+        this(file, System::currentTimeMillis);
+    }
+
+    VesyncSessionStore(final Path file, final LongSupplier millisClock) {
+        this(new VesyncUserDataFile(file), millisClock);
+    }
+
+    private VesyncSessionStore(final VesyncUserDataFile file, final LongSupplier millisClock) {
+        this.file = file;
+        this.millisClock = millisClock;
+    }
+
+    /**
+     * Create the store for the given bridge in the openHAB userdata folder.
+     *
+     * @param bridgeId - the UID of the bridge
+     * @return - the store
+     */
+    public static VesyncSessionStore forBridge(final String bridgeId) {
+        return new VesyncSessionStore(VesyncUserDataFile.forBridge(bridgeId, STORE_SUFFIX),
+                System::currentTimeMillis);
+    }
+
+    /**
+     * Load the stored session for the given account.
+     *
+     * @param account - identifies the account the session must be for
+     * @return - the stored session, or null if there is no session stored for the account
+     */
+    public @Nullable StoredSession load(final String account) {
+        final StoredSession stored = file.read(StoredSession.class);
+        if (stored == null || stored.session == null || !account.equals(stored.account)) {
+            return null;
+        }
+        return stored;
+    }
+
+    /**
+     * Store the session for the given account, replacing any session already stored.
+     *
+     * @param account - identifies the account the session is for
+     * @param session - the session
+     */
+    public void save(final String account, final VesyncLoginResponse.VesyncUserSession session) {
+        file.write(new StoredSession(account, millisClock.getAsLong(), session));
+    }
+
+    /**
+     * Delete the stored session, if any.
+     */
+    public void delete() {
+        file.delete();
+    }
+
+    /**
+     * @return - the number of milliseconds since the given session was stored.
+     */
+    public long getAgeMillis(final StoredSession stored) {
+        return Math.max(0, millisClock.getAsLong() - stored.savedAt);
+    }
+
+    /**
+     * A session as it is stored.
+     */
+    public static final class StoredSession {
+        private String account;
+        private long savedAt;
+        private VesyncLoginResponse.VesyncUserSession session;
+
+        StoredSession(final String account, final long savedAt, final VesyncLoginResponse.VesyncUserSession session) {
+            this.account = account;
+            this.savedAt = savedAt;
+            this.session = session;
+        }
+
+        public VesyncLoginResponse.VesyncUserSession getSession() {
+            return session;
+        }
+    }
+}
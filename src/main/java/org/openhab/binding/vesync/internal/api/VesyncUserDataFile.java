@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.core.OpenHAB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonParseException;
+
+/**
+ * The {@link VesyncUserDataFile} is a JSON file the binding keeps in the openHAB userdata folder. The file is only
+ * readable and writable by the owner of the openHAB process, and is replaced atomically where the file system allows
+ * it, so a reader never sees a partially written file.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+final class VesyncUserDataFile {
+
+    private static final String FOLDER = "vesync";
+
+    private static final Set<PosixFilePermission> OWNER_ONLY_FOLDER = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_ONLY_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private final Logger logger = LoggerFactory.getLogger(VesyncUserDataFile.class);
+
+    private final Path file;
+
+    VesyncUserDataFile(final Path file) {
+        this.file = file;
+    }
+
+    /**
+     * @return - the file with the given suffix for the given bridge in the openHAB userdata folder.
+     */
+    static VesyncUserDataFile forBridge(final String bridgeId, final String suffix) {
+        return new VesyncUserDataFile(
+                Paths.get(OpenHAB.getUserDataFolder(), FOLDER, bridgeId.replaceAll("[^A-Za-z0-9_-]", "_") + suffix));
+    }
+
+    /**
+     * Read the content of the file. A file that cannot be read is deleted.
+     *
+     * @param type - the type to decode the content as
+     * @return - the content, or null if there is no file or it could not be read
+     */
+    synchronized <T> @Nullable T read(final Class<T> type) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return VeSyncConstants.GSON.fromJson(reader, type);
+        } catch (IOException | JsonParseException e) {
+            logger.debug("Discarding unreadable file {}: {}", file, e.getMessage());
+            delete();
+            return null;
+        }
+    }
+
+    /**
+     * Replace the content of the file.
+     *
+     * @param content - the content to encode into the file
+     */
+    synchronized void write(final Object content) {
+        final boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+        try {
+            final Path folder = file.toAbsolutePath().getParent();
+            if (folder != null && !Files.isDirectory(folder)) {
+                if (posix) {
+                    Files.createDirectories(folder, PosixFilePermissions.asFileAttribute(OWNER_ONLY_FOLDER));
+                } else {
+                    Files.createDirectories(folder);
+                }
+            }
+            final Path temp = posix
+                    ? Files.createTempFile(folder, FOLDER, ".tmp", PosixFilePermissions.asFileAttribute(OWNER_ONLY_FILE))
+                    : Files.createTempFile(folder, FOLDER, ".tmp", new FileAttribute<?>[0]);
+            if (!posix) {
+                final File tempFile = temp.toFile();
+                tempFile.setReadable(false, false);
+                tempFile.setWritable(false, false);
+                tempFile.setReadable(true, true);
+                tempFile.setWritable(true, true);
+            }
+            try {
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    VeSyncConstants.GSON_WIRE.toJson(content, writer);
+                }
+                try {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                // Left behind only if the file could not be written or replaced
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.debug("Could not write {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete the file, if it exists.
+     */
+    synchronized void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -14,13 +14,23 @@ package org.openhab.binding.vesync.internal.api;
 
 import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
 
+import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -29,12 +39,12 @@ import javax.validation.constraints.NotNull;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.eclipse.jetty.client.HttpClient;
-import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.client.HttpResponseException;
 import org.eclipse.jetty.client.api.Request;
-import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.BufferingResponseListener;
+import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpHeader;
-import org.openhab.binding.vesync.internal.VeSyncConstants;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncAuthenticatedRequest;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncLoginCredentials;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
@@ -43,8 +53,13 @@ import org.openhab.binding.vesync.internal.dto.responses.VesyncLoginResponse;
 import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
 import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
 import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.CircuitOpenException;
+import org.openhab.binding.vesync.internal.exceptions.CredentialsRejectedException;
 import org.openhab.binding.vesync.internal.exceptions.DeviceUnknownException;
+import org.openhab.binding.vesync.internal.exceptions.RequestRejectedException;
+import org.openhab.binding.vesync.internal.exceptions.SessionRejectedException;
 import org.openhab.binding.vesync.internal.handlers.VeSyncBridgeHandler;
+import org.openhab.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,29 +69,133 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class VesyncV2ApiHelper {
 
+    private static final String THREAD_POOL_NAME = "vesync";
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final String LOGIN_METHOD = "login";
+
+    public static final int DEFAULT_DISCOVERY_PAGE_SIZE = 100;
+    public static final int DEFAULT_DISCOVERY_CONCURRENCY = 4;
+    private static final int MAX_DISCOVERY_PAGES = 1000;
+
     private final Logger logger = LoggerFactory.getLogger(VesyncV2ApiHelper.class);
 
-    private @NonNullByDefault({}) HttpClient httpClient;
+    private final VesyncHttpTransport transport;
+
+    private final VesyncSessionManager sessions = new VesyncSessionManager();
+
+    private final VesyncRequestCoalescer statusRequests = new VesyncRequestCoalescer();
+
+    private final VesyncRateGovernor rateGovernor;
+
+    private final Map<String, VesyncCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    private final VesyncRequestTemplateCache bypassTemplates = new VesyncRequestTemplateCache();
+
+    private final VesyncRequestMetrics requestMetrics = new VesyncRequestMetrics();
 
-    private volatile VesyncLoginResponse.@Nullable VesyncUserSession loggedInSession;
+    private volatile @Nullable VesyncSessionStore sessionStore;
 
-    public VesyncV2ApiHelper() {
+    private volatile @Nullable VesyncDeviceCatalogStore deviceCatalogStore;
+
+    private volatile String account = "";
+
+    private volatile Set<String> throttledCodes = Set.of();
+
+    private volatile int discoveryPageSize = DEFAULT_DISCOVERY_PAGE_SIZE;
+    private volatile int discoveryConcurrency = DEFAULT_DISCOVERY_CONCURRENCY;
+
+    public VesyncV2ApiHelper(final VesyncHttpTransport transport) {
+        this.transport = transport;
         macLookup = new HashMap<>();
+        rateGovernor = new VesyncRateGovernor(ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME));
     }
 
-    private Map<String, VesyncManagedDevicesPage.Result.@NotNull VesyncManagedDeviceBase> macLookup;
+    private volatile Map<String, VesyncManagedDevicesPage.Result.@NotNull VesyncManagedDeviceBase> macLookup;
+
+    private final Object macLookupLock = new Object();
 
     public Map<String, VesyncManagedDevicesPage.Result.@NotNull VesyncManagedDeviceBase> getMacLookupMap() {
         return macLookup;
     }
 
     /**
-     * Sets the httpClient object to be used for API calls to Vesync.
+     * @return - the latency and outcome metrics of the requests sent to the API.
+     */
+    public VesyncRequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    /**
+     * @return - the HTTP transport used for API calls to Vesync.
+     */
+    public VesyncHttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Release the state held for the account, i.e. its session, device catalog and cached request templates. Requests
+     * made afterwards fail until the user logs in again.
+     */
+    public void dispose() {
+        sessions.setLogin(null);
+        synchronized (macLookupLock) {
+            macLookup = new HashMap<>();
+        }
+        bypassTemplates.clear();
+        circuitBreakers.clear();
+        rateGovernor.close();
+    }
+
+    /**
+     * Set where the session is persisted, so it can be reused after a restart.
+     *
+     * @param sessionStore - the store, or null if the session is not persisted
+     */
+    public void setSessionStore(final @Nullable VesyncSessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Set where the device catalog is persisted, so device handlers can address their devices immediately after a
+     * restart.
+     *
+     * @param deviceCatalogStore - the store, or null if the device catalog is not persisted
+     */
+    public void setDeviceCatalogStore(final @Nullable VesyncDeviceCatalogStore deviceCatalogStore) {
+        this.deviceCatalogStore = deviceCatalogStore;
+    }
+
+    /**
+     * Configure the budget of requests that may be sent to the API for the account.
      *
-     * @param httpClient the client to be used.
+     * @param requestsPerMinute the sustained number of requests allowed per minute.
+     * @param burstSize the number of requests that may be sent back to back.
      */
-    public void setHttpClient(@Nullable HttpClient httpClient) {
-        this.httpClient = httpClient;
+    public void configureRateGovernor(final int requestsPerMinute, final int burstSize) {
+        rateGovernor.configure(requestsPerMinute, burstSize);
+    }
+
+    /**
+     * Configure the response codes taken as the API throttling the account, backing off as for an HTTP 429.
+     *
+     * @param codes the response codes, as the API does not document any.
+     */
+    public void configureThrottledCodes(final Set<String> codes) {
+        this.throttledCodes = Set.copyOf(codes);
+    }
+
+    /**
+     * @return - the current request budget in requests per minute, after any back-off has been applied.
+     */
+    public double getRequestBudget() {
+        return rateGovernor.getBudget();
+    }
+
+    /**
+     * @return - the number of requests waiting for budget before they are sent.
+     */
+    public int getRequestQueueDepth() {
+        return rateGovernor.getQueueDepth();
     }
 
     public static @NotNull String calculateMd5(final @Nullable String password) {
@@ -97,156 +216,676 @@ public class VesyncV2ApiHelper {
         return md5Result.toString();
     }
 
-    public void discoverDevices() throws AuthenticationException {
+    public VesyncDeviceCatalogDiff discoverDevices() throws AuthenticationException {
         try {
-            VesyncRequestManagedDevicesPage reqDevPage = new VesyncRequestManagedDevicesPage(loggedInSession);
-            boolean finished = false;
-            int pageNo = 1;
-            HashMap<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> generatedMacLookup = new HashMap<>();
-            while (!finished) {
-                reqDevPage.pageNo = String.valueOf(pageNo);
-                reqDevPage.pageSize = String.valueOf(100);
-                final String result = reqV1Authorized(V1_MANAGED_DEVICES_ENDPOINT, reqDevPage);
-
-                VesyncManagedDevicesPage resultsPage = VeSyncConstants.GSON.fromJson(result,
-                        VesyncManagedDevicesPage.class);
-                if (resultsPage == null || !resultsPage.result.getTotal().equals(resultsPage.result.getPageSize())) {
-                    finished = true;
-                } else {
-                    ++pageNo;
-                }
+            // The first page, the further pages of the devices known so far, and a round more should there be new ones
+            final int knownPages = Math.max(1, (macLookup.size() + discoveryPageSize - 1) / discoveryPageSize);
+            final int rounds = 2 + (knownPages - 1 + discoveryConcurrency - 1) / discoveryConcurrency;
+            return awaitResponse(discoverDevicesAsync(),
+                    getResponseTimeoutNanos(VesyncHttpTransport.Endpoint.DEVICE_LIST, rounds));
+        } catch (final AuthenticationException ae) {
+            logger.warn("Failed background device scan : {}", ae.getMessage());
+            throw ae;
+        }
+    }
+
+    /**
+     * Configure how the managed devices of the account are discovered.
+     *
+     * @param pageSize the number of devices requested per page.
+     * @param maxConcurrentPages the maximum number of pages requested at any one time.
+     */
+    public void configureDiscovery(final int pageSize, final int maxConcurrentPages) {
+        this.discoveryPageSize = Math.max(1, pageSize);
+        this.discoveryConcurrency = Math.max(1, maxConcurrentPages);
+    }
 
-                if (resultsPage != null) {
-                    for (VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device : resultsPage.result.list) {
-                        logger.debug(
-                                "Found device : {}, type: {}, deviceType: {}, connectionState: {}, deviceStatus: {}, deviceRegion: {}, cid: {}, configModule: {}, macID: {}, uuid: {}",
-                                device.getDeviceName(), device.getType(), device.getDeviceType(),
-                                device.getConnectionStatus(), device.getDeviceStatus(), device.getDeviceRegion(),
-                                device.getCid(), device.getConfigModule(), device.getMacId(), device.getUuid());
+    /**
+     * Discover the managed devices of the account, without blocking the calling thread. The first page reports the
+     * total number of devices, the remaining pages are then requested concurrently. The device table is replaced once
+     * all pages have arrived.
+     *
+     * @return a future completed with the changes to the device table once it has been updated, or completed
+     *         exceptionally with an {@link AuthenticationException} if any page could not be fetched.
+     */
+    public CompletableFuture<VesyncDeviceCatalogDiff> discoverDevicesAsync() {
+        final int pageSize = discoveryPageSize;
+        final int maxConcurrentPages = discoveryConcurrency;
+        return requestDevicePage(1, pageSize).thenCompose(firstPage -> {
+            final int total = parseTotal(firstPage);
+            if (total < 0) {
+                // The total is unknown, fall back to requesting pages until one is not full
+                return requestDevicePagesUntilShort(pageSize, 2, new ArrayList<>(List.of(firstPage)));
+            }
+            final int lastPage = (int) Math.min(MAX_DISCOVERY_PAGES, (total + (long) pageSize - 1) / pageSize);
+            return VesyncPageFetcher.fetchPages(2, lastPage, maxConcurrentPages,
+                    pageNo -> requestDevicePage(pageNo, pageSize)).thenApply(remainingPages -> {
+                        final List<VesyncManagedDevicesPage> pages = new ArrayList<>(remainingPages.size() + 1);
+                        pages.add(firstPage);
+                        pages.addAll(remainingPages);
+                        return pages;
+                    });
+        }).thenApply(this::updateMacLookup);
+    }
 
-                        // Update the mac address -> device table
-                        generatedMacLookup.put(device.getMacId(), device);
-                    }
-                }
+    private CompletableFuture<VesyncManagedDevicesPage> requestDevicePage(final int pageNo, final int pageSize) {
+        return sessions.execute(session -> {
+            final VesyncRequestManagedDevicesPage reqDevPage;
+            try {
+                reqDevPage = new VesyncRequestManagedDevicesPage(session, pageNo, pageSize);
+            } catch (AuthenticationException e) {
+                return CompletableFuture.failedFuture(e);
             }
+            return directReqV1AuthorizedAsync(V1_MANAGED_DEVICES_ENDPOINT, reqDevPage,
+                    typedResponse(VesyncManagedDevicesPage.class));
+        });
+    }
+
+    private CompletableFuture<List<VesyncManagedDevicesPage>> requestDevicePagesUntilShort(final int pageSize,
+            final int pageNo, final List<VesyncManagedDevicesPage> pages) {
+        if (getDevices(pages.get(pages.size() - 1)).length < pageSize || pageNo > MAX_DISCOVERY_PAGES) {
+            return CompletableFuture.completedFuture(pages);
+        }
+        return requestDevicePage(pageNo, pageSize).thenCompose(page -> {
+            pages.add(page);
+            return requestDevicePagesUntilShort(pageSize, pageNo + 1, pages);
+        });
+    }
+
+    private VesyncDeviceCatalogDiff updateMacLookup(final List<VesyncManagedDevicesPage> pages) {
+        final HashMap<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> generatedMacLookup = new HashMap<>();
+        for (VesyncManagedDevicesPage page : pages) {
+            for (VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device : getDevices(page)) {
+                logger.debug(
+                        "Found device : {}, type: {}, deviceType: {}, connectionState: {}, deviceStatus: {}, deviceRegion: {}, cid: {}, configModule: {}, macID: {}, uuid: {}",
+                        device.getDeviceName(), device.getType(), device.getDeviceType(), device.getConnectionStatus(),
+                        device.getDeviceStatus(), device.getDeviceRegion(), device.getCid(), device.getConfigModule(),
+                        device.getMacId(), device.getUuid());
+
+                // Update the mac address -> device table
+                generatedMacLookup.put(device.getMacId(), device);
+            }
+        }
+        final VesyncDeviceCatalogDiff changes;
+        synchronized (macLookupLock) {
+            changes = VesyncDeviceCatalogDiff.compute(macLookup, generatedMacLookup);
             macLookup = Collections.unmodifiableMap(generatedMacLookup);
-        } catch (final AuthenticationException ae) {
-            logger.warn("Failed background device scan : {}", ae.getMessage());
-            throw ae;
+        }
+        // Templates encode the addressing data of the device
+        changes.getAddressingChanged().keySet().forEach(bypassTemplates::forget);
+        changes.getRemoved().keySet().forEach(bypassTemplates::forget);
+        if (!changes.isEmpty()) {
+            logger.debug("Device catalog changed : {}", changes);
+            final VesyncDeviceCatalogStore store = deviceCatalogStore;
+            if (store != null) {
+                store.save(account, generatedMacLookup);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Use the stored device catalog of the account until the devices are first discovered, the discovery then
+     * reconciles any differences.
+     */
+    private void restoreMacLookup(final String account) {
+        final VesyncDeviceCatalogStore store = deviceCatalogStore;
+        if (store == null) {
+            return;
+        }
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> stored = store.load(account);
+        if (stored == null) {
+            return;
+        }
+        synchronized (macLookupLock) {
+            if (macLookup.isEmpty()) {
+                macLookup = Collections.unmodifiableMap(stored);
+                logger.debug("Restored {} devices from the stored device catalog", stored.size());
+            }
+        }
+    }
+
+    private static VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase[] getDevices(
+            final VesyncManagedDevicesPage page) {
+        final VesyncManagedDevicesPage.Result result = page.result;
+        if (result == null || result.list == null) {
+            return new VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase[0];
+        }
+        return result.list;
+    }
+
+    /**
+     * @return - the total number of devices reported by the page, or -1 if it is not known.
+     */
+    private static int parseTotal(final VesyncManagedDevicesPage page) {
+        final VesyncManagedDevicesPage.Result result = page.result;
+        if (result == null || result.total == null) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(result.total.trim());
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
     public String reqV2Authorized(final String url, final String macId, final VesyncAuthenticatedRequest requestData)
             throws AuthenticationException, DeviceUnknownException {
-        if (loggedInSession == null) {
-            throw new AuthenticationException("User is not logged in");
+        try {
+            final long timeoutNanos = getResponseTimeoutNanos(VesyncHttpTransport.Endpoint.forUrl(url), 1);
+            return reqV2AuthorizedAsync(url, macId, requestData).get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationException(e);
+        } catch (TimeoutException e) {
+            throw new AuthenticationException("No response from the VeSync API within the request timeout", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof DeviceUnknownException) {
+                throw (DeviceUnknownException) cause;
+            }
+            throw unwrapAuthenticationException(e);
         }
-        // Apply current session authentication data
-        requestData.applyAuthentication(loggedInSession);
+    }
+
+    /**
+     * Send a request addressed to a specific device, without blocking the calling thread.
+     *
+     * @param url the endpoint to send the request to.
+     * @param macId the mac id of the device the request is addressed to.
+     * @param requestData the request to send.
+     * @return a future completed with the body of the response, or completed exceptionally with an
+     *         {@link AuthenticationException} or {@link DeviceUnknownException} if the request could not be sent or
+     *         failed.
+     */
+    public CompletableFuture<String> reqV2AuthorizedAsync(final String url, final String macId,
+            final VesyncAuthenticatedRequest requestData) {
+        // A command will make the result of any outstanding status reads for the device stale
+        statusRequests.forget(macId);
+        return sendV2AuthorizedAsync(url, macId, requestData, RAW_RESPONSE).thenApply(RawResponse::getBody);
+    }
+
+    /**
+     * Send an idempotent status request addressed to a specific device, without blocking the calling thread.
+     * Concurrent requests of the same method for the same device share a single request to the API, and the decoded
+     * result of it.
+     *
+     * @param url the endpoint to send the request to.
+     * @param macId the mac id of the device the request is addressed to.
+     * @param requestData the request to send.
+     * @param responseType the type to decode the response as.
+     * @return a future completed with the decoded response, or completed exceptionally with an
+     *         {@link AuthenticationException} or {@link DeviceUnknownException} if the request could not be sent or
+     *         failed.
+     */
+    public <T extends VesyncResponse> CompletableFuture<T> reqV2AuthorizedStatusAsync(final String url,
+            final String macId, final VesyncAuthenticatedRequest requestData, final Class<T> responseType) {
+        return statusRequests.execute(VesyncRequestCoalescer.key(macId, getRequestMethod(requestData)),
+                () -> sendV2AuthorizedAsync(url, macId, requestData, typedResponse(responseType)));
+    }
+
+    /**
+     * @return - the number of status requests that were served by joining an already outstanding request.
+     */
+    public long getCoalescedStatusRequestCount() {
+        return statusRequests.getHitCount();
+    }
+
+    /**
+     * @return - the number of status requests that were sent to the API.
+     */
+    public long getSentStatusRequestCount() {
+        return statusRequests.getMissCount();
+    }
+
+    private static String getRequestMethod(final VesyncAuthenticatedRequest requestData) {
+        final @Nullable String method = requestData instanceof VesyncRequestManagedDeviceBypassV2
+                ? ((VesyncRequestManagedDeviceBypassV2) requestData).payload.method
+                : requestData.method;
+        return method != null ? method : "";
+    }
 
-        // Apply specific addressing parameters
+    private <T> CompletableFuture<T> sendV2AuthorizedAsync(final String url, final String macId,
+            final VesyncAuthenticatedRequest requestData, final ResponseDecoder<T> decoder) {
+        return sessions.execute(session -> sendV2AuthorizedAsync(url, macId, requestData, session, decoder));
+    }
+
+    private <T> CompletableFuture<T> sendV2AuthorizedAsync(final String url, final String macId,
+            final VesyncAuthenticatedRequest requestData, final VesyncLoginResponse.VesyncUserSession session,
+            final ResponseDecoder<T> decoder) {
+        final byte[] content;
         if (requestData instanceof VesyncRequestManagedDeviceBypassV2) {
+            // Apply the session and specific addressing parameters via the pre-encoded template for the device
             final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase deviceData = macLookup.get(macId);
             if (deviceData == null) {
-                throw new DeviceUnknownException(String.format("Device not discovered with mac id: %s", macId));
+                return CompletableFuture.failedFuture(new DeviceUnknownException(
+                        String.format("Device not discovered with mac id: %s", macId)));
             }
-            ((VesyncRequestManagedDeviceBypassV2) requestData).cid = deviceData.cid;
-            ((VesyncRequestManagedDeviceBypassV2) requestData).configModule = deviceData.configModule;
-            ((VesyncRequestManagedDeviceBypassV2) requestData).deviceRegion = deviceData.deviceRegion;
+            content = bypassTemplates.encode(macId, deviceData, session.getAccountId(), session.getToken(),
+                    (VesyncRequestManagedDeviceBypassV2) requestData);
+        } else {
+            try {
+                // Apply current session authentication data
+                requestData.applyAuthentication(session);
+            } catch (AuthenticationException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            content = VesyncRequestEncoder.encode(requestData);
         }
-        return reqV1Authorized(url, requestData);
+        return directReqAsync(url, getRequestMethod(requestData), content, decoder);
     }
 
     public String reqV1Authorized(final String url, final VesyncAuthenticatedRequest requestData)
             throws AuthenticationException {
-        try {
-            return directReqV1Authorized(url, requestData);
-        } catch (final AuthenticationException ae) {
-            throw ae;
+        return awaitResponse(reqV1AuthorizedAsync(url, requestData),
+                getResponseTimeoutNanos(VesyncHttpTransport.Endpoint.forUrl(url), 1));
+    }
+
+    public CompletableFuture<String> reqV1AuthorizedAsync(final String url,
+            final VesyncAuthenticatedRequest requestData) {
+        return sessions.execute(session -> {
+            try {
+                // Apply current session authentication data
+                requestData.applyAuthentication(session);
+            } catch (AuthenticationException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return directReqV1AuthorizedAsync(url, requestData, RAW_RESPONSE).thenApply(RawResponse::getBody);
+        });
+    }
+
+    private <T> CompletableFuture<T> directReqV1AuthorizedAsync(final String url,
+            final VesyncAuthenticatedRequest requestData, final ResponseDecoder<T> decoder) {
+        return directReqAsync(url, getRequestMethod(requestData), VesyncRequestEncoder.encode(requestData), decoder);
+    }
+
+    private <T> CompletableFuture<T> directReqAsync(final String url, final String method, final byte[] content,
+            final ResponseDecoder<T> decoder) {
+        final VesyncCircuitBreaker circuitBreaker = getCircuitBreaker(url);
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(circuitOpen(circuitBreaker));
         }
+        return rateGovernor.acquire().handle((permit, rejected) -> {
+            if (rejected != null) {
+                circuitBreaker.onAbandoned();
+                throw new CompletionException(new AuthenticationException(rejected));
+            }
+            return permit;
+        }).thenCompose(permit -> sendRequestAsync(url, content, circuitBreaker,
+                requestMetrics.forOperation(url, method), decoder));
     }
 
-    private String directReqV1Authorized(final String url, final VesyncAuthenticatedRequest requestData)
-            throws AuthenticationException {
-        try {
-            Request request = httpClient.POST(url);
+    private VesyncCircuitBreaker getCircuitBreaker(final String url) {
+        return circuitBreakers.computeIfAbsent(url, VesyncCircuitBreaker::new);
+    }
 
-            // No headers for login
-            request.content(new StringContentProvider(VeSyncConstants.GSON.toJson(requestData)));
+    private static CircuitOpenException circuitOpen(final VesyncCircuitBreaker circuitBreaker) {
+        return new CircuitOpenException(
+                String.format("VeSync endpoint %s is unavailable, the request was not sent", circuitBreaker.getName()));
+    }
 
-            logger.debug("POST @ {} with content\r\n{}", url, VeSyncConstants.GSON.toJson(requestData));
+    private <T> CompletableFuture<T> sendRequestAsync(final String url, final byte[] content,
+            final VesyncCircuitBreaker circuitBreaker, final VesyncRequestMetrics.Operation metrics,
+            final ResponseDecoder<T> decoder) {
+        final Request request;
+        try {
+            request = transport.newPost(url);
+        } catch (IllegalStateException e) {
+            circuitBreaker.onAbandoned();
+            return CompletableFuture.failedFuture(new AuthenticationException(e));
+        }
+        final CompletableFuture<T> result = new CompletableFuture<>();
 
-            request.header(HttpHeader.CONTENT_TYPE, "application/json; utf-8");
+        // No headers for login
+        request.content(new BytesContentProvider(content));
 
-            ContentResponse response = request.timeout(5, TimeUnit.SECONDS).send();
-            if (response.getStatus() == HttpURLConnection.HTTP_OK) {
-                VesyncResponse commResponse = VeSyncConstants.GSON.fromJson(response.getContentAsString(),
-                        VesyncResponse.class);
+        if (logger.isDebugEnabled()) {
+            logger.debug("POST @ {} with content\r\n{}", url, new String(content, StandardCharsets.UTF_8));
+        }
 
-                if (commResponse != null && (commResponse.isMsgSuccess() || commResponse.isMsgDeviceOffline())) {
-                    logger.debug("Got OK response {}", response.getContentAsString());
-                    return response.getContentAsString();
+        request.header(HttpHeader.CONTENT_TYPE, "application/json; utf-8");
+
+        final long startNanos = requestMetrics.startTimer();
+        request.send(new BufferingResponseListener() {
+            @Override
+            public void onComplete(@Nullable Result exchange) {
+                if (exchange == null || exchange.isFailed()) {
+                    final Throwable failure = exchange != null ? exchange.getFailure() : null;
+                    if (isUnauthorized(failure)) {
+                        // Jetty fails a 401 sent without a challenge, the endpoint itself answered
+                        circuitBreaker.onSuccess();
+                        metrics.record(VesyncRequestMetrics.Outcome.AUTH_FAILURE, startNanos);
+                        result.completeExceptionally(new SessionRejectedException("HTTP response 401"));
+                        return;
+                    }
+                    circuitBreaker.onFailure();
+                    metrics.record(failureOutcome(failure), startNanos);
+                    result.completeExceptionally(failure != null ? new AuthenticationException(failure)
+                            : new AuthenticationException("Request failed"));
+                    return;
+                }
+                final int status = exchange.getResponse().getStatus();
+                if (isEndpointFailure(status)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+                if (status == HttpURLConnection.HTTP_OK) {
+                    final T response;
+                    try {
+                        response = decoder.decode(this);
+                    } catch (SessionRejectedException e) {
+                        // Not a sign of throttling, the request is replayed once the session is re-established
+                        logger.debug("Got session rejected response {}", e.getMessage());
+                        metrics.record(VesyncRequestMetrics.Outcome.AUTH_FAILURE, startNanos);
+                        result.completeExceptionally(e);
+                        return;
+                    } catch (RequestRejectedException e) {
+                        metrics.record(VesyncRequestMetrics.Outcome.API_ERROR, startNanos);
+                        if (VesyncResponseDecoder.isThrottled(e, throttledCodes)) {
+                            logger.debug("Got throttled response {}", e.getMessage());
+                            rateGovernor.onThrottled();
+                        } else {
+                            // Rejected by the API rather than throttled, so the budget is left as it is
+                            logger.debug("Got FAILED response {}", e.getMessage());
+                        }
+                        result.completeExceptionally(e);
+                        return;
+                    } catch (AuthenticationException e) {
+                        // Rejected by the API rather than throttled, so the budget is left as it is
+                        logger.debug("Got FAILED response {}", e.getMessage());
+                        metrics.record(VesyncRequestMetrics.Outcome.API_ERROR, startNanos);
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Got OK response {}", getContentAsString(getContentCharset(this)));
+                    }
+                    metrics.record(isDeviceOffline(response) ? VesyncRequestMetrics.Outcome.DEVICE_OFFLINE
+                            : VesyncRequestMetrics.Outcome.SUCCESS, startNanos);
+                    rateGovernor.onSuccess();
+                    result.complete(response);
                 } else {
-                    logger.debug("Got FAILED response {}", response.getContentAsString());
-                    throw new AuthenticationException("Invalid JSON response from login");
+                    logger.debug("HTTP Response Code: {}", status);
+                    logger.debug("HTTP Response Msg: {}", exchange.getResponse().getReason());
+                    metrics.record(status == HttpURLConnection.HTTP_UNAUTHORIZED
+                            ? VesyncRequestMetrics.Outcome.AUTH_FAILURE
+                            : VesyncRequestMetrics.Outcome.HTTP_ERROR, startNanos);
+                    if (isEndpointFailure(status)) {
+                        rateGovernor.onThrottled();
+                    }
+                    final String message = "HTTP response " + status + " - " + exchange.getResponse().getReason();
+                    result.completeExceptionally(status == HttpURLConnection.HTTP_UNAUTHORIZED
+                            ? new SessionRejectedException(message)
+                            : new AuthenticationException(message));
                 }
-            } else {
-                logger.debug("HTTP Response Code: {}", response.getStatus());
-                logger.debug("HTTP Response Msg: {}", response.getReason());
-                throw new AuthenticationException(
-                        "HTTP response " + response.getStatus() + " - " + response.getReason());
             }
-        } catch (InterruptedException | TimeoutException | ExecutionException e) {
-            throw new AuthenticationException(e);
-        }
+        });
+        return result;
     }
 
-    public synchronized void login(final @Nullable String username, final @Nullable String password,
+    public void login(final @Nullable String username, final @Nullable String password,
             final @Nullable String timezone) throws AuthenticationException {
+        awaitResponse(loginAsync(username, password, timezone),
+                getResponseTimeoutNanos(VesyncHttpTransport.Endpoint.LOGIN, 1));
+    }
+
+    /**
+     * Login to the VeSync cloud, without blocking the calling thread. The credentials are retained, so the session
+     * can be re-established when the token expires or is rejected.
+     *
+     * @param username the username of the account.
+     * @param password the MD5 hash of the accounts password.
+     * @param timezone the timezone to login within.
+     * @return a future completed once the session has been established, or completed exceptionally with an
+     *         {@link AuthenticationException}.
+     */
+    public CompletableFuture<Void> loginAsync(final @Nullable String username, final @Nullable String password,
+            final @Nullable String timezone) {
         if (username == null || password == null || timezone == null) {
-            loggedInSession = null;
-            return;
+            sessions.setLogin(null);
+            return CompletableFuture.completedFuture(null);
         }
-        try {
-            loggedInSession = processLogin(username, password, timezone).getUserSession();
-        } catch (final AuthenticationException ae) {
-            loggedInSession = null;
-            throw ae;
+        // Identifies the account the stored session and devices are for, whether the credentials are still accepted
+        // is left to the login
+        final String account = calculateMd5(username);
+        this.account = account;
+        restoreMacLookup(account);
+        final VesyncSessionStore store = sessionStore;
+        sessions.setLogin(() -> processLoginAsync(username, password, timezone)
+                .thenApply(VesyncLoginResponse::getUserSession).thenApply(session -> {
+                    if (store != null && session != null) {
+                        store.save(account, session);
+                    }
+                    return session;
+                }));
+        if (store != null) {
+            // Optimistically reuse the stored session, a login is only run if the API rejects it
+            final VesyncSessionStore.StoredSession stored = store.load(account);
+            if (stored != null && sessions.restore(stored.getSession(),
+                    TimeUnit.MILLISECONDS.toNanos(store.getAgeMillis(stored)))) {
+                logger.debug("Reusing the stored session");
+                return CompletableFuture.completedFuture(null);
+            }
         }
+        return sessions.login().thenApply(session -> null);
+    }
+
+    /**
+     * @return - the number of logins to the VeSync cloud that have been started, including re-logins.
+     */
+    public long getLoginCount() {
+        return sessions.getLoginCount();
     }
 
     public void updateBridgeData(final VeSyncBridgeHandler bridge) {
-        bridge.handleNewUserSession(loggedInSession);
+        bridge.handleNewUserSession(sessions.getCurrentSession());
     }
 
-    private VesyncLoginResponse processLogin(String username, String password, String timezone)
-            throws AuthenticationException {
+    private CompletableFuture<VesyncLoginResponse> processLoginAsync(String username, String password,
+            String timezone) {
+        final VesyncCircuitBreaker circuitBreaker = getCircuitBreaker(V1_LOGIN_ENDPOINT);
+        if (!circuitBreaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(circuitOpen(circuitBreaker));
+        }
+        final Request request;
         try {
-            Request request = httpClient.POST(V1_LOGIN_ENDPOINT);
+            request = transport.newPost(V1_LOGIN_ENDPOINT);
+        } catch (IllegalStateException e) {
+            circuitBreaker.onAbandoned();
+            return CompletableFuture.failedFuture(new AuthenticationException(e));
+        }
+        final CompletableFuture<VesyncLoginResponse> result = new CompletableFuture<>();
+
+        // No headers for login
+        request.content(new BytesContentProvider(
+                VesyncRequestEncoder.encode(new VesyncLoginCredentials(username, password))));
+
+        request.header(HttpHeader.CONTENT_TYPE, "application/json; utf-8");
+
+        final VesyncRequestMetrics.Operation metrics = requestMetrics.forOperation(V1_LOGIN_ENDPOINT, LOGIN_METHOD);
+        final long startNanos = requestMetrics.startTimer();
+        request.send(new BufferingResponseListener() {
+            @Override
+            public void onComplete(@Nullable Result exchange) {
+                if (exchange == null || exchange.isFailed()) {
+                    final Throwable failure = exchange != null ? exchange.getFailure() : null;
+                    if (isUnauthorized(failure)) {
+                        logger.warn("Login Failed - HTTP Response Code: 401");
+                        circuitBreaker.onSuccess();
+                        metrics.record(VesyncRequestMetrics.Outcome.AUTH_FAILURE, startNanos);
+                        result.completeExceptionally(new CredentialsRejectedException("HTTP response 401"));
+                        return;
+                    }
+                    circuitBreaker.onFailure();
+                    metrics.record(failureOutcome(failure), startNanos);
+                    result.completeExceptionally(failure != null ? new AuthenticationException(failure)
+                            : new AuthenticationException("Login request failed"));
+                    return;
+                }
+                final int status = exchange.getResponse().getStatus();
+                if (isEndpointFailure(status)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+                if (status == HttpURLConnection.HTTP_OK) {
+                    final VesyncLoginResponse loginResponse;
+                    try {
+                        loginResponse = VesyncResponseDecoder.decode(
+                                new InputStreamReader(getContentAsInputStream(), getContentCharset(this)),
+                                VesyncLoginResponse.class);
+                    } catch (AuthenticationException e) {
+                        metrics.record(VesyncRequestMetrics.Outcome.API_ERROR, startNanos);
+                        result.completeExceptionally(e);
+                        return;
+                    }
+                    if (loginResponse.isMsgSuccess()) {
+                        logger.debug("Login successful");
+                        metrics.record(VesyncRequestMetrics.Outcome.SUCCESS, startNanos);
+                        result.complete(loginResponse);
+                    } else {
+                        metrics.record(VesyncRequestMetrics.Outcome.AUTH_FAILURE, startNanos);
+                        result.completeExceptionally(new CredentialsRejectedException(
+                                "Login rejected by the API with code " + loginResponse.getCode()));
+                    }
+                } else {
+                    logger.warn("Login Failed - HTTP Response Code: {} - {}", status,
+                            exchange.getResponse().getReason());
+                    final String message = "HTTP response " + status + " - " + exchange.getResponse().getReason();
+                    if (status == HttpURLConnection.HTTP_UNAUTHORIZED) {
+                        metrics.record(VesyncRequestMetrics.Outcome.AUTH_FAILURE, startNanos);
+                        result.completeExceptionally(new CredentialsRejectedException(message));
+                    } else {
+                        metrics.record(VesyncRequestMetrics.Outcome.HTTP_ERROR, startNanos);
+                        result.completeExceptionally(new AuthenticationException(message));
+                    }
+                }
+            }
+        });
+        return result;
+    }
 
-            // No headers for login
-            request.content(new StringContentProvider(
-                    VeSyncConstants.GSON.toJson(new VesyncLoginCredentials(username, password))));
+    /**
+     * Decodes the buffered body of a successful HTTP exchange, rejecting it if the API did not accept the request.
+     */
+    @FunctionalInterface
+    private interface ResponseDecoder<T> {
+        T decode(BufferingResponseListener content) throws AuthenticationException;
+    }
 
-            request.header(HttpHeader.CONTENT_TYPE, "application/json; utf-8");
+    /**
+     * Decoder for callers that require the body of the response itself, rather than a decoded DTO.
+     */
+    private static final ResponseDecoder<RawResponse> RAW_RESPONSE = content -> {
+        final String body = content.getContentAsString(getContentCharset(content));
+        return new RawResponse(body,
+                VesyncResponseDecoder.decodeAccepted(new StringReader(body), VesyncResponse.class));
+    };
 
-            ContentResponse response = request.timeout(5, TimeUnit.SECONDS).send();
-            if (response.getStatus() == HttpURLConnection.HTTP_OK) {
-                VesyncLoginResponse loginResponse = VeSyncConstants.GSON.fromJson(response.getContentAsString(),
-                        VesyncLoginResponse.class);
-                if (loginResponse != null && loginResponse.isMsgSuccess()) {
-                    logger.debug("Login successful");
-                    return loginResponse;
-                } else {
-                    throw new AuthenticationException("Invalid / unexpected JSON response from login");
-                }
-            } else {
-                logger.warn("Login Failed - HTTP Response Code: {} - {}", response.getStatus(), response.getReason());
-                throw new AuthenticationException(
-                        "HTTP response " + response.getStatus() + " - " + response.getReason());
+    /**
+     * The body of a response, with the envelope decoded from it.
+     */
+    private static final class RawResponse {
+        private final String body;
+        private final VesyncResponse envelope;
+
+        RawResponse(final String body, final VesyncResponse envelope) {
+            this.body = body;
+            this.envelope = envelope;
+        }
+
+        String getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * @return - true if the decoded response reports the device the request was addressed to is offline.
+     */
+    private static boolean isDeviceOffline(final Object response) {
+        final Object envelope = response instanceof RawResponse ? ((RawResponse) response).envelope : response;
+        return envelope instanceof VesyncResponse && ((VesyncResponse) envelope).isMsgDeviceOffline();
+    }
+
+    /**
+     * @return - the outcome of a request that failed without a response.
+     */
+    /**
+     * @return - true if the exchange failed on a 401 response, which Jetty reports as a protocol violation when the
+     *         response carries no WWW-Authenticate challenge, as is the case for the VeSync API.
+     */
+    private static boolean isUnauthorized(final @Nullable Throwable failure) {
+        return failure instanceof HttpResponseException && ((HttpResponseException) failure).getResponse()
+                .getStatus() == HttpURLConnection.HTTP_UNAUTHORIZED;
+    }
+
+    private static VesyncRequestMetrics.Outcome failureOutcome(final @Nullable Throwable failure) {
+        return failure instanceof TimeoutException || failure instanceof SocketTimeoutException
+                ? VesyncRequestMetrics.Outcome.TIMEOUT
+                : VesyncRequestMetrics.Outcome.HTTP_ERROR;
+    }
+
+    /**
+     * @return - a decoder streaming the body of the response directly into the given type.
+     */
+    private static <T extends VesyncResponse> ResponseDecoder<T> typedResponse(final Class<T> responseType) {
+        return content -> VesyncResponseDecoder.decodeAccepted(content.getContentAsInputStream(),
+                getContentCharset(content), responseType);
+    }
+
+    private static Charset getContentCharset(final BufferingResponseListener content) {
+        final String encoding = content.getEncoding();
+        if (encoding != null) {
+            try {
+                return Charset.forName(encoding);
+            } catch (IllegalArgumentException e) {
+                // Fall back to the encoding the API uses
             }
-        } catch (InterruptedException | TimeoutException | ExecutionException e) {
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * @return - true if the HTTP status indicates the endpoint is throttling or failing, rather than rejecting the
+     *         request itself.
+     */
+    private static boolean isEndpointFailure(final int status) {
+        return status == HTTP_TOO_MANY_REQUESTS || status >= HttpURLConnection.HTTP_INTERNAL_ERROR;
+    }
+
+    /**
+     * @return - how long a blocking caller waits for rounds of requests to the given group of endpoints: the wait for
+     *         budget, a login should the session have to be re-established, then the request timeout of each round.
+     */
+    private long getResponseTimeoutNanos(final VesyncHttpTransport.Endpoint endpoint, final int rounds) {
+        return rateGovernor.getMaxWaitNanos()
+                + TimeUnit.SECONDS.toNanos(transport.getRequestTimeoutSeconds(VesyncHttpTransport.Endpoint.LOGIN)
+                        + (long) rounds * transport.getRequestTimeoutSeconds(endpoint));
+    }
+
+    /**
+     * Wait for the completion of an asynchronous request, for callers that require a blocking result.
+     */
+    private static <T> T awaitResponse(final CompletableFuture<T> future, final long timeoutNanos)
+            throws AuthenticationException {
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new AuthenticationException(e);
+        } catch (TimeoutException e) {
+            throw new AuthenticationException("No response from the VeSync API within the request timeout", e);
+        } catch (ExecutionException e) {
+            throw unwrapAuthenticationException(e);
+        }
+    }
+
+    private static AuthenticationException unwrapAuthenticationException(final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof AuthenticationException) {
+            return (AuthenticationException) cause;
         }
+        return new AuthenticationException(cause != null ? cause : e);
     }
 }
@@ -13,6 +13,7 @@
 package org.openhab.binding.vesync.internal.discovery;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.vesync.internal.api.VesyncDeviceCatalogDiff;
 import org.openhab.binding.vesync.internal.handlers.VeSyncBridgeHandler;
 
 /**
@@ -24,4 +25,12 @@ import org.openhab.binding.vesync.internal.handlers.VeSyncBridgeHandler;
 @NonNullByDefault
 public interface DeviceMetaDataUpdatedHandler {
     void handleMetadataRetrieved(VeSyncBridgeHandler handler);
+
+    /**
+     * Called when a scan of the bridge found changes to the device meta-data. Only the changed devices are supplied,
+     * by default all of the meta-data is re-processed.
+     */
+    default void handleMetadataChanged(VeSyncBridgeHandler handler, VesyncDeviceCatalogDiff changes) {
+        handleMetadataRetrieved(handler);
+    }
 }
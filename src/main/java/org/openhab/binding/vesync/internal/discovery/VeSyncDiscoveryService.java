@@ -18,11 +18,17 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.api.VesyncDeviceCatalogDiff;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
 import org.openhab.binding.vesync.internal.handlers.VeSyncBridgeHandler;
+import org.openhab.binding.vesync.internal.handlers.VeSyncDeviceAirHumidifierHandler;
+import org.openhab.binding.vesync.internal.handlers.VeSyncDeviceAirPurifierHandler;
 import org.openhab.core.config.discovery.AbstractDiscoveryService;
+import org.openhab.core.config.discovery.DiscoveryResult;
 import org.openhab.core.config.discovery.DiscoveryResultBuilder;
 import org.openhab.core.config.discovery.DiscoveryService;
 import org.openhab.core.thing.ThingStatus;
@@ -91,6 +97,8 @@ public class VeSyncDiscoveryService extends AbstractDiscoveryService
     protected void startBackgroundDiscovery() {
         if (bridgeHandler != null) {
             bridgeHandler.registerMetaDataUpdatedHandler(this);
+            // Only changes are delivered once registered, so publish the devices already known
+            handleMetadataRetrieved(bridgeHandler);
         }
     }
 
@@ -107,37 +115,59 @@ public class VeSyncDiscoveryService extends AbstractDiscoveryService
         removeOlderResults(getTimestampOfLastScan());
         if (ThingStatus.ONLINE.equals(bridgeHandler.getThing().getStatus())) {
             bridgeHandler.runDeviceScanSequenceNoAuthErrors();
+            handleMetadataRetrieved(bridgeHandler);
         }
     }
 
     @Override
     public void handleMetadataRetrieved(VeSyncBridgeHandler handler) {
-        bridgeHandler.getAirPurifiersMetadata().map(apMeta -> {
-            final Map<String, Object> properties = new HashMap<>(6);
-            // final String deviceUUID = apMeta.getUuid().replace("-", "");
-            final String deviceUUID = apMeta.getUuid();
-            properties.put(DEVICE_PROP_DEVICE_NAME, apMeta.getDeviceName());
-            properties.put(DEVICE_PROP_DEVICE_TYPE, apMeta.getDeviceType());
-            properties.put(DEVICE_PROP_DEVICE_MAC_ID, apMeta.getMacId());
-            properties.put(DEVICE_PROP_DEVICE_UUID, deviceUUID);
-            properties.put(DEVICE_PROP_CONFIG_DEVICE_MAC, apMeta.getMacId());
-            properties.put(DEVICE_PROP_CONFIG_DEVICE_NAME, apMeta.getDeviceName());
-            return DiscoveryResultBuilder.create(new ThingUID(THING_TYPE_AIR_PURIFIER, bridgeUID, deviceUUID))
-                    .withLabel(apMeta.getDeviceName()).withBridge(bridgeUID).withProperties(properties).build();
-        }).forEach(this::thingDiscovered);
+        bridgeHandler.getAirPurifiersMetadata().map(apMeta -> createDiscoveryResult(THING_TYPE_AIR_PURIFIER, apMeta))
+                .forEach(this::thingDiscovered);
         // Temporary until refactoring
-        bridgeHandler.getAirHumidifiersMetadata().map(apMeta -> {
-            final Map<String, Object> properties = new HashMap<>(6);
-            // final String deviceUUID = apMeta.getUuid().replace("-", "");
-            final String deviceUUID = apMeta.getUuid();
-            properties.put(DEVICE_PROP_DEVICE_NAME, apMeta.getDeviceName());
-            properties.put(DEVICE_PROP_DEVICE_TYPE, apMeta.getDeviceType());
-            properties.put(DEVICE_PROP_DEVICE_MAC_ID, apMeta.getMacId());
-            properties.put(DEVICE_PROP_DEVICE_UUID, deviceUUID);
-            properties.put(DEVICE_PROP_CONFIG_DEVICE_MAC, apMeta.getMacId());
-            properties.put(DEVICE_PROP_CONFIG_DEVICE_NAME, apMeta.getDeviceName());
-            return DiscoveryResultBuilder.create(new ThingUID(THING_TYPE_AIR_HUMIDIFIER, bridgeUID, deviceUUID))
-                    .withLabel(apMeta.getDeviceName()).withBridge(bridgeUID).withProperties(properties).build();
-        }).forEach(this::thingDiscovered);
+        bridgeHandler.getAirHumidifiersMetadata()
+                .map(apMeta -> createDiscoveryResult(THING_TYPE_AIR_HUMIDIFIER, apMeta)).forEach(this::thingDiscovered);
+    }
+
+    @Override
+    public void handleMetadataChanged(VeSyncBridgeHandler handler, VesyncDeviceCatalogDiff changes) {
+        changes.getRemoved().values().forEach(meta -> {
+            final ThingTypeUID thingTypeUID = getThingTypeUID(meta);
+            if (thingTypeUID != null) {
+                thingRemoved(new ThingUID(thingTypeUID, bridgeUID, meta.getUuid()));
+            }
+        });
+        // Only the name is part of the discovery result, other changes do not need to be re-published
+        Stream.concat(changes.getAdded().values().stream(), changes.getRenamed().values().stream())
+                .forEach(meta -> {
+                    final ThingTypeUID thingTypeUID = getThingTypeUID(meta);
+                    if (thingTypeUID != null) {
+                        thingDiscovered(createDiscoveryResult(thingTypeUID, meta));
+                    }
+                });
+    }
+
+    private static @Nullable ThingTypeUID getThingTypeUID(
+            final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase meta) {
+        if (VeSyncDeviceAirPurifierHandler.SUPPORTED_DEVICE_TYPES.contains(meta.getDeviceType())) {
+            return THING_TYPE_AIR_PURIFIER;
+        } else if (VeSyncDeviceAirHumidifierHandler.SUPPORTED_DEVICE_TYPES.contains(meta.getDeviceType())) {
+            return THING_TYPE_AIR_HUMIDIFIER;
+        }
+        return null;
+    }
+
+    private DiscoveryResult createDiscoveryResult(final ThingTypeUID thingTypeUID,
+            final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase apMeta) {
+        final Map<String, Object> properties = new HashMap<>(6);
+        // final String deviceUUID = apMeta.getUuid().replace("-", "");
+        final String deviceUUID = apMeta.getUuid();
+        properties.put(DEVICE_PROP_DEVICE_NAME, apMeta.getDeviceName());
+        properties.put(DEVICE_PROP_DEVICE_TYPE, apMeta.getDeviceType());
+        properties.put(DEVICE_PROP_DEVICE_MAC_ID, apMeta.getMacId());
+        properties.put(DEVICE_PROP_DEVICE_UUID, deviceUUID);
+        properties.put(DEVICE_PROP_CONFIG_DEVICE_MAC, apMeta.getMacId());
+        properties.put(DEVICE_PROP_CONFIG_DEVICE_NAME, apMeta.getDeviceName());
+        return DiscoveryResultBuilder.create(new ThingUID(thingTypeUID, bridgeUID, deviceUUID))
+                .withLabel(apMeta.getDeviceName()).withBridge(bridgeUID).withProperties(properties).build();
     }
 }
@@ -54,8 +54,10 @@ public interface VeSyncProtocolConstants {
      * Base URL for AUTHENTICATION REQUESTS
      */
     String PROTOCOL = "https";
-    String HOST_ENDPOINT = PROTOCOL + "://smartapi.vesync.com/cloud";
+    String API_HOST = PROTOCOL + "://smartapi.vesync.com";
+    String HOST_ENDPOINT = API_HOST + "/cloud";
     String V1_LOGIN_ENDPOINT = HOST_ENDPOINT + "/v1/user/login";
     String V1_MANAGED_DEVICES_ENDPOINT = HOST_ENDPOINT + "/v1/deviceManaged/devices";
     String V2_BYPASS_ENDPOINT = HOST_ENDPOINT + "/v2/deviceManaged/bypassV2";
+    String V1_131_DEVICE_DETAILS_ENDPOINT = API_HOST + "/131airPurifier/v1/device/deviceDetail";
 }
@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.exceptions;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link CircuitOpenException} is thrown if a request is not sent, as the circuit breaker for the VeSync endpoint
+ * is open following repeated failures. It extends {@link AuthenticationException} so existing request paths handle it,
+ * but callers should check for it to report the cloud as unavailable rather than the credentials as invalid.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class CircuitOpenException extends AuthenticationException {
+
+    private static final long serialVersionUID = -7786425895604150558L;
+
+    public CircuitOpenException(final String message) {
+        super(message);
+    }
+}
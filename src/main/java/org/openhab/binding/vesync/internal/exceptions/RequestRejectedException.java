@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.exceptions;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link RequestRejectedException} is thrown if the VeSync API responded to a request, but did not accept it. The
+ * code of the response tells why.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class RequestRejectedException extends AuthenticationException {
+
+    private static final long serialVersionUID = -7786425895604150561L;
+
+    private final @Nullable String code;
+
+    public RequestRejectedException(final String message, final @Nullable String code) {
+        super(message);
+        this.code = code;
+    }
+
+    /**
+     * @return - the code of the response, if any
+     */
+    public @Nullable String getCode() {
+        return code;
+    }
+}
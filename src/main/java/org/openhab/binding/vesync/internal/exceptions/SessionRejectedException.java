@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.exceptions;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link SessionRejectedException} is thrown if the VeSync API rejected a request due to the token of the session
+ * it was sent with, e.g. because the token has expired. The request may be replayed after logging in again.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class SessionRejectedException extends AuthenticationException {
+
+    private static final long serialVersionUID = -7786425895604150559L;
+
+    public SessionRejectedException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.VeSyncBridgeConfiguration;
+
+/**
+ * The {@link VeSyncAdaptivePollPolicy} decides how long a device handler waits between the background polls of its
+ * device, from the activity it has seen.
+ *
+ * After a command, or a poll that found the state of the device changed, the device is polled at the floor interval
+ * for the active window. Each poll after that which finds the device unchanged, or still powered off, grows the
+ * interval by the decay factor, up to the ceiling. A device reported offline is only polled at the heartbeat
+ * interval, until it is seen online again.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncAdaptivePollPolicy {
+
+    /**
+     * What a poll of the device found.
+     */
+    public enum Observation {
+        /** The state of the device changed since the last poll */
+        CHANGED,
+        /** The device is powered on, and its state is as the last poll found it */
+        UNCHANGED,
+        /** The device is powered off, and has not been powered on since the last poll */
+        POWERED_OFF,
+        /** The device is not connected to the VeSync cloud */
+        OFFLINE
+    }
+
+    public static final int DEFAULT_CEILING_SECONDS = 300;
+    public static final double DEFAULT_DECAY = 1.5;
+    public static final int DEFAULT_ACTIVE_WINDOW_SECONDS = 60;
+    public static final int DEFAULT_HEARTBEAT_SECONDS = 900;
+
+    private final LongSupplier nanoClock;
+
+    private int floorSeconds = VeSyncDeviceAirPurifierHandler.DEFAULT_AIR_PURIFIER_POLL_RATE;
+    private int ceilingSeconds = DEFAULT_CEILING_SECONDS;
+    private double decay = DEFAULT_DECAY;
+    private long activeWindowNanos = TimeUnit.SECONDS.toNanos(DEFAULT_ACTIVE_WINDOW_SECONDS);
+    private int heartbeatSeconds = DEFAULT_HEARTBEAT_SECONDS;
+
+    private double intervalSeconds = floorSeconds;
+    private long activeUntilNanos;
+    private boolean offline = false;
+
+    public VeSyncAdaptivePollPolicy() {
+        this(System::nanoTime);
+    }
+
+    VeSyncAdaptivePollPolicy(final LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.activeUntilNanos = nanoClock.getAsLong();
+    }
+
+    /**
+     * Apply the polling parameters of the bridge, the poll interval of the devices being the floor.
+     *
+     * @param config - the configuration of the bridge
+     */
+    public void configure(final VeSyncBridgeConfiguration config) {
+        final int floor = valueOr(config.airPurifierPollInterval,
+                VeSyncDeviceAirPurifierHandler.DEFAULT_AIR_PURIFIER_POLL_RATE);
+        final Double configDecay = config.pollIntervalDecay;
+        configure(floor, valueOr(config.pollIntervalCeiling, DEFAULT_CEILING_SECONDS),
+                configDecay != null ? configDecay : DEFAULT_DECAY,
+                valueOr(config.activePollWindow, DEFAULT_ACTIVE_WINDOW_SECONDS),
+                valueOr(config.offlineHeartbeatInterval, DEFAULT_HEARTBEAT_SECONDS));
+    }
+
+    /**
+     * @param floorSeconds - the interval while the device is active
+     * @param ceilingSeconds - the longest interval while the device is idle, a ceiling below the floor disables the
+     *            decay
+     * @param decay - the factor the interval grows by for each idle poll, a factor below 1 disables the decay
+     * @param activeWindowSeconds - how long the device counts as active after a command or change of state
+     * @param heartbeatSeconds - the interval while the device is offline
+     */
+    public synchronized void configure(final int floorSeconds, final int ceilingSeconds, final double decay,
+            final int activeWindowSeconds, final int heartbeatSeconds) {
+        final int newFloorSeconds = Math.max(1, floorSeconds);
+        if (newFloorSeconds != this.floorSeconds) {
+            intervalSeconds = newFloorSeconds;
+        }
+        this.floorSeconds = newFloorSeconds;
+        this.ceilingSeconds = Math.max(newFloorSeconds, ceilingSeconds);
+        this.decay = Math.max(1.0, decay);
+        this.activeWindowNanos = TimeUnit.SECONDS.toNanos(Math.max(0, activeWindowSeconds));
+        this.heartbeatSeconds = Math.max(newFloorSeconds, heartbeatSeconds);
+        intervalSeconds = Math.min(this.ceilingSeconds, intervalSeconds);
+    }
+
+    private static int valueOr(final @Nullable Integer value, final int defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Start the active window, after a command has been sent to the device or its state was seen to change.
+     */
+    public synchronized void onActivity() {
+        activeUntilNanos = nanoClock.getAsLong() + activeWindowNanos;
+        intervalSeconds = floorSeconds;
+        offline = false;
+    }
+
+    /**
+     * Account for what a poll of the device found.
+     *
+     * @param observation - what the poll found
+     */
+    public synchronized void onPollResult(final Observation observation) {
+        switch (observation) {
+            case OFFLINE:
+                offline = true;
+                return;
+            case CHANGED:
+                onActivity();
+                return;
+            default:
+                if (offline) {
+                    // Back online, the device may have been used while it could not be polled
+                    onActivity();
+                } else if (!isActive()) {
+                    intervalSeconds = Math.min(ceilingSeconds, intervalSeconds * decay);
+                }
+        }
+    }
+
+    private boolean isActive() {
+        return nanoClock.getAsLong() - activeUntilNanos < 0;
+    }
+
+    /**
+     * @return - true if the last poll found the device offline.
+     */
+    public synchronized boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * @return - the interval while the device is active.
+     */
+    public synchronized int getFloorSeconds() {
+        return floorSeconds;
+    }
+
+    /**
+     * @return - the seconds to wait before the next poll of the device.
+     */
+    public synchronized int getIntervalSeconds() {
+        if (offline) {
+            return heartbeatSeconds;
+        }
+        if (isActive()) {
+            return floorSeconds;
+        }
+        return (int) Math.ceil(intervalSeconds);
+    }
+}
@@ -13,6 +13,8 @@
 package org.openhab.binding.vesync.internal.handlers;
 
 import static org.openhab.binding.vesync.internal.VeSyncConstants.*;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.MODE_OFF;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.MODE_ON;
 import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.V2_BYPASS_ENDPOINT;
 
 import java.time.Duration;
@@ -20,8 +22,16 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledFuture;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 
 import javax.validation.constraints.NotNull;
 
@@ -32,19 +42,25 @@ import org.openhab.binding.vesync.internal.VeSyncDeviceConfiguration;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncAuthenticatedRequest;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
 import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
-import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.exceptions.CircuitOpenException;
 import org.openhab.binding.vesync.internal.exceptions.DeviceUnknownException;
 import org.openhab.core.cache.ExpiringCache;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.Channel;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
+import org.openhab.core.thing.ThingStatusInfo;
 import org.openhab.core.thing.binding.BaseThingHandler;
 import org.openhab.core.thing.binding.BridgeHandler;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.builder.ThingBuilder;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,53 +79,448 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
 
     private static final int CACHE_TIMEOUT_SECOND = 5;
 
-    private int activePollRate = -2; // -1 is used to deactivate the poll, so default to a different value
+    private static final long READBACK_DELAY_MILLIS = 1000;
 
-    private @Nullable ScheduledFuture<?> backgroundPollingScheduler;
+    private final LongSupplier nanoClock;
+    private final VeSyncAdaptivePollPolicy pollPolicy;
+
+    private volatile boolean backgroundPollingActive = false;
+    // Whether the bridge has asked for the device to be polled, which only happens while channels are linked
+    private volatile boolean backgroundPollingRequested = false;
+    private volatile long pollJitterMillis = 0;
     private final Object pollConfigLock = new Object();
 
+    // Set by a command, so the next poll reads back the device rather than using the cached data
+    private volatile boolean readbackPending = false;
+
+    // The sequence of the poll requests issued, and of the request whose response was last applied. Responses are
+    // applied one at a time, and one to a request issued before the response last applied is dropped.
+    private final AtomicLong pollRequestSequence = new AtomicLong();
+    private long appliedPollSequence = 0;
+    private final Object pollApplyLock = new Object();
+
+    // Whether polls are skipped while the device list reports the device is off or offline, and whether the device
+    // has been polled, so its channels hold more than the device list has
+    private volatile boolean piggybackPolling = false;
+    private volatile boolean detailPolled = false;
+
+    // When the device list last included the device, and how old that may be before polls are no longer skipped
+    private volatile boolean deviceListSeen = false;
+    private volatile long deviceListSeenNanos = 0;
+    private volatile long deviceListMaxAgeNanos = 0;
+
+    // The states last published to each channel, so unchanged states are only published again once the refresh
+    // interval has passed or a refresh is forced, and whether the poll being applied has changed any of them
+    private final Map<String, PublishedChannel> publishedChannels = new ConcurrentHashMap<>();
+    private final Function<String, PublishedChannel> publishedChannelFactory = channelID -> new PublishedChannel(
+            new ChannelUID(getThing().getUID(), channelID));
+    private volatile long stateRefreshNanos = 0;
+    private final AtomicLong suppressedStateUpdates = new AtomicLong();
+
+    // The channels that have items linked, only these are decoded and published
+    private final Set<String> linkedChannels = ConcurrentHashMap.newKeySet();
+    private volatile boolean stateChanged = false;
+    private volatile boolean powerChanged = false;
+
     protected @Nullable Channel findChannelById(final String channelGroupId) {
         // return getThing().getChannels().stream().anyMatch(x -> x.getUID().getId().equals(channelGroupId));
         return getThing().getChannel(channelGroupId);
     }
 
-    protected ExpiringCache<String> lastPollResultCache = new ExpiringCache<>(Duration.ofSeconds(CACHE_TIMEOUT_SECOND),
-            VeSyncBaseDeviceHandler::expireCacheContents);
+    protected ExpiringCache<VesyncResponse> lastPollResultCache = new ExpiringCache<>(
+            Duration.ofSeconds(CACHE_TIMEOUT_SECOND), VeSyncBaseDeviceHandler::expireCacheContents);
 
-    private static @Nullable String expireCacheContents() {
+    private static @Nullable VesyncResponse expireCacheContents() {
         return null;
     }
 
+    /**
+     * The UID of a channel, built once per handler, the state last published to the channel and whether the state is
+     * published again even if unchanged.
+     */
+    private static final class PublishedChannel {
+        private final ChannelUID channelUID;
+        private volatile @Nullable State state;
+        private volatile long publishedNanos;
+        private volatile boolean refreshRequired;
+
+        private PublishedChannel(final ChannelUID channelUID) {
+            this.channelUID = channelUID;
+        }
+    }
+
     @Override
     public void channelLinked(ChannelUID channelUID) {
         super.channelLinked(channelUID);
+        if (isPollStatisticsChannel(channelUID.getId())) {
+            // Published by the bridge, so does not require the device to be polled
+            return;
+        }
+
+        // The newly linked item has no state yet, so the next poll must publish the channel
+        final PublishedChannel channel = publishedChannels.get(channelUID.getId());
+        if (channel != null) {
+            channel.refreshRequired = true;
+        }
+        synchronized (pollConfigLock) {
+            linkedChannels.add(channelUID.getId());
+            if (backgroundPollingRequested) {
+                setBackgroundPollingActive(true);
+            }
+        }
+        requestPoll(0);
+    }
 
-        scheduler.execute(this::pollForUpdate);
+    @Override
+    public void channelUnlinked(ChannelUID channelUID) {
+        super.channelUnlinked(channelUID);
+        if (isPollStatisticsChannel(channelUID.getId())) {
+            return;
+        }
+
+        synchronized (pollConfigLock) {
+            linkedChannels.remove(channelUID.getId());
+            if (linkedChannels.isEmpty()) {
+                logger.debug("No channels are linked, so the device is not polled");
+                setBackgroundPollingActive(false);
+            }
+        }
     }
 
-    protected void setBackgroundPollInterval(final int seconds) {
-        if (activePollRate == seconds) {
+    /**
+     * @param channelID - the id of the channel
+     * @return - true if an item is linked to the channel, so its value should be decoded and published.
+     */
+    protected boolean isChannelLinked(final String channelID) {
+        return linkedChannels.contains(channelID);
+    }
+
+    private static boolean isPollStatisticsChannel(final String channelID) {
+        return DEVICE_CHANNEL_POLL_NEXT_IN.equals(channelID) || DEVICE_CHANNEL_POLL_LATE_BY.equals(channelID);
+    }
+
+    /**
+     * Publish the poll statistics of the device to its channels, if they are linked.
+     *
+     * @param statistics - the statistics of the device from the last statistics update of the bridge, if any
+     */
+    void updatePollStatistics(final VeSyncPollScheduler.@Nullable Statistics statistics) {
+        if (statistics == null) {
             return;
         }
-        logger.debug("Reconfiguring devices background polling to {} seconds", seconds);
+        final long nextPollInMillis = statistics.getNextPollInMillis();
+        publishPollStatistic(DEVICE_CHANNEL_POLL_NEXT_IN,
+                nextPollInMillis < 0 ? UnDefType.UNDEF : new DecimalType(nextPollInMillis));
+        publishPollStatistic(DEVICE_CHANNEL_POLL_LATE_BY, new DecimalType(statistics.getLateByMillis()));
+    }
+
+    private void publishPollStatistic(final String channelID, final State state) {
+        final ChannelUID channelUID = new ChannelUID(getThing().getUID(), channelID);
+        if (isLinked(channelUID)) {
+            super.updateState(channelUID, state);
+        }
+    }
+
+    private void refreshLinkedChannels() {
+        synchronized (pollConfigLock) {
+            linkedChannels.clear();
+            for (Channel channel : getThing().getChannels()) {
+                if (isLinked(channel.getUID()) && !isPollStatisticsChannel(channel.getUID().getId())) {
+                    linkedChannels.add(channel.getUID().getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Apply the polling configuration of the bridge, starting the background polling of the device unless it is
+     * offline for a reason polling cannot resolve.
+     *
+     * @param config - the configuration of the bridge
+     */
+    protected void updateBackgroundPolling(final VeSyncBridgeConfiguration config) {
+        pollPolicy.configure(config);
+        final Integer pollJitter = config.pollJitter;
+        pollJitterMillis = pollJitter != null ? TimeUnit.SECONDS.toMillis(Math.max(0, pollJitter)) : 0;
+        piggybackPolling = Boolean.TRUE.equals(config.piggybackPolling);
+        // Allow for one refresh of the device list to be missed
+        deviceListMaxAgeNanos = TimeUnit.SECONDS.toNanos(2L * VeSyncBridgeHandler.getDeviceListRefreshInterval(config));
+        final Integer stateRefreshInterval = config.stateRefreshInterval;
+        stateRefreshNanos = stateRefreshInterval != null ? TimeUnit.SECONDS.toNanos(Math.max(0, stateRefreshInterval))
+                : 0;
+
+        final ThingStatusInfo statusInfo = getThing().getStatusInfo();
+        if (ThingStatus.OFFLINE.equals(statusInfo.getStatus())) {
+            if (!ThingStatusDetail.NONE.equals(statusInfo.getStatusDetail())) {
+                backgroundPollingRequested = false;
+                setBackgroundPollingActive(false);
+                return;
+            }
+            // Reported offline by the API, so keep checking on it at the heartbeat rate
+            pollPolicy.onPollResult(VeSyncAdaptivePollPolicy.Observation.OFFLINE);
+        }
+        synchronized (pollConfigLock) {
+            backgroundPollingRequested = true;
+            // Nothing would use the result of polling a device without linked channels
+            setBackgroundPollingActive(!linkedChannels.isEmpty());
+        }
+    }
 
+    protected void setBackgroundPollingActive(final boolean active) {
         synchronized (pollConfigLock) {
-            final ScheduledFuture<?> job = backgroundPollingScheduler;
+            final VeSyncPollScheduler pollScheduler = getPollScheduler();
+            if (backgroundPollingActive == active) {
+                // Stopping also drops any one-off poll that is pending
+                if (!active && pollScheduler != null) {
+                    pollScheduler.cancel(getPollKey());
+                }
+                return;
+            }
+            logger.debug("Device background polling {}", active ? "started" : "stopped");
+            backgroundPollingActive = active;
+            if (pollScheduler == null) {
+                return;
+            }
+            if (active) {
+                // Keeps an earlier poll that is already pending, e.g. the initial poll
+                pollScheduler.scheduleNoLaterThan(getPollKey(), this::backgroundPoll,
+                        TimeUnit.SECONDS.toMillis(pollPolicy.getIntervalSeconds()));
+            } else {
+                pollScheduler.cancel(getPollKey());
+            }
+        }
+    }
 
-            // Cancel the current scan's and re-schedule as required
-            if (job != null && !job.isCancelled()) {
-                job.cancel(true);
-                backgroundPollingScheduler = null;
+    /**
+     * @return - the key the device's polls are scheduled by, on the bridge's poll scheduler.
+     */
+    protected String getPollKey() {
+        return getThing().getUID().getAsString();
+    }
+
+    @Nullable VeSyncPollScheduler getPollScheduler() {
+        final BridgeHandler bridgeHandler = getBridgeHandler();
+        return bridgeHandler instanceof VeSyncBridgeHandler ? ((VeSyncBridgeHandler) bridgeHandler).getPollScheduler()
+                : null;
+    }
+
+    private void scheduleBackgroundPoll(final VeSyncPollScheduler pollScheduler, final int seconds) {
+        logger.trace("Next background poll of the device in about {} seconds", seconds);
+        pollScheduler.schedulePhased(getPollKey(), this::backgroundPoll, TimeUnit.SECONDS.toMillis(seconds),
+                VeSyncPollScheduler.phaseOf(MARKER_INVALID_DEVICE_KEY.equals(deviceLookupKey) ? getPollKey()
+                        : deviceLookupKey),
+                pollJitterMillis);
+    }
+
+    /**
+     * Poll the device within the given delay, bringing forward its next background poll if that is due later.
+     *
+     * @param delayMillis - the most milliseconds until the device is polled
+     */
+    protected void requestPoll(final long delayMillis) {
+        final VeSyncPollScheduler pollScheduler = getPollScheduler();
+        if (pollScheduler != null && !linkedChannels.isEmpty()) {
+            pollScheduler.scheduleNoLaterThan(getPollKey(), this::backgroundPoll, delayMillis);
+        }
+    }
+
+    CompletableFuture<?> backgroundPoll() {
+        final boolean readback = readbackPending;
+        if (readback) {
+            // Read-backs should never use the cached data - but may provide it for poll's that coincide with
+            // the caches alive duration.
+            readbackPending = false;
+            lastPollResultCache.invalidateValue();
+        }
+        CompletableFuture<?> poll;
+        if (!readback && isPollCoveredByDeviceList()) {
+            logger.trace("Poll skipped as the device list reports the device is off or offline");
+            poll = CompletableFuture.completedFuture(null);
+        } else if (pollPolicy.isOffline()) {
+            detailPolled = true;
+            logger.trace("Heartbeat poll of the offline device");
+            lastPollResultCache.invalidateValue();
+            poll = pollForDeviceData(lastPollResultCache, true);
+        } else {
+            detailPolled = true;
+            poll = pollForUpdate();
+        }
+        // Schedule the next poll once the result of this one has been applied, so its interval accounts for it
+        return poll.whenComplete((result, failure) -> {
+            synchronized (pollConfigLock) {
+                final VeSyncPollScheduler pollScheduler = getPollScheduler();
+                if (backgroundPollingActive && pollScheduler != null && !pollScheduler.isScheduled(getPollKey())) {
+                    scheduleBackgroundPoll(pollScheduler, pollPolicy.getIntervalSeconds());
+                }
+            }
+        });
+    }
+
+    /**
+     * @return - true if the device list reports the device is off or offline, so a poll would find nothing the
+     *         device list has not, once the device has been polled at least once and while the device list is recent.
+     */
+    boolean isPollCoveredByDeviceList() {
+        if (!piggybackPolling || !detailPolled || !deviceListSeen) {
+            return false;
+        }
+        if (nanoClock.getAsLong() - deviceListSeenNanos >= deviceListMaxAgeNanos) {
+            // The device list has not been refreshed for a while, so it may no longer hold for the device
+            return false;
+        }
+        final VesyncManagedDevicesPage.Result.@Nullable VesyncManagedDeviceBase metadata = getDeviceListEntry();
+        return metadata != null
+                && ("offline".equals(metadata.connectionStatus) || MODE_OFF.equals(metadata.deviceStatus));
+    }
+
+    VesyncManagedDevicesPage.Result.@Nullable VesyncManagedDeviceBase getDeviceListEntry() {
+        final BridgeHandler bridgeHandler = getBridgeHandler();
+        if (bridgeHandler instanceof VeSyncBridgeHandler) {
+            return ((VeSyncBridgeHandler) bridgeHandler).api.getMacLookupMap().get(deviceLookupKey);
+        }
+        return null;
+    }
+
+    /**
+     * Update the channels of the device from its entry in the device list, in place of polling it while it is off or
+     * offline. Only the power state of the device is in the device list.
+     */
+    public void updateFromDeviceList() {
+        final VesyncManagedDevicesPage.Result.@Nullable VesyncManagedDeviceBase metadata = getDeviceListEntry();
+        if (metadata == null) {
+            return;
+        }
+        deviceListSeenNanos = nanoClock.getAsLong();
+        deviceListSeen = true;
+        if (!ThingStatus.ONLINE.equals(getThing().getStatus()) || !"online".equals(metadata.connectionStatus)) {
+            // Offline devices are handled with the changes to the device catalog
+            return;
+        }
+        final boolean poweredOn = MODE_ON.equals(metadata.deviceStatus);
+        if (!poweredOn && !MODE_OFF.equals(metadata.deviceStatus)) {
+            return;
+        }
+        final State state = OnOffType.from(poweredOn);
+        final PublishedChannel published = publishedChannels.get(DEVICE_CHANNEL_ENABLED);
+        if (published != null && state.equals(published.state)) {
+            return;
+        }
+        updateState(DEVICE_CHANNEL_ENABLED, state);
+        onPollApplied(poweredOn);
+        // Switched away from openHAB, so catch up with the rest of the device's state straight away
+        readbackPending = true;
+        requestPoll(0);
+    }
+
+    /**
+     * Publish the states of all the linked channels again, even if unchanged, from the latest result of polling the
+     * device.
+     *
+     * @return - A future completed once the result of the poll has been applied.
+     */
+    protected CompletableFuture<?> refreshStates() {
+        publishedChannels.values().forEach(channel -> channel.refreshRequired = true);
+        return pollForUpdate();
+    }
+
+    /**
+     * Start the active polling window, bringing the next background poll forward if it is due later than the floor
+     * interval.
+     */
+    protected void onDeviceActivity() {
+        pollPolicy.onActivity();
+        if (backgroundPollingActive) {
+            requestPoll(TimeUnit.SECONDS.toMillis(pollPolicy.getFloorSeconds()));
+        }
+    }
+
+    /**
+     * Publish the state of a channel that has an item linked, unless it is the state last published to the channel and
+     * the state refresh interval has not passed since, nor has a refresh of the channel been forced. The power state is
+     * tracked even if it is not linked, as the polling of the device adapts to it.
+     */
+    @Override
+    protected void updateState(final String channelID, final State state) {
+        final boolean linked = linkedChannels.contains(channelID);
+        if (!linked && !DEVICE_CHANNEL_ENABLED.equals(channelID)) {
+            return;
+        }
+        final long now = nanoClock.getAsLong();
+        final PublishedChannel channel = publishedChannels.computeIfAbsent(channelID, publishedChannelFactory);
+        if (state.equals(channel.state)) {
+            if (!channel.refreshRequired
+                    && (stateRefreshNanos <= 0 || now - channel.publishedNanos < stateRefreshNanos)) {
+                suppressedStateUpdates.incrementAndGet();
+                return;
             }
-            if (seconds > 0) {
-                logger.trace("Device data is polling every {} seconds", seconds);
-                backgroundPollingScheduler = scheduler.scheduleWithFixedDelay(this::pollForUpdate, seconds, seconds,
-                        TimeUnit.SECONDS);
+        } else if (channel.state != null) {
+            // The first state of a channel is not a change of the device
+            stateChanged = true;
+            if (DEVICE_CHANNEL_ENABLED.equals(channelID)) {
+                powerChanged = true;
             }
-            activePollRate = seconds;
+        }
+        channel.state = state;
+        channel.publishedNanos = now;
+        channel.refreshRequired = false;
+        if (linked) {
+            super.updateState(channel.channelUID, state);
+        }
+    }
+
+    /**
+     * Update the status of the thing, unless it already has the status. Each poll reports the status of the device.
+     */
+    @Override
+    protected void updateStatus(final ThingStatus status) {
+        final ThingStatusInfo statusInfo = getThing().getStatusInfo();
+        if (status.equals(statusInfo.getStatus()) && ThingStatusDetail.NONE.equals(statusInfo.getStatusDetail())
+                && statusInfo.getDescription() == null) {
+            return;
+        }
+        super.updateStatus(status);
+    }
+
+    /**
+     * @return - the number of channel updates not published, as the state of the channel was unchanged.
+     */
+    public long getSuppressedStateUpdates() {
+        return suppressedStateUpdates.get();
+    }
+
+    /**
+     * Account for the result of a poll once its states have been published, to adapt the polling rate to the
+     * activity of the device. Only called for results fresh from the device, as a cached result re-applied tells
+     * nothing new of the device.
+     *
+     * @param poweredOn - whether the poll found the device powered on
+     */
+    protected void onPollApplied(final boolean poweredOn) {
+        final VeSyncAdaptivePollPolicy.Observation observation;
+        if (powerChanged || (poweredOn && stateChanged)) {
+            observation = VeSyncAdaptivePollPolicy.Observation.CHANGED;
+        } else {
+            // Readings of a device that is powered off are not activity
+            observation = poweredOn ? VeSyncAdaptivePollPolicy.Observation.UNCHANGED
+                    : VeSyncAdaptivePollPolicy.Observation.POWERED_OFF;
+        }
+        stateChanged = false;
+        powerChanged = false;
+        final boolean wasOffline = pollPolicy.isOffline();
+        if (observation == VeSyncAdaptivePollPolicy.Observation.CHANGED || wasOffline) {
+            onDeviceActivity();
+        } else {
+            pollPolicy.onPollResult(observation);
         }
     }
 
+    /**
+     * Account for a poll finding the device is offline, so it is only polled at the heartbeat rate.
+     */
+    protected void onPollFoundOffline() {
+        pollPolicy.onPollResult(VeSyncAdaptivePollPolicy.Observation.OFFLINE);
+    }
+
     @NotNull
     protected String deviceLookupKey = MARKER_INVALID_DEVICE_KEY;
 
@@ -120,6 +531,14 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
         initialize();
     }
 
+    /**
+     * @return - the mac id of the device the handler is addressing, or MARKER_INVALID_DEVICE_KEY if it has not been
+     *         matched to a device.
+     */
+    public String getDeviceLookupKey() {
+        return deviceLookupKey;
+    }
+
     public boolean requiresMetaDataFrequentUpdates() {
         return (MARKER_INVALID_DEVICE_KEY.equals(deviceLookupKey));
     }
@@ -169,8 +588,13 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
 
             if ("online".equals(metadata.connectionStatus)) {
                 updateStatus(ThingStatus.ONLINE);
+                if (pollPolicy.isOffline()) {
+                    // Catch up with the device straight away, rather than at the next heartbeat
+                    onDeviceActivity();
+                }
             } else if ("offline".equals(metadata.connectionStatus)) {
                 updateStatus(ThingStatus.OFFLINE);
+                onPollFoundOffline();
             }
         }
 
@@ -201,6 +625,7 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
             Channel ch = getThing().getChannel(name);
             if (ch != null) {
                 channelsToBeRemoved.add(ch);
+                linkedChannels.remove(name);
             }
         }
 
@@ -229,7 +654,13 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
     }
 
     public VeSyncBaseDeviceHandler(Thing thing) {
+        this(thing, System::nanoTime);
+    }
+
+    VeSyncBaseDeviceHandler(final Thing thing, final LongSupplier nanoClock) {
         super(thing);
+        this.nanoClock = nanoClock;
+        this.pollPolicy = new VeSyncAdaptivePollPolicy(nanoClock);
     }
 
     protected @Nullable VeSyncClient veSyncClient;
@@ -268,37 +699,49 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
         if (bridgeHandler != null && bridgeHandler instanceof VeSyncBridgeHandler) {
             VeSyncBridgeHandler vesyncBridgeHandler = (VeSyncBridgeHandler) bridgeHandler;
 
-            final String configMac = config.macId;
+            logger.debug("Searching for device mac id : {} / name : {}", config.macId, config.deviceName);
+            final String lookupKey = resolveLookupKey(vesyncBridgeHandler.api.getMacLookupMap(), config.macId,
+                    config.deviceName);
+            logger.debug("Resolved device lookup key : {}", lookupKey);
+            return lookupKey;
+        }
 
-            // Try to use the mac directly
-            if (configMac != null) {
-                logger.debug("Searching for device mac id : {}", configMac);
-                VesyncManagedDevicesPage.Result.@Nullable VesyncManagedDeviceBase metadata = vesyncBridgeHandler.api
-                        .getMacLookupMap().get(configMac.toLowerCase());
+        return MARKER_INVALID_DEVICE_KEY;
+    }
 
-                if (metadata != null && metadata.macId != null) {
-                    return metadata.macId;
-                }
+    /**
+     * Resolve the device a handler is configured for, preferring the mac id and otherwise matching the name to a
+     * single device.
+     *
+     * @param macLookup - the devices of the account by mac id
+     * @param configMac - the configured mac id, if any
+     * @param deviceName - the configured device name, if any
+     * @return - the mac id of the device, or MARKER_INVALID_DEVICE_KEY if it could not be resolved
+     */
+    public static String resolveLookupKey(
+            final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> macLookup,
+            final @Nullable String configMac, final @Nullable String deviceName) {
+        // Try to use the mac directly
+        if (configMac != null) {
+            VesyncManagedDevicesPage.Result.@Nullable VesyncManagedDeviceBase metadata = macLookup
+                    .get(configMac.toLowerCase());
+
+            if (metadata != null && metadata.macId != null) {
+                return metadata.macId;
             }
+        }
 
-            final String deviceName = config.deviceName;
-
-            // Check if the device name can be matched to a single device
-            if (deviceName != null) {
-                final String[] matchedMacIds = vesyncBridgeHandler.api.getMacLookupMap().values().stream()
-                        .filter(x -> deviceName.equals(x.deviceName)).map(x -> x.macId).toArray(String[]::new); // .collect();//.toArray(String[]::new)
-
-                for (String val : matchedMacIds) {
-                    logger.debug("Found MAC match on name with : {}", val);
-                }
+        // Check if the device name can be matched to a single device
+        if (deviceName != null) {
+            final String[] matchedMacIds = macLookup.values().stream().filter(x -> deviceName.equals(x.deviceName))
+                    .map(x -> x.macId).toArray(String[]::new);
 
-                if (matchedMacIds.length != 1) {
-                    return MARKER_INVALID_DEVICE_KEY;
-                }
+            if (matchedMacIds.length != 1) {
+                return MARKER_INVALID_DEVICE_KEY;
+            }
 
-                if (vesyncBridgeHandler.api.getMacLookupMap().get(matchedMacIds[0]) != null) {
-                    return matchedMacIds[0];
-                }
+            if (macLookup.get(matchedMacIds[0]) != null) {
+                return matchedMacIds[0];
             }
         }
 
@@ -307,6 +750,10 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
 
     @Override
     public void initialize() {
+        // The items linked to the channels may have been updated while the handler was not running
+        publishedChannels.values().forEach(channel -> channel.state = null);
+        refreshLinkedChannels();
+
         // Sanity check basic setup
         final VeSyncBridgeHandler bridge = (VeSyncBridgeHandler) getBridgeHandler();
         if (bridge == null) {
@@ -328,147 +775,254 @@ public abstract class VeSyncBaseDeviceHandler extends BaseThingHandler {
         // This will force the bridge to push the configuration parameters for polling to the handler
         bridge.updateThing(this);
 
-        // Give the bridge time to build the datamaps of the devices
-        scheduler.schedule(this::pollForUpdate, 10, TimeUnit.SECONDS);
+        if (MARKER_INVALID_DEVICE_KEY.equals(deviceLookupKey)) {
+            // Give the bridge time to build the datamaps of the devices
+            requestPoll(TimeUnit.SECONDS.toMillis(10));
+        } else {
+            // The device is already known, e.g. from the stored device catalog, so can be polled straight away
+            requestPoll(0);
+        }
     }
 
-    public void pollForUpdate() {
-        pollForDeviceData(lastPollResultCache);
+    /**
+     * Poll the device for its latest data.
+     *
+     * @return - A future completed once the result of the poll has been applied.
+     */
+    public CompletableFuture<?> pollForUpdate() {
+        return pollForDeviceData(lastPollResultCache, false);
     }
 
-    protected void pollForDeviceData(final ExpiringCache<String> cachedResponse) {
+    /**
+     * Poll the device for its latest data, unless the cached data is still alive.
+     *
+     * @param cachedResponse - the cache of the result of the last poll
+     * @param offlineProbe - whether the poll is a heartbeat of the offline device, so its status request is let through
+     * @return - A future completed once the result of the poll has been applied.
+     */
+    protected CompletableFuture<?> pollForDeviceData(final ExpiringCache<VesyncResponse> cachedResponse,
+            final boolean offlineProbe) {
         // Each device should implement this to get the latest data that is not part of the meta data.
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Issue a poll request to the device, and apply its response once received, unless the response to a request
+     * issued after it has been applied already. Responses are applied one at a time, so the states of responses
+     * received together do not interleave.
+     *
+     * @param request - issues the request, the future completing with the response or null if it was not issued
+     * @param apply - applies the response to the device
+     * @return - A future completed once the response has been applied, or dropped.
+     */
+    protected final <T> CompletableFuture<?> requestPollResult(final Supplier<CompletableFuture<@Nullable T>> request,
+            final Consumer<T> apply) {
+        final long sequence = pollRequestSequence.incrementAndGet();
+        return request.get().thenAcceptAsync(response -> {
+            if (response == null) {
+                return;
+            }
+            synchronized (pollApplyLock) {
+                if (sequence < appliedPollSequence) {
+                    logger.trace("Response to poll {} dropped, as that of poll {} has been applied", sequence,
+                            appliedPollSequence);
+                    return;
+                }
+                appliedPollSequence = sequence;
+                apply.accept(response);
+            }
+        }, scheduler);
     }
 
     /**
-     * Send a BypassV2 command to the device. The body of the response is returned, a poll is done if the request
-     * should have been dispatched.
+     * Apply the cached response of a previous poll, one at a time with the responses received.
+     *
+     * @param apply - applies the cached response to the device
+     */
+    protected final void applyCachedPollResult(final Runnable apply) {
+        synchronized (pollApplyLock) {
+            apply.run();
+        }
+    }
+
+    /**
+     * Send a BypassV2 command to the device, without blocking the calling thread. A poll is done once the command has
+     * been dispatched.
      * 
      * @param method - the V2 bypass method
      * @param payload - The payload to send in within the V2 bypass command
-     * @return - The body of the response, or EMPTY_STRING if the command could not be issued.
+     * @return - A future completed with the body of the response, or EMPTY_STRING if the command could not be issued.
      */
-    protected final String sendV2BypassControlCommand(final String method,
+    protected final CompletableFuture<String> sendV2BypassControlCommand(final String method,
             final VesyncRequestManagedDeviceBypassV2.EmptyPayload payload) {
         return sendV2BypassControlCommand(method, payload, true);
     }
 
     /**
-     * Send a BypassV2 command to the device. The body of the response is returned.
+     * Send a BypassV2 command to the device, without blocking the calling thread. A failure to send the command is
+     * handled before the future completes, so it is always completed normally.
      * 
      * @param method - the V2 bypass method
      * @param payload - The payload to send in within the V2 bypass command
      * @param readbackDevice - if set to true after the command has been issued, whether a poll of the devices data
      *            should be run.
-     * @return - The body of the response, or EMPTY_STRING if the command could not be issued.
+     * @return - A future completed with the body of the response, or EMPTY_STRING if the command could not be issued.
      */
-    protected final String sendV2BypassControlCommand(final String method,
+    protected final CompletableFuture<String> sendV2BypassControlCommand(final String method,
             final VesyncRequestManagedDeviceBypassV2.EmptyPayload payload, final boolean readbackDevice) {
-        final String result = sendV2BypassCommand(method, payload);
-        if (!result.equals(EMPTY_STRING) && readbackDevice) {
-            performReadbackPoll();
-        }
-        return result;
+        return sendV2BypassCommandAsync(method, payload).thenApply(result -> {
+            if (!result.equals(EMPTY_STRING) && readbackDevice) {
+                performReadbackPoll();
+            }
+            return result;
+        });
     }
 
-    public final String sendV1Command(final String method, final String url, final VesyncAuthenticatedRequest request) {
+    /**
+     * Send a V1 command to the device, without blocking the calling thread.
+     *
+     * @param method - the V1 method
+     * @param url - the endpoint to send the request to
+     * @param request - the request to send
+     * @return - A future completed with the body of the response, or EMPTY_STRING if the command could not be issued.
+     */
+    public final CompletableFuture<String> sendV1CommandAsync(final String method, final String url,
+            final VesyncAuthenticatedRequest request) {
         if (ThingStatus.OFFLINE.equals(this.thing.getStatus())) {
             logger.debug("Command blocked as device is offline");
-            return EMPTY_STRING;
-        }
-
-        try {
-            if (MARKER_INVALID_DEVICE_KEY.equals(deviceLookupKey)) {
-                deviceLookupKey = getValidatedIdString();
-            }
-            VeSyncClient client = getVeSyncClient();
-            if (client != null) {
-                return client.reqV2Authorized(url, deviceLookupKey, request);
-            } else {
-                throw new DeviceUnknownException("Missing client");
-            }
-        } catch (AuthenticationException e) {
-            logger.debug("Auth exception {}", e.getMessage());
-            return EMPTY_STRING;
-        } catch (final DeviceUnknownException e) {
-            logger.debug("Device unknown exception {}", e.getMessage());
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.HANDLER_REGISTERING_ERROR,
-                    "Check configuration details");
-            // In case the name is updated server side - request the scan rate is increased
-            requestBridgeFreqScanMetadataIfReq();
-            return EMPTY_STRING;
+            return CompletableFuture.completedFuture(EMPTY_STRING);
         }
+        return sendAuthorizedRequestAsync(url, request);
     }
 
     /**
-     * Send a BypassV2 command to the device. The body of the response is returned.
+     * Send a BypassV2 command to the device, without blocking the calling thread.
      * 
      * @param method - the V2 bypass method
      * @param payload - The payload to send in within the V2 bypass command
-     * @return - The body of the response, or EMPTY_STRING if the command could not be issued.
+     * @return - A future completed with the body of the response, or EMPTY_STRING if the command could not be issued.
      */
-    protected final String sendV2BypassCommand(final String method,
+    protected final CompletableFuture<String> sendV2BypassCommandAsync(final String method,
             final VesyncRequestManagedDeviceBypassV2.EmptyPayload payload) {
         if (ThingStatus.OFFLINE.equals(this.thing.getStatus())) {
             logger.debug("Command blocked as device is offline");
-            return EMPTY_STRING;
+            return CompletableFuture.completedFuture(EMPTY_STRING);
         }
 
-        /*
-         * if (deviceLookupKey == null) {
-         * logger.debug("No key for addressing data");
-         * return EMPTY_STRING;
-         * }
-         */
-
         VesyncRequestManagedDeviceBypassV2 readReq = new VesyncRequestManagedDeviceBypassV2();
         readReq.payload.method = method;
         readReq.payload.data = payload;
 
-        try {
-            if (MARKER_INVALID_DEVICE_KEY.equals(deviceLookupKey)) {
-                deviceLookupKey = getValidatedIdString();
-            }
-            VeSyncClient client = getVeSyncClient();
-            if (client != null) {
-                return client.reqV2Authorized(V2_BYPASS_ENDPOINT, deviceLookupKey, readReq);
-            } else {
-                throw new DeviceUnknownException("Missing client");
+        return sendAuthorizedRequestAsync(V2_BYPASS_ENDPOINT, readReq);
+    }
+
+    /**
+     * Send a BypassV2 status request to the device, without blocking the calling thread. Concurrent status requests
+     * of the same method to the device share a single request to the API.
+     *
+     * @param method - the V2 bypass method
+     * @param responseType - the type to decode the response as
+     * @param offlineProbe - whether to send the request even though the device is offline
+     * @return - A future completed with the decoded response, or null if the request could not be issued.
+     */
+    protected final <T extends VesyncResponse> CompletableFuture<@Nullable T> sendV2BypassStatusRequestAsync(
+            final String method, final Class<T> responseType, final boolean offlineProbe) {
+        if (ThingStatus.OFFLINE.equals(this.thing.getStatus()) && !offlineProbe) {
+            logger.debug("Command blocked as device is offline");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        VesyncRequestManagedDeviceBypassV2 readReq = new VesyncRequestManagedDeviceBypassV2();
+        readReq.payload.method = method;
+
+        return sendAuthorizedStatusRequestAsync(V2_BYPASS_ENDPOINT, readReq, responseType);
+    }
+
+    /**
+     * Send a V1 status request to the device, without blocking the calling thread. Concurrent status requests of the
+     * same method to the device share a single request to the API.
+     *
+     * @param url - the endpoint to send the request to
+     * @param request - the request to send
+     * @param responseType - the type to decode the response as
+     * @param offlineProbe - whether to send the request even though the device is offline
+     * @return - A future completed with the decoded response, or null if the request could not be issued.
+     */
+    protected final <T extends VesyncResponse> CompletableFuture<@Nullable T> sendV1StatusRequestAsync(
+            final String url, final VesyncAuthenticatedRequest request, final Class<T> responseType,
+            final boolean offlineProbe) {
+        if (ThingStatus.OFFLINE.equals(this.thing.getStatus()) && !offlineProbe) {
+            logger.debug("Command blocked as device is offline");
+            return CompletableFuture.completedFuture(null);
+        }
+        return sendAuthorizedStatusRequestAsync(url, request, responseType);
+    }
+
+    private <T extends VesyncResponse> CompletableFuture<@Nullable T> sendAuthorizedStatusRequestAsync(
+            final String url, final VesyncAuthenticatedRequest request, final Class<T> responseType) {
+        if (MARKER_INVALID_DEVICE_KEY.equals(deviceLookupKey)) {
+            deviceLookupKey = getValidatedIdString();
+        }
+        VeSyncClient client = getVeSyncClient();
+        if (client == null) {
+            handleRequestFailure(new DeviceUnknownException("Missing client"));
+            return CompletableFuture.completedFuture(null);
+        }
+        return client.reqV2AuthorizedStatusAsync(url, deviceLookupKey, request, responseType)
+                .<@Nullable T> thenApply(response -> response).exceptionally(failure -> {
+                    handleRequestFailure(failure);
+                    return null;
+                });
+    }
+
+    private CompletableFuture<String> sendAuthorizedRequestAsync(final String url,
+            final VesyncAuthenticatedRequest request) {
+        if (MARKER_INVALID_DEVICE_KEY.equals(deviceLookupKey)) {
+            deviceLookupKey = getValidatedIdString();
+        }
+        VeSyncClient client = getVeSyncClient();
+        if (client == null) {
+            return CompletableFuture.completedFuture(handleRequestFailure(new DeviceUnknownException("Missing client")));
+        }
+        return client.reqV2AuthorizedAsync(url, deviceLookupKey, request).exceptionally(this::handleRequestFailure);
+    }
+
+    private String handleRequestFailure(final Throwable failure) {
+        final Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof CircuitOpenException) {
+            logger.debug("Request not sent {}", cause.getMessage());
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, cause.getMessage());
+            // Ensure the bridge re-scans frequently, to bring the device back online once the cloud recovers
+            BridgeHandler bridgeHandler = getBridgeHandler();
+            if (bridgeHandler instanceof VeSyncBridgeHandler) {
+                ((VeSyncBridgeHandler) bridgeHandler).checkIfIncreaseScanRateRequired();
             }
-        } catch (AuthenticationException e) {
-            logger.debug("Auth exception {}", e.getMessage());
-            return EMPTY_STRING;
-        } catch (final DeviceUnknownException e) {
-            logger.debug("Device unknown exception {}", e.getMessage());
+        } else if (cause instanceof DeviceUnknownException) {
+            logger.debug("Device unknown exception {}", cause.getMessage());
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.HANDLER_REGISTERING_ERROR,
                     "Check configuration details");
             // In case the name is updated server side - request the scan rate is increased
             requestBridgeFreqScanMetadataIfReq();
-            return EMPTY_STRING;
+        } else {
+            logger.debug("Auth exception {}", cause.getMessage());
         }
+        return EMPTY_STRING;
     }
 
     // Given several changes may be done at the same time, or in close proximity, delay the read-back to catch
     // multiple read-back's, so a single update can handle them.
     public void performReadbackPoll() {
-        final long requestSystemMillis = System.currentTimeMillis();
-        latestReadBackMillis = requestSystemMillis;
-        scheduler.schedule(() -> {
-            // This is a historical poll, ignore it
-            if (requestSystemMillis != latestReadBackMillis) {
-                logger.trace("Poll read-back cancelled, another later one is scheduled to happen");
-                return;
-            }
-            logger.trace("Read-back poll executing");
-            // Read-backs should never use the cached data - but may provide it for poll's that coincide with
-            // the caches alive duration.
-            lastPollResultCache.invalidateValue();
-            pollForUpdate();
-        }, 1L, TimeUnit.SECONDS);
+        pollPolicy.onActivity();
+        readbackPending = true;
+        final VeSyncPollScheduler pollScheduler = getPollScheduler();
+        if (pollScheduler != null) {
+            // Replaces the pending poll, so each further command delays the read-back
+            pollScheduler.schedule(getPollKey(), this::backgroundPoll, READBACK_DELAY_MILLIS);
+        }
     }
 
-    private volatile long latestReadBackMillis = 0;
-
     public void updateBridgeBasedPolls(VeSyncBridgeConfiguration config) {
     }
 
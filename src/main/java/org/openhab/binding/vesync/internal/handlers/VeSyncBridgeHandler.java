@@ -18,6 +18,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -27,14 +31,25 @@ import javax.validation.constraints.NotNull;
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.vesync.internal.VeSyncBridgeConfiguration;
+import org.openhab.binding.vesync.internal.api.VesyncDeviceCatalogDiff;
+import org.openhab.binding.vesync.internal.api.VesyncDeviceCatalogStore;
+import org.openhab.binding.vesync.internal.api.VesyncHttpTransport;
+import org.openhab.binding.vesync.internal.api.VesyncRateGovernor;
+import org.openhab.binding.vesync.internal.api.VesyncRequestMetrics;
+import org.openhab.binding.vesync.internal.api.VesyncResponseDecoder;
+import org.openhab.binding.vesync.internal.api.VesyncSessionStore;
 import org.openhab.binding.vesync.internal.api.VesyncV2ApiHelper;
 import org.openhab.binding.vesync.internal.discovery.DeviceMetaDataUpdatedHandler;
 import org.openhab.binding.vesync.internal.discovery.VeSyncDiscoveryService;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncAuthenticatedRequest;
 import org.openhab.binding.vesync.internal.dto.responses.VesyncLoginResponse;
 import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
 import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.CredentialsRejectedException;
 import org.openhab.binding.vesync.internal.exceptions.DeviceUnknownException;
+import org.openhab.core.config.core.Configuration;
+import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
@@ -45,6 +60,7 @@ import org.openhab.core.thing.binding.BaseBridgeHandler;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerService;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.RefreshType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -60,13 +76,27 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
     private static final int DEFAULT_DEVICE_SCAN_INTERVAL = 600;
     private static final int DEFAULT_DEVICE_SCAN_RECOVERY_INTERVAL = 60;
     private static final int DEFAULT_DEVICE_SCAN_DISABLED = -1;
+    private static final int DEFAULT_STATISTICS_UPDATE_INTERVAL = 60;
+    private static final int DEFAULT_DEVICE_LIST_REFRESH_INTERVAL = 60;
+    private static final int MIN_DEVICE_LIST_REFRESH_INTERVAL = 10;
 
     private final Logger logger = LoggerFactory.getLogger(VeSyncBridgeHandler.class);
 
     private @Nullable ScheduledFuture<?> backgroundDiscoveryPollingJob;
+    private @Nullable ScheduledFuture<?> statisticsUpdateJob;
+    private @Nullable CompletableFuture<?> loginJob;
+    private @Nullable CompletableFuture<?> initialScanJob;
+
+    // Set once disposed, so a login or scan that completes late does not schedule work for a disposed bridge
+    private volatile boolean disposed = false;
 
     protected final @NotNull VesyncV2ApiHelper api;
 
+    private final VeSyncPollScheduler pollScheduler = new VeSyncPollScheduler();
+
+    private volatile VesyncRequestMetrics.@Nullable Snapshot publishedRequestMetrics;
+    private volatile Map<String, VeSyncPollScheduler.Statistics> publishedPollStatistics = Map.of();
+
     public ThingUID getUID() {
         return thing.getUID();
     }
@@ -76,7 +106,16 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
         this.api = api;
     }
 
+    /**
+     * @return - the scheduler of the polls of the bridge's devices.
+     */
+    public VeSyncPollScheduler getPollScheduler() {
+        return pollScheduler;
+    }
+
     private volatile int backgroundScanTime = -1;
+
+    private volatile boolean catalogPublished = false;
     private final Object scanConfigLock = new Object();
 
     protected void checkIfIncreaseScanRateRequired() {
@@ -90,6 +129,11 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
                     break;
                 }
             }
+            // Devices that could not reach the cloud are brought back online by the next scan
+            if (ThingStatusDetail.COMMUNICATION_ERROR.equals(th.getStatusInfo().getStatusDetail())) {
+                frequentScanReq = true;
+                break;
+            }
         }
 
         if (!frequentScanReq
@@ -97,15 +141,36 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
             frequentScanReq = true;
         }
 
+        // While polling from the device list, it is refreshed at least as often as the devices need it
+        final int deviceListRefreshInterval = getDeviceListRefreshInterval(
+                getConfigAs(VeSyncBridgeConfiguration.class));
         if (frequentScanReq) {
-            setBackgroundScanInterval(DEFAULT_DEVICE_SCAN_RECOVERY_INTERVAL);
+            setBackgroundScanInterval(Math.min(DEFAULT_DEVICE_SCAN_RECOVERY_INTERVAL, deviceListRefreshInterval));
         } else {
-            setBackgroundScanInterval(DEFAULT_DEVICE_SCAN_INTERVAL);
+            setBackgroundScanInterval(Math.min(DEFAULT_DEVICE_SCAN_INTERVAL, deviceListRefreshInterval));
+        }
+    }
+
+    /**
+     * @param config - the configuration of the bridge
+     * @return - the seconds between refreshes of the device list the devices need, or Integer.MAX_VALUE if they are
+     *         not polled from the device list.
+     */
+    static int getDeviceListRefreshInterval(final VeSyncBridgeConfiguration config) {
+        if (!Boolean.TRUE.equals(config.piggybackPolling)) {
+            return Integer.MAX_VALUE;
         }
+        final Integer deviceListRefreshInterval = config.deviceListRefreshInterval;
+        return Math.max(MIN_DEVICE_LIST_REFRESH_INTERVAL,
+                deviceListRefreshInterval != null ? deviceListRefreshInterval : DEFAULT_DEVICE_LIST_REFRESH_INTERVAL);
     }
 
     protected void setBackgroundScanInterval(final int seconds) {
         synchronized (scanConfigLock) {
+            if (disposed && seconds > 0) {
+                logger.trace("Background scanning not scheduled as the bridge has been disposed");
+                return;
+            }
             ScheduledFuture<?> job = backgroundDiscoveryPollingJob;
             if (backgroundScanTime != seconds) {
                 if (seconds > 0) {
@@ -143,17 +208,65 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
             runDeviceScanSequence();
             updateStatus(ThingStatus.ONLINE);
         } catch (AuthenticationException ae) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Check login credentials");
+            updateStatusForFailure(ae);
         }
     }
 
+    /**
+     * Report a failure to communicate with the cloud, distinguishing an unavailable cloud from invalid credentials.
+     * Only a login the API rejected requires the configuration to be corrected, any other failure - in transport, a
+     * timeout, an HTTP error, an exhausted request budget or an open circuit - is retried by the recovery scans.
+     */
+    private void updateStatusForFailure(final Throwable failure) {
+        if (disposed) {
+            logger.trace("Failure after the bridge was disposed: {}", failure.getMessage());
+            return;
+        }
+        for (@Nullable Throwable reason = failure; reason != null; reason = reason.getCause()) {
+            if (reason instanceof CredentialsRejectedException) {
+                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Check login credentials");
+                return;
+            }
+        }
+        final Throwable cause = (failure instanceof CompletionException && failure.getCause() != null)
+                ? failure.getCause()
+                : failure;
+        updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, cause.getMessage());
+        setBackgroundScanInterval(DEFAULT_DEVICE_SCAN_RECOVERY_INTERVAL);
+    }
+
     public void runDeviceScanSequence() throws AuthenticationException {
         logger.trace("Scanning for new devices / base information now");
-        api.discoverDevices();
-        handlers.forEach(x -> x.handleMetadataRetrieved(this));
-        checkIfIncreaseScanRateRequired();
+        final VesyncDeviceCatalogDiff changes = api.discoverDevices();
+        if (catalogPublished) {
+            if (!changes.isEmpty()) {
+                handlers.forEach(x -> x.handleMetadataChanged(this, changes));
+            }
+            checkIfIncreaseScanRateRequired();
+            this.updateThings(changes);
+        } else {
+            // Nothing has been published since initialization, so deliver the full catalog
+            handlers.forEach(x -> x.handleMetadataRetrieved(this));
+            checkIfIncreaseScanRateRequired();
+            this.updateThings();
+            catalogPublished = true;
+        }
+        if (Boolean.TRUE.equals(getConfigAs(VeSyncBridgeConfiguration.class).piggybackPolling)) {
+            updateThingsFromDeviceList();
+        }
+    }
 
-        this.updateThings();
+    /**
+     * Update the power state of each online thing from the device list just retrieved, and let every thing know the
+     * device list is recent.
+     */
+    protected void updateThingsFromDeviceList() {
+        getThing().getThings().forEach((th) -> {
+            final ThingHandler handler = th.getHandler();
+            if (handler instanceof VeSyncBaseDeviceHandler) {
+                ((VeSyncBaseDeviceHandler) handler).updateFromDeviceList();
+            }
+        });
     }
 
     public java.util.stream.Stream<VesyncManagedDevicesPage.Result.@NotNull VesyncManagedDeviceBase> getAirPurifiersMetadata() {
@@ -171,6 +284,28 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
         getThing().getThings().forEach((th) -> updateThing(config, th.getHandler()));
     }
 
+    /**
+     * Update the things affected by the changes to the device catalog. Things that are not online are always
+     * updated, so they can recover, and things not yet matched to a device are updated if devices were added or
+     * renamed, as they may now match one.
+     */
+    protected void updateThings(final VesyncDeviceCatalogDiff changes) {
+        final VeSyncBridgeConfiguration config = getConfigAs(VeSyncBridgeConfiguration.class);
+        final Set<String> changedMacIds = changes.getChangedMacIds();
+        final boolean newMatchesPossible = !changes.getAdded().isEmpty() || !changes.getRenamed().isEmpty();
+        getThing().getThings().forEach((th) -> {
+            final ThingHandler handler = th.getHandler();
+            if (handler instanceof VeSyncBaseDeviceHandler) {
+                final VeSyncBaseDeviceHandler deviceHandler = (VeSyncBaseDeviceHandler) handler;
+                if (!ThingStatus.ONLINE.equals(th.getStatus())
+                        || changedMacIds.contains(deviceHandler.getDeviceLookupKey())
+                        || (newMatchesPossible && deviceHandler.requiresMetaDataFrequentUpdates())) {
+                    updateThing(config, handler);
+                }
+            }
+        });
+    }
+
     public void updateThing(ThingHandler handler) {
         final VeSyncBridgeConfiguration config = getConfigAs(VeSyncBridgeConfiguration.class);
         updateThing(config, handler);
@@ -192,32 +327,210 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
     public void initialize() {
         VeSyncBridgeConfiguration config = getConfigAs(VeSyncBridgeConfiguration.class);
 
-        scheduler.submit(() -> {
-            final String passwordMd5 = VesyncV2ApiHelper.calculateMd5(config.password);
+        final String passwordMd5 = VesyncV2ApiHelper.calculateMd5(config.password);
+
+        disposed = false;
+        catalogPublished = false;
+
+        final Integer requestsPerMinute = config.apiRequestsPerMinute;
+        final Integer requestBurst = config.apiRequestBurst;
+        api.configureRateGovernor(
+                requestsPerMinute != null ? requestsPerMinute : VesyncRateGovernor.DEFAULT_REQUESTS_PER_MINUTE,
+                requestBurst != null ? requestBurst : VesyncRateGovernor.DEFAULT_BURST_SIZE);
+        api.configureThrottledCodes(VesyncResponseDecoder.parseCodes(config.apiThrottleCodes));
+
+        final Integer discoveryPageSize = config.discoveryPageSize;
+        final Integer discoveryConcurrency = config.discoveryConcurrency;
+        api.configureDiscovery(
+                discoveryPageSize != null ? discoveryPageSize : VesyncV2ApiHelper.DEFAULT_DISCOVERY_PAGE_SIZE,
+                discoveryConcurrency != null ? discoveryConcurrency : VesyncV2ApiHelper.DEFAULT_DISCOVERY_CONCURRENCY);
+
+        final String bridgeId = getThing().getUID().getAsString();
+        api.setSessionStore(VesyncSessionStore.forBridge(bridgeId));
+        api.setDeviceCatalogStore(VesyncDeviceCatalogStore.forBridge(bridgeId));
+        configureTransport(config);
+        try {
+            api.getTransport().start();
+        } catch (IllegalStateException e) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
+            return;
+        }
 
+        final Integer pollWorkers = config.pollWorkers;
+        final Integer startupPollConcurrency = config.startupPollConcurrency;
+        final Integer maxPollsInFlight = config.maxPollsInFlight;
+        pollScheduler.start(scheduler, pollWorkers != null ? pollWorkers : VeSyncPollScheduler.DEFAULT_WORKERS,
+                startupPollConcurrency != null ? startupPollConcurrency
+                        : VeSyncPollScheduler.DEFAULT_STARTUP_CONCURRENCY,
+                maxPollsInFlight != null ? maxPollsInFlight : VeSyncPollScheduler.DEFAULT_MAX_POLLS_IN_FLIGHT,
+                "vesync-poll-" + getThing().getUID().getId());
+
+        statisticsUpdateJob = scheduler.scheduleWithFixedDelay(this::updateStatistics,
+                DEFAULT_STATISTICS_UPDATE_INTERVAL, DEFAULT_STATISTICS_UPDATE_INTERVAL, TimeUnit.SECONDS);
+
+        final CompletableFuture<Void> login = api.loginAsync(config.username, passwordMd5, "Europe/London");
+        loginJob = login;
+        initialScanJob = login.thenRunAsync(() -> {
+            if (disposed) {
+                return;
+            }
             try {
-                api.login(config.username, passwordMd5, "Europe/London");
                 api.updateBridgeData(this);
                 runDeviceScanSequence();
                 updateStatus(ThingStatus.ONLINE);
             } catch (final AuthenticationException ae) {
-                updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Check login credentials");
-                // setBackgroundScanInterval(DEFAULT_DEVICE_SCAN_DISABLED); -- Let the system keep checking in case the
-                // user updates their password externally to match openhab
+                updateStatusForFailure(ae);
             }
+        }, scheduler).exceptionally(failure -> {
+            updateStatusForFailure(failure);
+            // setBackgroundScanInterval(DEFAULT_DEVICE_SCAN_DISABLED); -- Let the system keep checking in case the
+            // user updates their password externally to match openhab
+            return null;
         });
     }
 
     @Override
     public void dispose() {
+        disposed = true;
+        final CompletableFuture<?> login = loginJob;
+        if (login != null) {
+            login.cancel(true);
+            loginJob = null;
+        }
+        final CompletableFuture<?> initialScan = initialScanJob;
+        if (initialScan != null) {
+            initialScan.cancel(true);
+            initialScanJob = null;
+        }
         setBackgroundScanInterval(DEFAULT_DEVICE_SCAN_DISABLED);
+        final ScheduledFuture<?> job = statisticsUpdateJob;
+        if (job != null) {
+            job.cancel(true);
+            statisticsUpdateJob = null;
+        }
+        pollScheduler.stop();
+        api.dispose();
+        api.getTransport().stop();
+    }
+
+    @Override
+    public void handleConfigurationUpdate(final Map<String, Object> configurationParameters) {
+        final VeSyncBridgeConfiguration current = getConfigAs(VeSyncBridgeConfiguration.class);
+        final VeSyncBridgeConfiguration updated = new Configuration(configurationParameters)
+                .as(VeSyncBridgeConfiguration.class);
+        if (!Objects.equals(current.username, updated.username)
+                || !Objects.equals(current.password, updated.password)) {
+            // The stored session is for the account rather than the credentials, so new credentials are checked by a
+            // login
+            VesyncSessionStore.forBridge(getThing().getUID().getAsString()).delete();
+        }
+        super.handleConfigurationUpdate(configurationParameters);
+    }
+
+    @Override
+    public void handleRemoval() {
+        final String bridgeId = getThing().getUID().getAsString();
+        VesyncSessionStore.forBridge(bridgeId).delete();
+        VesyncDeviceCatalogStore.forBridge(bridgeId).delete();
+        super.handleRemoval();
+    }
+
+    private void configureTransport(final VeSyncBridgeConfiguration config) {
+        final VesyncHttpTransport transport = api.getTransport();
+        transport.configureApiHost(config.apiHost);
+        final Boolean keepAlive = config.httpKeepAlive;
+        final Integer maxConnectionsPerHost = config.httpMaxConnectionsPerHost;
+        final Integer idleTimeout = config.httpIdleTimeout;
+        final Integer connectTimeout = config.httpConnectTimeout;
+        transport.configureConnections(keepAlive != null ? keepAlive : VesyncHttpTransport.DEFAULT_KEEP_ALIVE,
+                maxConnectionsPerHost != null ? maxConnectionsPerHost
+                        : VesyncHttpTransport.DEFAULT_MAX_CONNECTIONS_PER_DESTINATION,
+                idleTimeout != null ? idleTimeout : VesyncHttpTransport.DEFAULT_IDLE_TIMEOUT_SECONDS,
+                connectTimeout != null ? connectTimeout : VesyncHttpTransport.DEFAULT_CONNECT_TIMEOUT_SECONDS);
+
+        final Integer loginTimeout = config.loginRequestTimeout;
+        final Integer deviceListTimeout = config.deviceListRequestTimeout;
+        final Integer deviceTimeout = config.deviceRequestTimeout;
+        transport.configureRequestTimeout(VesyncHttpTransport.Endpoint.LOGIN,
+                loginTimeout != null ? loginTimeout : VesyncHttpTransport.DEFAULT_LOGIN_TIMEOUT_SECONDS);
+        transport.configureRequestTimeout(VesyncHttpTransport.Endpoint.DEVICE_LIST,
+                deviceListTimeout != null ? deviceListTimeout
+                        : VesyncHttpTransport.DEFAULT_DEVICE_LIST_TIMEOUT_SECONDS);
+        transport.configureRequestTimeout(VesyncHttpTransport.Endpoint.DEVICE,
+                deviceTimeout != null ? deviceTimeout : VesyncHttpTransport.DEFAULT_DEVICE_TIMEOUT_SECONDS);
     }
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
+        if (command instanceof RefreshType) {
+            publishStatistics();
+            return;
+        }
         logger.warn("Handling command for VeSync bridge handler.");
     }
 
+    /**
+     * Drain the statistics recorded since the last update, and publish them to the bridge's channels.
+     */
+    protected void updateStatistics() {
+        final VesyncRequestMetrics.Snapshot metrics = api.getRequestMetrics().snapshot();
+        if (logger.isDebugEnabled()) {
+            metrics.getOperations().forEach((operation, stats) -> logger.debug(
+                    "API {} : {} requests, p50 {} ms, p95 {} ms, p99 {} ms, outcomes {}", operation,
+                    stats.getRequests(), stats.getLatencyPercentileMillis(50), stats.getLatencyPercentileMillis(95),
+                    stats.getLatencyPercentileMillis(99), stats.getCounts()));
+        }
+        final Map<String, VeSyncPollScheduler.Statistics> polls = pollScheduler.snapshotStatistics();
+        if (logger.isDebugEnabled()) {
+            polls.forEach((device, stats) -> logger.debug("Polls of {} : {}", device, stats));
+        }
+        publishedRequestMetrics = metrics;
+        publishedPollStatistics = polls;
+        publishStatistics();
+    }
+
+    /**
+     * Publish the API usage statistics to the bridge's channels. The interval statistics are those of the last
+     * update, so publishing them again does not drain the interval being recorded.
+     */
+    private void publishStatistics() {
+        updateState(BRIDGE_CHANNEL_STATUS_REQUESTS_SHARED, new DecimalType(api.getCoalescedStatusRequestCount()));
+        updateState(BRIDGE_CHANNEL_STATUS_REQUESTS_SENT, new DecimalType(api.getSentStatusRequestCount()));
+        updateState(BRIDGE_CHANNEL_API_REQUEST_BUDGET, new DecimalType(api.getRequestBudget()));
+        updateState(BRIDGE_CHANNEL_API_REQUEST_QUEUE_DEPTH, new DecimalType(api.getRequestQueueDepth()));
+
+        final VesyncHttpTransport.PoolStatistics pool = api.getTransport().getPoolStatistics();
+        updateState(BRIDGE_CHANNEL_HTTP_CONNECTIONS_ACTIVE, new DecimalType(pool.getActiveConnections()));
+        updateState(BRIDGE_CHANNEL_HTTP_CONNECTIONS_IDLE, new DecimalType(pool.getIdleConnections()));
+        updateState(BRIDGE_CHANNEL_HTTP_REQUESTS_QUEUED, new DecimalType(pool.getQueuedRequests()));
+
+        final VesyncRequestMetrics.Snapshot metrics = publishedRequestMetrics;
+        if (metrics != null) {
+            updateState(BRIDGE_CHANNEL_API_LATENCY_P50, new DecimalType(metrics.getLatencyPercentileMillis(50)));
+            updateState(BRIDGE_CHANNEL_API_LATENCY_P95, new DecimalType(metrics.getLatencyPercentileMillis(95)));
+            updateState(BRIDGE_CHANNEL_API_LATENCY_P99, new DecimalType(metrics.getLatencyPercentileMillis(99)));
+            updateState(BRIDGE_CHANNEL_API_REQUEST_RATE, new DecimalType(metrics.getRequestsPerMinute()));
+            updateState(BRIDGE_CHANNEL_API_ERROR_RATE, new DecimalType(metrics.getErrorRatePercent()));
+        }
+
+        final Map<String, VeSyncPollScheduler.Statistics> polls = publishedPollStatistics;
+        updateState(BRIDGE_CHANNEL_POLL_MAX_LATE_BY, new DecimalType(polls.values().stream()
+                .mapToLong(VeSyncPollScheduler.Statistics::getMaxLateByMillis).max().orElse(0)));
+
+        long suppressedStateUpdates = 0;
+        for (Thing th : getThing().getThings()) {
+            final ThingHandler handler = th.getHandler();
+            if (handler instanceof VeSyncBaseDeviceHandler) {
+                final VeSyncBaseDeviceHandler deviceHandler = (VeSyncBaseDeviceHandler) handler;
+                final long suppressed = deviceHandler.getSuppressedStateUpdates();
+                logger.trace("State updates suppressed for {} : {}", th.getUID(), suppressed);
+                suppressedStateUpdates += suppressed;
+                deviceHandler.updatePollStatistics(polls.get(deviceHandler.getPollKey()));
+            }
+        }
+        updateState(BRIDGE_CHANNEL_STATE_UPDATES_SUPPRESSED, new DecimalType(suppressedStateUpdates));
+    }
+
     public void handleNewUserSession(final VesyncLoginResponse.@Nullable VesyncUserSession userSessionData) {
         final Map<String, String> newProps = new HashMap<>();
         if (userSessionData != null) {
@@ -232,4 +545,16 @@ public class VeSyncBridgeHandler extends BaseBridgeHandler implements VeSyncClie
             throws AuthenticationException, DeviceUnknownException {
         return api.reqV2Authorized(url, macId, requestData);
     }
+
+    @Override
+    public CompletableFuture<String> reqV2AuthorizedAsync(final String url, final String macId,
+            final VesyncAuthenticatedRequest requestData) {
+        return api.reqV2AuthorizedAsync(url, macId, requestData);
+    }
+
+    @Override
+    public <T extends VesyncResponse> CompletableFuture<T> reqV2AuthorizedStatusAsync(final String url,
+            final String macId, final VesyncAuthenticatedRequest requestData, final Class<T> responseType) {
+        return api.reqV2AuthorizedStatusAsync(url, macId, requestData, responseType);
+    }
 }
@@ -12,8 +12,11 @@
  */
 package org.openhab.binding.vesync.internal.handlers;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncAuthenticatedRequest;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
 import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
 import org.openhab.binding.vesync.internal.exceptions.DeviceUnknownException;
 
@@ -26,4 +29,18 @@ import org.openhab.binding.vesync.internal.exceptions.DeviceUnknownException;
 public interface VeSyncClient {
     String reqV2Authorized(final String url, final String macId, final VesyncAuthenticatedRequest requestData)
             throws AuthenticationException, DeviceUnknownException;
+
+    /**
+     * Asynchronous variant of {@link #reqV2Authorized}, failures are reported by completing the future exceptionally
+     * with an {@link AuthenticationException} or {@link DeviceUnknownException}.
+     */
+    CompletableFuture<String> reqV2AuthorizedAsync(final String url, final String macId,
+            final VesyncAuthenticatedRequest requestData);
+
+    /**
+     * Asynchronous, idempotent status request. Concurrent requests with the same method to the same device share a
+     * single request and its decoded response.
+     */
+    <T extends VesyncResponse> CompletableFuture<T> reqV2AuthorizedStatusAsync(final String url, final String macId,
+            final VesyncAuthenticatedRequest requestData, final Class<T> responseType);
 }
@@ -18,14 +18,15 @@ import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolCon
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.vesync.internal.VeSyncBridgeConfiguration;
-import org.openhab.binding.vesync.internal.VeSyncConstants;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
 import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassHumidifierStatus;
 import org.openhab.core.cache.ExpiringCache;
-import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
@@ -102,20 +103,12 @@ public class VeSyncDeviceAirHumidifierHandler extends VeSyncBaseDeviceHandler {
 
     @Override
     public void updateBridgeBasedPolls(final VeSyncBridgeConfiguration config) {
-        Integer pollRate = config.airPurifierPollInterval;
-        if (pollRate == null) {
-            pollRate = DEFAULT_AIR_PURIFIER_POLL_RATE;
-        }
-        if (ThingStatus.OFFLINE.equals(getThing().getStatus())) {
-            setBackgroundPollInterval(-1);
-        } else {
-            setBackgroundPollInterval(pollRate);
-        }
+        updateBackgroundPolling(config);
     }
 
     @Override
     public void dispose() {
-        this.setBackgroundPollInterval(-1);
+        setBackgroundPollingActive(false);
     }
 
     @Override
@@ -167,11 +160,11 @@ public class VeSyncDeviceAirHumidifierHandler extends VeSyncBaseDeviceHandler {
                             targetHumidity = 80;
                         }
 
+                        final int humidity = targetHumidity;
                         sendV2BypassControlCommand(DEVICE_SET_HUMIDITY_MODE,
-                                new VesyncRequestManagedDeviceBypassV2.SetMode(MODE_AUTO), false);
-
-                        sendV2BypassControlCommand(DEVICE_SET_TARGET_HUMIDITY_MODE,
-                                new VesyncRequestManagedDeviceBypassV2.SetTargetHumidity(targetHumidity));
+                                new VesyncRequestManagedDeviceBypassV2.SetMode(MODE_AUTO), false)
+                                .thenCompose(result -> sendV2BypassControlCommand(DEVICE_SET_TARGET_HUMIDITY_MODE,
+                                        new VesyncRequestManagedDeviceBypassV2.SetTargetHumidity(humidity)));
                         break;
                     case DEVICE_CHANNEL_MIST_LEVEL:
                         int targetMistLevel = ((QuantityType<?>) command).intValue();
@@ -207,12 +200,12 @@ public class VeSyncDeviceAirHumidifierHandler extends VeSyncBaseDeviceHandler {
                             }
                         }
 
+                        final int mistLevel = targetMistLevel;
                         sendV2BypassControlCommand(DEVICE_SET_HUMIDITY_MODE,
-                                new VesyncRequestManagedDeviceBypassV2.SetMode(MODE_MANUAL), false);
-
-                        sendV2BypassControlCommand(DEVICE_SET_VIRTUAL_LEVEL,
-                                new VesyncRequestManagedDeviceBypassV2.SetLevelPayload(0, DEVICE_LEVEL_TYPE_MIST,
-                                        targetMistLevel));
+                                new VesyncRequestManagedDeviceBypassV2.SetMode(MODE_MANUAL), false)
+                                .thenCompose(result -> sendV2BypassControlCommand(DEVICE_SET_VIRTUAL_LEVEL,
+                                        new VesyncRequestManagedDeviceBypassV2.SetLevelPayload(0,
+                                                DEVICE_LEVEL_TYPE_MIST, mistLevel)));
                         break;
                     case DEVICE_CHANNEL_WARM_LEVEL:
                         logger.warn("Warm level API is unknown in order to send the command");
@@ -260,7 +253,7 @@ public class VeSyncDeviceAirHumidifierHandler extends VeSyncBaseDeviceHandler {
                                 new VesyncRequestManagedDeviceBypassV2.SetNightLightBrightness(targetValue));
                 }
             } else if (command instanceof RefreshType) {
-                pollForUpdate();
+                refreshStates();
             } else {
                 logger.trace("UNKNOWN COMMAND: {} {}", command.getClass().toString(), channelUID);
             }
@@ -268,39 +261,38 @@ public class VeSyncDeviceAirHumidifierHandler extends VeSyncBaseDeviceHandler {
     }
 
     @Override
-    protected void pollForDeviceData(final ExpiringCache<String> cachedResponse) {
-        String response;
-        VesyncV2BypassHumidifierStatus humidifierStatus;
-        synchronized (pollLock) {
-            response = cachedResponse.getValue();
-            boolean cachedDataUsed = response != null;
-            if (response == null) {
-                logger.trace("Requesting fresh response");
-                response = sendV2BypassCommand(DEVICE_GET_HUMIDIFIER_STATUS,
-                        new VesyncRequestManagedDeviceBypassV2.EmptyPayload());
-            } else {
-                logger.trace("Using cached response {}", response);
-            }
-
-            if (response.equals(EMPTY_STRING)) {
-                return;
-            }
+    protected CompletableFuture<?> pollForDeviceData(final ExpiringCache<VesyncResponse> cachedResponse,
+            final boolean offlineProbe) {
+        final VesyncResponse response = cachedResponse.getValue();
+        if (response instanceof VesyncV2BypassHumidifierStatus) {
+            logger.trace("Using cached response {}", response);
+            applyCachedPollResult(
+                    () -> applyPollResult((VesyncV2BypassHumidifierStatus) response, cachedResponse, true));
+            return CompletableFuture.completedFuture(null);
+        }
 
-            humidifierStatus = VeSyncConstants.GSON.fromJson(response, VesyncV2BypassHumidifierStatus.class);
+        logger.trace("Requesting fresh response");
+        return requestPollResult(
+                () -> sendV2BypassStatusRequestAsync(DEVICE_GET_HUMIDIFIER_STATUS,
+                        VesyncV2BypassHumidifierStatus.class, offlineProbe),
+                freshResponse -> applyPollResult(freshResponse, cachedResponse, false));
+    }
 
-            if (humidifierStatus == null) {
-                return;
-            }
+    void applyPollResult(final @Nullable VesyncV2BypassHumidifierStatus humidifierStatus,
+            final ExpiringCache<VesyncResponse> cachedResponse, final boolean cachedDataUsed) {
+        if (humidifierStatus == null) {
+            return;
+        }
 
-            if (!cachedDataUsed) {
-                cachedResponse.putValue(response);
-            }
+        if (!cachedDataUsed) {
+            cachedResponse.putValue(humidifierStatus);
         }
 
         // Bail and update the status of the thing - it will be updated to online by the next search
         // that detects it is online.
         if (humidifierStatus.isMsgDeviceOffline()) {
             updateStatus(ThingStatus.OFFLINE);
+            onPollFoundOffline();
             return;
         } else if (humidifierStatus.isMsgSuccess()) {
             updateStatus(ThingStatus.ONLINE);
@@ -320,29 +312,31 @@ public class VeSyncDeviceAirHumidifierHandler extends VeSyncBaseDeviceHandler {
         updateState(DEVICE_CHANNEL_WATER_TANK_LIFTED, OnOffType.from(humidifierStatus.result.result.waterTankLifted));
         updateState(DEVICE_CHANNEL_STOP_AT_TARGET,
                 OnOffType.from(humidifierStatus.result.result.automaticStopReachTarget));
-        updateState(DEVICE_CHANNEL_HUMIDITY, new DecimalType(humidifierStatus.result.result.humidity));
-        updateState(DEVICE_CHANNEL_MIST_LEVEL, new DecimalType(humidifierStatus.result.result.mistLevel));
+        updateState(DEVICE_CHANNEL_HUMIDITY, VeSyncStateCache.number(humidifierStatus.result.result.humidity));
+        updateState(DEVICE_CHANNEL_MIST_LEVEL, VeSyncStateCache.number(humidifierStatus.result.result.mistLevel));
 
-        updateState(DEVICE_CHANNEL_HUMIDIFIER_MODE, new StringType(humidifierStatus.result.result.mode));
+        updateState(DEVICE_CHANNEL_HUMIDIFIER_MODE, VeSyncStateCache.string(humidifierStatus.result.result.mode));
 
         // Only the 300S supports nightlight currently of tested devices.
         if (DEV_TYPE_CLASSIC_300S.equals(deviceType) || DEV_TYPE_CORE_301S.equals(deviceType)) {
             // Map the numeric that only applies to the same modes as the Air Filter 300S series.
             if (humidifierStatus.result.result.nightLightBrightness == 0) {
-                updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT, new StringType(MODE_OFF));
+                updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT, VeSyncStateCache.string(MODE_OFF));
             } else if (humidifierStatus.result.result.nightLightBrightness == 100) {
-                updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT, new StringType(MODE_ON));
+                updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT, VeSyncStateCache.string(MODE_ON));
             } else {
-                updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT, new StringType(MODE_DIM));
+                updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT, VeSyncStateCache.string(MODE_DIM));
             }
         } else if (DEV_TYPE_600S.equals(deviceType) || DEV_TYPE_600S_EU.equals(deviceType)) {
             updateState(DEVICE_CHANNEL_WARM_ENABLED, OnOffType.from(humidifierStatus.result.result.warnEnabled));
-            updateState(DEVICE_CHANNEL_WARM_LEVEL, new DecimalType(humidifierStatus.result.result.warmLevel));
+            updateState(DEVICE_CHANNEL_WARM_LEVEL, VeSyncStateCache.number(humidifierStatus.result.result.warmLevel));
         }
 
         updateState(DEVICE_CHANNEL_CONFIG_TARGET_HUMIDITY,
-                new DecimalType(humidifierStatus.result.result.configuration.autoTargetHumidity));
-    }
+                VeSyncStateCache.number(humidifierStatus.result.result.configuration.autoTargetHumidity));
 
-    private final Object pollLock = new Object();
+        if (!cachedDataUsed) {
+            onPollApplied(humidifierStatus.result.result.enabled);
+        }
+    }
 }
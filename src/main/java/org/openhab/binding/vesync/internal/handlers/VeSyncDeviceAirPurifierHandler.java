@@ -20,20 +20,21 @@ import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongSupplier;
 
 import javax.validation.constraints.NotNull;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.vesync.internal.VeSyncBridgeConfiguration;
-import org.openhab.binding.vesync.internal.VeSyncConstants;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
 import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestV1ManagedDeviceDetails;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
 import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassPurifierStatus;
 import org.openhab.binding.vesync.internal.dto.responses.v1.VesyncV1AirPurifierDeviceDetailsResponse;
 import org.openhab.core.cache.ExpiringCache;
-import org.openhab.core.library.items.DateTimeItem;
 import org.openhab.core.library.types.DateTimeType;
-import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.QuantityType;
 import org.openhab.core.library.types.StringType;
@@ -43,6 +44,8 @@ import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.RefreshType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.UnDefType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -70,14 +73,24 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
     private static final List<String> CORE_200S300S_FAN_MODES = Arrays.asList(MODE_MANUAL, MODE_SLEEP);
     private static final List<String> CORE_200S300S_NIGHT_LIGHT_MODES = Arrays.asList(MODE_ON, MODE_DIM, MODE_OFF);
 
+    // How far the expiry worked out from the remaining time of the timer may move, before it is a new expiry
+    private static final long TIMER_EXPIRY_TOLERANCE_SECONDS = 60;
+
     private final Logger logger = LoggerFactory.getLogger(VeSyncDeviceAirPurifierHandler.class);
 
+    private @Nullable LocalDateTime timerExpiry;
+    private State timerExpiryState = UnDefType.NULL;
+
     public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Set.of(THING_TYPE_AIR_PURIFIER);
 
     public VeSyncDeviceAirPurifierHandler(Thing thing) {
         super(thing);
     }
 
+    VeSyncDeviceAirPurifierHandler(final Thing thing, final LongSupplier nanoClock) {
+        super(thing, nanoClock);
+    }
+
     @Override
     public void initialize() {
         super.initialize();
@@ -109,21 +122,12 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
 
     @Override
     public void updateBridgeBasedPolls(final VeSyncBridgeConfiguration config) {
-        Integer pollRate = config.airPurifierPollInterval;
-        if (pollRate == null) {
-            pollRate = DEFAULT_AIR_PURIFIER_POLL_RATE;
-        }
-
-        if (ThingStatus.OFFLINE.equals(getThing().getStatus())) {
-            setBackgroundPollInterval(-1);
-        } else {
-            setBackgroundPollInterval(pollRate);
-        }
+        updateBackgroundPolling(config);
     }
 
     @Override
     public void dispose() {
-        this.setBackgroundPollInterval(-1);
+        setBackgroundPollingActive(false);
     }
 
     @Override
@@ -216,10 +220,6 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
             } else if (command instanceof QuantityType) {
                 switch (channelUID.getId()) {
                     case DEVICE_CHANNEL_FAN_SPEED_ENABLED:
-                        // If the fan speed is being set enforce manual mode
-                        sendV2BypassControlCommand(DEVICE_SET_PURIFIER_MODE,
-                                new VesyncRequestManagedDeviceBypassV2.SetMode(MODE_MANUAL), false);
-
                         int requestedLevel = ((QuantityType<?>) command).intValue();
                         if (requestedLevel < 1) {
                             logger.warn("Fan speed command less than 0 - adjusting to 0 as the valid API value");
@@ -246,13 +246,17 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
                                 break;
                         }
 
-                        sendV2BypassControlCommand(DEVICE_SET_LEVEL,
-                                new VesyncRequestManagedDeviceBypassV2.SetLevelPayload(0, DEVICE_LEVEL_TYPE_WIND,
-                                        requestedLevel));
+                        // If the fan speed is being set enforce manual mode
+                        final int level = requestedLevel;
+                        sendV2BypassControlCommand(DEVICE_SET_PURIFIER_MODE,
+                                new VesyncRequestManagedDeviceBypassV2.SetMode(MODE_MANUAL), false)
+                                .thenCompose(result -> sendV2BypassControlCommand(DEVICE_SET_LEVEL,
+                                        new VesyncRequestManagedDeviceBypassV2.SetLevelPayload(0,
+                                                DEVICE_LEVEL_TYPE_WIND, level)));
                         break;
                 }
             } else if (command instanceof RefreshType) {
-                pollForUpdate();
+                refreshStates();
             } else {
                 logger.trace("UNKNOWN COMMAND: {} {}", command.getClass().toString(), channelUID);
             }
@@ -260,10 +264,11 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
     }
 
     @Override
-    protected void pollForDeviceData(final ExpiringCache<String> cachedResponse) {
+    protected CompletableFuture<?> pollForDeviceData(final ExpiringCache<VesyncResponse> cachedResponse,
+            final boolean offlineProbe) {
         final String deviceType = getThing().getProperties().get(DEVICE_PROP_DEVICE_TYPE);
         if (deviceType == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         switch (deviceType) {
@@ -272,46 +277,46 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
             case DEV_TYPE_CORE_300S:
             case DEV_TYPE_CORE_201S:
             case DEV_TYPE_CORE_200S:
-                processV2BypassPoll(cachedResponse);
-                break;
+                return processV2BypassPoll(cachedResponse, offlineProbe);
             case DEV_TYPE_LV_PUR131S:
-                processV1AirPurifierPoll(cachedResponse);
-                break;
+                return processV1AirPurifierPoll(cachedResponse, offlineProbe);
+            default:
+                return CompletableFuture.completedFuture(null);
         }
     }
 
-    private void processV1AirPurifierPoll(final ExpiringCache<String> cachedResponse) {
+    private CompletableFuture<?> processV1AirPurifierPoll(final ExpiringCache<VesyncResponse> cachedResponse,
+            final boolean offlineProbe) {
         final String deviceUuid = getThing().getProperties().get(DEVICE_PROP_DEVICE_UUID);
         if (deviceUuid == null) {
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        String response;
-        VesyncV1AirPurifierDeviceDetailsResponse purifierStatus;
-        synchronized (pollLock) {
-            response = cachedResponse.getValue();
-            boolean cachedDataUsed = response != null;
-            if (response == null) {
-                logger.trace("Requesting fresh response");
-                response = sendV1Command("POST", "https://smartapi.vesync.com/131airPurifier/v1/device/deviceDetail",
-                        new VesyncRequestV1ManagedDeviceDetails(deviceUuid));
-            } else {
-                logger.trace("Using cached response {}", response);
-            }
-
-            if (response.equals(EMPTY_STRING)) {
-                return;
-            }
+        final VesyncResponse response = cachedResponse.getValue();
+        if (response instanceof VesyncV1AirPurifierDeviceDetailsResponse) {
+            logger.trace("Using cached response {}", response);
+            applyCachedPollResult(() -> applyV1AirPurifierPollResult(
+                    (VesyncV1AirPurifierDeviceDetailsResponse) response, cachedResponse, true));
+            return CompletableFuture.completedFuture(null);
+        }
 
-            purifierStatus = VeSyncConstants.GSON.fromJson(response, VesyncV1AirPurifierDeviceDetailsResponse.class);
+        logger.trace("Requesting fresh response");
+        return requestPollResult(
+                () -> sendV1StatusRequestAsync(V1_131_DEVICE_DETAILS_ENDPOINT,
+                        new VesyncRequestV1ManagedDeviceDetails(deviceUuid),
+                        VesyncV1AirPurifierDeviceDetailsResponse.class, offlineProbe),
+                freshResponse -> applyV1AirPurifierPollResult(freshResponse, cachedResponse, false));
+    }
 
-            if (purifierStatus == null) {
-                return;
-            }
+    private void applyV1AirPurifierPollResult(
+            final @Nullable VesyncV1AirPurifierDeviceDetailsResponse purifierStatus,
+            final ExpiringCache<VesyncResponse> cachedResponse, final boolean cachedDataUsed) {
+        if (purifierStatus == null) {
+            return;
+        }
 
-            if (!cachedDataUsed) {
-                cachedResponse.putValue(response);
-            }
+        if (!cachedDataUsed) {
+            cachedResponse.putValue(purifierStatus);
         }
 
         // Bail and update the status of the thing - it will be updated to online by the next search
@@ -320,6 +325,7 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
             updateStatus(ThingStatus.ONLINE);
         } else {
             updateStatus(ThingStatus.OFFLINE);
+            onPollFoundOffline();
             return;
         }
 
@@ -330,45 +336,81 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
 
         updateState(DEVICE_CHANNEL_ENABLED, OnOffType.from(MODE_ON.equals(purifierStatus.getDeviceStatus())));
         updateState(DEVICE_CHANNEL_CHILD_LOCK_ENABLED, OnOffType.from(MODE_ON.equals(purifierStatus.getChildLock())));
-        updateState(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType(purifierStatus.getMode()));
-        updateState(DEVICE_CHANNEL_FAN_SPEED_ENABLED, new DecimalType(String.valueOf(purifierStatus.getLevel())));
+        updateState(DEVICE_CHANNEL_FAN_MODE_ENABLED, VeSyncStateCache.string(purifierStatus.getMode()));
+        updateState(DEVICE_CHANNEL_FAN_SPEED_ENABLED, VeSyncStateCache.number(purifierStatus.getLevel()));
         updateState(DEVICE_CHANNEL_DISPLAY_ENABLED, OnOffType.from(MODE_ON.equals(purifierStatus.getScreenStatus())));
-        updateState(DEVICE_CHANNEL_AIRQUALITY_BASIC, new DecimalType(purifierStatus.getAirQuality()));
+        updateState(DEVICE_CHANNEL_AIRQUALITY_BASIC, VeSyncStateCache.number(purifierStatus.getAirQuality()));
+
+        if (!cachedDataUsed) {
+            onPollApplied(MODE_ON.equals(purifierStatus.getDeviceStatus()));
+        }
     }
 
-    private void processV2BypassPoll(final ExpiringCache<String> cachedResponse) {
-        String response;
-        VesyncV2BypassPurifierStatus purifierStatus;
-        synchronized (pollLock) {
-            response = cachedResponse.getValue();
-            boolean cachedDataUsed = response != null;
-            if (response == null) {
-                logger.trace("Requesting fresh response");
-                response = sendV2BypassCommand(DEVICE_GET_PURIFIER_STATUS,
-                        new VesyncRequestManagedDeviceBypassV2.EmptyPayload());
-            } else {
-                logger.trace("Using cached response {}", response);
+    private void updateTimerExpiry(final int timerRemain) {
+        if (timerRemain > 0) {
+            final LocalDateTime expiry = stableTimerExpiry(timerExpiry, LocalDateTime.now(), timerRemain);
+            if (!expiry.equals(timerExpiry)) {
+                timerExpiry = expiry;
+                timerExpiryState = new DateTimeType(expiry.toString());
             }
+        } else {
+            timerExpiry = null;
+            timerExpiryState = UnDefType.NULL;
+        }
+        updateState(DEVICE_CHANNEL_AF_AUTO_OFF_CALC_TIME, timerExpiryState);
+    }
 
-            if (response.equals(EMPTY_STRING)) {
-                return;
-            }
+    /**
+     * Work out when the timer of the device expires, from the seconds it has remaining. The expiry worked out on each
+     * poll moves with the latency of the request, so the previous expiry is kept while the new one is close to it.
+     *
+     * @param previous - the expiry last worked out, if any
+     * @param now - the current time
+     * @param remainingSeconds - the seconds the timer has remaining
+     * @return - the expiry of the timer
+     */
+    static LocalDateTime stableTimerExpiry(final @Nullable LocalDateTime previous, final LocalDateTime now,
+            final long remainingSeconds) {
+        final LocalDateTime expiry = now.plus(remainingSeconds, ChronoUnit.SECONDS).truncatedTo(ChronoUnit.SECONDS);
+        if (previous != null
+                && Math.abs(ChronoUnit.SECONDS.between(previous, expiry)) <= TIMER_EXPIRY_TOLERANCE_SECONDS) {
+            return previous;
+        }
+        return expiry;
+    }
 
-            purifierStatus = VeSyncConstants.GSON.fromJson(response, VesyncV2BypassPurifierStatus.class);
+    private CompletableFuture<?> processV2BypassPoll(final ExpiringCache<VesyncResponse> cachedResponse,
+            final boolean offlineProbe) {
+        final VesyncResponse response = cachedResponse.getValue();
+        if (response instanceof VesyncV2BypassPurifierStatus) {
+            logger.trace("Using cached response {}", response);
+            applyCachedPollResult(
+                    () -> applyV2BypassPollResult((VesyncV2BypassPurifierStatus) response, cachedResponse, true));
+            return CompletableFuture.completedFuture(null);
+        }
 
-            if (purifierStatus == null) {
-                return;
-            }
+        logger.trace("Requesting fresh response");
+        return requestPollResult(
+                () -> sendV2BypassStatusRequestAsync(DEVICE_GET_PURIFIER_STATUS, VesyncV2BypassPurifierStatus.class,
+                        offlineProbe),
+                freshResponse -> applyV2BypassPollResult(freshResponse, cachedResponse, false));
+    }
 
-            if (!cachedDataUsed) {
-                cachedResponse.putValue(response);
-            }
+    void applyV2BypassPollResult(final @Nullable VesyncV2BypassPurifierStatus purifierStatus,
+            final ExpiringCache<VesyncResponse> cachedResponse, final boolean cachedDataUsed) {
+        if (purifierStatus == null) {
+            return;
+        }
+
+        if (!cachedDataUsed) {
+            cachedResponse.putValue(purifierStatus);
         }
 
         // Bail and update the status of the thing - it will be updated to online by the next search
         // that detects it is online.
         if (purifierStatus.isMsgDeviceOffline()) {
             updateStatus(ThingStatus.OFFLINE);
+            onPollFoundOffline();
             return;
         } else if (purifierStatus.isMsgSuccess()) {
             updateStatus(ThingStatus.ONLINE);
@@ -383,39 +425,41 @@ public class VeSyncDeviceAirPurifierHandler extends VeSyncBaseDeviceHandler {
         updateState(DEVICE_CHANNEL_CHILD_LOCK_ENABLED, OnOffType.from(purifierStatus.result.result.childLock));
         updateState(DEVICE_CHANNEL_DISPLAY_ENABLED, OnOffType.from(purifierStatus.result.result.display));
         updateState(DEVICE_CHANNEL_AIR_FILTER_LIFE_PERCENTAGE_REMAINING,
-                new DecimalType(purifierStatus.result.result.filterLife));
-        updateState(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType(purifierStatus.result.result.mode));
-        updateState(DEVICE_CHANNEL_FAN_SPEED_ENABLED, new DecimalType(purifierStatus.result.result.level));
-        updateState(DEVICE_CHANNEL_ERROR_CODE, new DecimalType(purifierStatus.result.result.deviceErrorCode));
-        updateState(DEVICE_CHANNEL_AIRQUALITY_BASIC, new DecimalType(purifierStatus.result.result.airQuality));
-        updateState(DEVICE_CHANNEL_AIRQUALITY_PPM25, new DecimalType(purifierStatus.result.result.airQualityValue));
+                VeSyncStateCache.number(purifierStatus.result.result.filterLife));
+        updateState(DEVICE_CHANNEL_FAN_MODE_ENABLED, VeSyncStateCache.string(purifierStatus.result.result.mode));
+        updateState(DEVICE_CHANNEL_FAN_SPEED_ENABLED, VeSyncStateCache.number(purifierStatus.result.result.level));
+        updateState(DEVICE_CHANNEL_ERROR_CODE, VeSyncStateCache.number(purifierStatus.result.result.deviceErrorCode));
+        updateState(DEVICE_CHANNEL_AIRQUALITY_BASIC, VeSyncStateCache.number(purifierStatus.result.result.airQuality));
+        updateState(DEVICE_CHANNEL_AIRQUALITY_PPM25,
+                VeSyncStateCache.number(purifierStatus.result.result.airQualityValue));
 
         updateState(DEVICE_CHANNEL_AF_CONFIG_DISPLAY_FOREVER,
                 OnOffType.from(purifierStatus.result.result.configuration.displayForever));
 
         updateState(DEVICE_CHANNEL_AF_CONFIG_AUTO_MODE_PREF,
-                new StringType(purifierStatus.result.result.configuration.autoPreference.autoType));
+                VeSyncStateCache.string(purifierStatus.result.result.configuration.autoPreference.autoType));
 
         updateState(DEVICE_CHANNEL_AF_CONFIG_AUTO_ROOM_SIZE,
-                new DecimalType(purifierStatus.result.result.configuration.autoPreference.roomSize));
+                VeSyncStateCache.number(purifierStatus.result.result.configuration.autoPreference.roomSize));
 
         // Only 400S appears to have this JSON extension object
         if (purifierStatus.result.result.extension != null) {
-            if (purifierStatus.result.result.extension.timerRemain > 0) {
-                updateState(DEVICE_CHANNEL_AF_AUTO_OFF_CALC_TIME, new DateTimeType(LocalDateTime.now()
-                        .plus(purifierStatus.result.result.extension.timerRemain, ChronoUnit.SECONDS).toString()));
-            } else {
-                updateState(DEVICE_CHANNEL_AF_AUTO_OFF_CALC_TIME, new DateTimeItem("nullEnforcements").getState());
+            // Only work the expiry out if it is linked
+            if (isChannelLinked(DEVICE_CHANNEL_AF_AUTO_OFF_CALC_TIME)) {
+                updateTimerExpiry(purifierStatus.result.result.extension.timerRemain);
             }
             updateState(DEVICE_CHANNEL_AF_SCHEDULES_COUNT,
-                    new DecimalType(purifierStatus.result.result.extension.scheduleCount));
+                    VeSyncStateCache.number(purifierStatus.result.result.extension.scheduleCount));
         }
 
         // Not applicable to 400S payload's
         if (purifierStatus.result.result.nightLight != null) {
-            updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT, new DecimalType(purifierStatus.result.result.nightLight));
+            updateState(DEVICE_CHANNEL_AF_NIGHT_LIGHT,
+                    VeSyncStateCache.string(purifierStatus.result.result.nightLight));
         }
-    }
 
-    private final Object pollLock = new Object();
+        if (!cachedDataUsed) {
+            onPollApplied(purifierStatus.result.result.enabled);
+        }
+    }
 }
@@ -0,0 +1,645 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link VeSyncPollScheduler} owns the time each device of a bridge is next due to be polled, so the bridge runs
+ * a single timer for all of its devices rather than each handler scheduling its own jobs.
+ *
+ * The due times are kept in a hashed timer wheel: the wheel advances a slot each tick, and the devices in the slot
+ * that are due are dispatched to a bounded number of workers on a pool of openHAB's ThreadPoolManager. Each device has
+ * at most one due time, so rescheduling a device replaces its pending poll.
+ *
+ * Regular polls are placed at a phase of their interval derived from the device, so the polls of a fleet spread out
+ * across the interval rather than following each other in bursts. The first poll of each device is admitted only
+ * while fewer than the ramp-up limit of first polls are in progress, so starting a bridge with many devices does not
+ * send all of their polls at once.
+ *
+ * The polls complete asynchronously, so the workers only bound the threads that start them. The number of polls in
+ * flight is bounded separately, counting each poll until its future completes, and polls beyond the bound wait for
+ * one in flight to complete.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncPollScheduler {
+
+    public static final int DEFAULT_WORKERS = 4;
+    public static final int DEFAULT_STARTUP_CONCURRENCY = 8;
+    public static final int DEFAULT_MAX_POLLS_IN_FLIGHT = 16;
+
+    static final long DEFAULT_TICK_MILLIS = 250;
+    private static final int WHEEL_SIZE = 512;
+    private static final long NOT_SCHEDULED = -1;
+
+    private final Logger logger = LoggerFactory.getLogger(VeSyncPollScheduler.class);
+
+    private final LongSupplier nanoClock;
+    private final long tickNanos;
+    private final long startNanos;
+    private final Slot[] wheel = new Slot[WHEEL_SIZE];
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    // The first polls waiting for one in progress to complete
+    private final Queue<Dispatch> rampUpQueue = new ArrayDeque<>();
+    private int firstPollsInProgress = 0;
+    private int startupConcurrency = DEFAULT_STARTUP_CONCURRENCY;
+
+    // The polls waiting for one in flight to complete
+    private final Queue<Dispatch> inFlightQueue = new ArrayDeque<>();
+    private int pollsInFlight = 0;
+    private int maxPollsInFlight = DEFAULT_MAX_POLLS_IN_FLIGHT;
+
+    // The last tick the wheel was advanced to
+    private long currentTick = 0;
+
+    private @Nullable ScheduledFuture<?> tickJob;
+
+    // The pool the workers run on, or null to start the polls on the thread advancing the wheel while not started.
+    // The polls dispatched while all the workers are busy wait in the queue, and each start of the scheduler is a new
+    // generation, so workers of an earlier one stop taking polls.
+    private @Nullable Executor workerPool;
+    private int workerThreads = 1;
+    private int workersBusy = 0;
+    private long workerGeneration = 0;
+    private final Queue<Dispatch> workQueue = new ArrayDeque<>();
+
+    public VeSyncPollScheduler() {
+        this(System::nanoTime, DEFAULT_TICK_MILLIS);
+    }
+
+    VeSyncPollScheduler(final LongSupplier nanoClock, final long tickMillis) {
+        this(nanoClock, tickMillis, DEFAULT_STARTUP_CONCURRENCY);
+    }
+
+    VeSyncPollScheduler(final LongSupplier nanoClock, final long tickMillis, final int startupConcurrency) {
+        this(nanoClock, tickMillis, startupConcurrency, DEFAULT_MAX_POLLS_IN_FLIGHT);
+    }
+
+    VeSyncPollScheduler(final LongSupplier nanoClock, final long tickMillis, final int startupConcurrency,
+            final int maxPollsInFlight) {
+        this.nanoClock = nanoClock;
+        this.startupConcurrency = startupConcurrency;
+        this.maxPollsInFlight = maxPollsInFlight;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.startNanos = nanoClock.getAsLong();
+        for (int i = 0; i < WHEEL_SIZE; ++i) {
+            wheel[i] = new Slot();
+        }
+    }
+
+    /**
+     * Start dispatching the polls that are due.
+     *
+     * @param ticker - the scheduler to advance the wheel with
+     * @param workerThreads - the number of threads polls are dispatched to
+     * @param startupConcurrency - the number of first polls of devices that may be in progress at the same time
+     * @param maxPollsInFlight - the number of polls that may be in progress at the same time
+     * @param name - the name of the worker threads
+     */
+    public void start(final ScheduledExecutorService ticker, final int workerThreads, final int startupConcurrency,
+            final int maxPollsInFlight, final String name) {
+        start(ticker, ThreadPoolManager.getPool(name), workerThreads, startupConcurrency, maxPollsInFlight);
+    }
+
+    /**
+     * Start dispatching the polls that are due, to workers run on the given pool.
+     */
+    synchronized void start(final ScheduledExecutorService ticker, final Executor pool, final int workerThreads,
+            final int startupConcurrency, final int maxPollsInFlight) {
+        stop();
+        this.startupConcurrency = Math.max(1, startupConcurrency);
+        this.maxPollsInFlight = Math.max(1, maxPollsInFlight);
+        this.workerThreads = Math.max(1, workerThreads);
+        workerPool = pool;
+        final long tickMillis = TimeUnit.NANOSECONDS.toMillis(tickNanos);
+        tickJob = ticker.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop dispatching polls. The due times are kept, as are the polls dispatched but not yet started, so they are
+     * dispatched once the scheduler is started again.
+     */
+    public synchronized void stop() {
+        final ScheduledFuture<?> job = tickJob;
+        if (job != null) {
+            job.cancel(false);
+            tickJob = null;
+        }
+        workerPool = null;
+        ++workerGeneration;
+        workersBusy = 0;
+        // Polls dispatched but not yet started by a worker are due as soon as the scheduler is started again
+        final long now = nanoClock.getAsLong();
+        Dispatch waiting;
+        while ((waiting = workQueue.poll()) != null) {
+            requeue(waiting.entry, now);
+        }
+        // As are the first polls that were waiting
+        while ((waiting = rampUpQueue.poll()) != null) {
+            requeue(waiting.entry, now);
+        }
+        firstPollsInProgress = 0;
+        // And the polls that were waiting for one in flight
+        while ((waiting = inFlightQueue.poll()) != null) {
+            requeue(waiting.entry, now);
+        }
+        pollsInFlight = 0;
+    }
+
+    private void requeue(final Entry entry, final long dueNanos) {
+        entry.awaitingFirstPoll = false;
+        // Unless the device has been rescheduled since
+        if (entry.dueNanos == NOT_SCHEDULED) {
+            insert(entry, dueNanos);
+        }
+    }
+
+    /**
+     * Set when the device is next polled, replacing any pending poll of the device.
+     *
+     * @param key - the key of the device
+     * @param poll - the poll to run when it is due
+     * @param delayMillis - the milliseconds from now the poll is due
+     */
+    public synchronized void schedule(final String key, final Supplier<CompletableFuture<?>> poll,
+            final long delayMillis) {
+        final Entry entry = entries.computeIfAbsent(key, Entry::new);
+        entry.poll = poll;
+        insert(entry, nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+    }
+
+    /**
+     * Poll the device within the given delay, bringing forward its pending poll if that is due later.
+     *
+     * @param key - the key of the device
+     * @param poll - the poll to run when it is due
+     * @param delayMillis - the most milliseconds from now the poll should be due
+     */
+    public synchronized void scheduleNoLaterThan(final String key, final Supplier<CompletableFuture<?>> poll,
+            final long delayMillis) {
+        final Entry entry = entries.computeIfAbsent(key, Entry::new);
+        final long dueNanos = nanoClock.getAsLong() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        if (entry.dueNanos == NOT_SCHEDULED || dueNanos - entry.dueNanos < 0) {
+            entry.poll = poll;
+            insert(entry, dueNanos);
+        }
+    }
+
+    /**
+     * Set when the device is next polled to a phase of the interval, replacing any pending poll of the device. The
+     * poll is due at the point of the given phase that is nearest to the interval from now, but at least half the
+     * interval from now.
+     *
+     * @param key - the key of the device
+     * @param poll - the poll to run when it is due
+     * @param intervalMillis - the interval between the polls of the device
+     * @param phase - the phase of the device's polls within the interval, from {@link #phaseOf(String)}
+     * @param jitterMillis - the most milliseconds the poll is moved by at random, or 0 to keep to the phase
+     */
+    public synchronized void schedulePhased(final String key, final Supplier<CompletableFuture<?>> poll,
+            final long intervalMillis, final double phase, final long jitterMillis) {
+        final Entry entry = entries.computeIfAbsent(key, Entry::new);
+        entry.poll = poll;
+        final long now = nanoClock.getAsLong();
+        long dueNanos = startNanos
+                + phasedDueNanos(now - startNanos, TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMillis)), phase);
+        if (jitterMillis > 0) {
+            final long jitterNanos = TimeUnit.MILLISECONDS.toNanos(jitterMillis);
+            dueNanos += ThreadLocalRandom.current().nextLong(-jitterNanos, jitterNanos + 1);
+        }
+        insert(entry, dueNanos - now < 0 ? now : dueNanos);
+    }
+
+    /**
+     * @param elapsedNanos - the time since the scheduler was created
+     * @param intervalNanos - the interval between the polls of the device
+     * @param phase - the phase of the device's polls within the interval
+     * @return - the time since the scheduler was created the next poll of the device is due
+     */
+    static long phasedDueNanos(final long elapsedNanos, final long intervalNanos, final double phase) {
+        final long offsetNanos = (long) (intervalNanos * Math.max(0, Math.min(1, phase)));
+        final long period = Math.round((double) (elapsedNanos + intervalNanos - offsetNanos) / intervalNanos);
+        long dueNanos = period * intervalNanos + offsetNanos;
+        if (dueNanos - elapsedNanos < intervalNanos / 2) {
+            dueNanos += intervalNanos;
+        }
+        return dueNanos;
+    }
+
+    /**
+     * Derive the phase of a device's polls from its key, e.g. its mac id, so each device keeps the same phase and
+     * the phases of a fleet are spread evenly.
+     *
+     * @param key - the key of the device
+     * @return - the phase, from 0 up to 1
+     */
+    public static double phaseOf(final String key) {
+        // 64 bit FNV-1a, finished with the MurmurHash3 mix so the mac ids of a fleet, which differ only in their last
+        // bytes, still spread across the high bits
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Stop polling the device, and forget its statistics.
+     *
+     * @param key - the key of the device
+     */
+    public synchronized void cancel(final String key) {
+        final Entry entry = entries.remove(key);
+        if (entry != null) {
+            unlink(entry);
+            if (entry.awaitingFirstPoll) {
+                rampUpQueue.removeIf(dispatch -> dispatch.entry == entry);
+            }
+            if (inFlightQueue.removeIf(dispatch -> dispatch.entry == entry) && entry.awaitingFirstPoll) {
+                // The first poll was admitted, so no longer counts as in progress
+                firstPollsInProgress = Math.max(0, firstPollsInProgress - 1);
+            }
+        }
+    }
+
+    /**
+     * @return - true if a poll of the device is pending.
+     */
+    public synchronized boolean isScheduled(final String key) {
+        final Entry entry = entries.get(key);
+        return entry != null && entry.dueNanos != NOT_SCHEDULED;
+    }
+
+    private void insert(final Entry entry, final long dueNanos) {
+        insert(entry, dueNanos, currentTick + 1);
+    }
+
+    private void insert(final Entry entry, final long dueNanos, final long earliestTick) {
+        unlink(entry);
+        // Round up, so a poll is never dispatched before it is due, and never into a slot already passed
+        final long dueTick = Math.max(earliestTick, (dueNanos - startNanos + tickNanos - 1) / tickNanos);
+        entry.dueNanos = dueNanos;
+        entry.dueTick = dueTick;
+        final Slot slot = wheel[(int) (dueTick % WHEEL_SIZE)];
+        entry.slot = slot;
+        entry.previous = slot.tail;
+        entry.next = null;
+        final Entry tail = slot.tail;
+        if (tail == null) {
+            slot.head = entry;
+        } else {
+            tail.next = entry;
+        }
+        slot.tail = entry;
+    }
+
+    private void unlink(final Entry entry) {
+        final Slot slot = entry.slot;
+        if (slot == null) {
+            return;
+        }
+        final Entry previous = entry.previous;
+        final Entry next = entry.next;
+        if (previous == null) {
+            slot.head = next;
+        } else {
+            previous.next = next;
+        }
+        if (next == null) {
+            slot.tail = previous;
+        } else {
+            next.previous = previous;
+        }
+        entry.slot = null;
+        entry.previous = null;
+        entry.next = null;
+        entry.dueNanos = NOT_SCHEDULED;
+    }
+
+    /**
+     * Advance the wheel to the current time, dispatching the polls that have become due.
+     */
+    void advance() {
+        final List<Dispatch> due = new ArrayList<>();
+        synchronized (this) {
+            final long nowTick = (nanoClock.getAsLong() - startNanos) / tickNanos;
+            // Catch up on ticks missed by a late timer, but never go around the wheel more than once
+            long tick = Math.max(currentTick + 1, nowTick - WHEEL_SIZE + 1);
+            for (; tick <= nowTick; ++tick) {
+                Entry entry = wheel[(int) (tick % WHEEL_SIZE)].head;
+                while (entry != null) {
+                    final Entry next = entry.next;
+                    // Entries a whole turn or more away share the slot, and stay in it
+                    if (entry.dueTick <= nowTick) {
+                        final Dispatch dispatch = new Dispatch(entry, entry.poll, entry.dueNanos);
+                        unlink(entry);
+                        admit(dispatch, nowTick, due);
+                    }
+                    entry = next;
+                }
+            }
+            currentTick = Math.max(currentTick, nowTick);
+        }
+        execute(due);
+    }
+
+    private void execute(final List<Dispatch> due) {
+        for (Dispatch dispatch : due) {
+            final Executor pool;
+            final long generation;
+            synchronized (this) {
+                pool = workerPool;
+                generation = workerGeneration;
+                if (pool != null) {
+                    if (workersBusy >= workerThreads) {
+                        workQueue.add(dispatch);
+                        continue;
+                    }
+                    ++workersBusy;
+                }
+            }
+            if (pool == null) {
+                dispatch.run();
+                continue;
+            }
+            try {
+                pool.execute(() -> work(dispatch, generation));
+            } catch (RejectedExecutionException e) {
+                logger.debug("Poll not dispatched: {}", e.getMessage());
+                synchronized (this) {
+                    if (generation == workerGeneration) {
+                        --workersBusy;
+                    }
+                    requeue(dispatch.entry, nanoClock.getAsLong());
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the given poll, then the polls waiting for a worker, until there are none or the scheduler is stopped.
+     */
+    private void work(final Dispatch first, final long generation) {
+        @Nullable Dispatch dispatch = first;
+        while (dispatch != null) {
+            synchronized (this) {
+                if (generation != workerGeneration) {
+                    // Stopped before the poll was started, so it is due once the scheduler is started again
+                    requeue(dispatch.entry, nanoClock.getAsLong());
+                    return;
+                }
+            }
+            dispatch.run();
+            synchronized (this) {
+                if (generation != workerGeneration) {
+                    return;
+                }
+                dispatch = workQueue.poll();
+                if (dispatch == null) {
+                    --workersBusy;
+                }
+            }
+        }
+    }
+
+    private void admit(final Dispatch dispatch, final long nowTick, final List<Dispatch> due) {
+        final Entry entry = dispatch.entry;
+        if (entry.firstPollCompleted) {
+            dispatchOrQueue(dispatch, due);
+        } else if (entry.awaitingFirstPoll) {
+            // The first poll is waiting, or in progress, so try again in the next slot once it may have completed
+            insert(entry, dispatch.dueNanos, nowTick + 1);
+        } else {
+            entry.awaitingFirstPoll = true;
+            if (firstPollsInProgress < startupConcurrency) {
+                ++firstPollsInProgress;
+                dispatchOrQueue(dispatch, due);
+            } else {
+                rampUpQueue.add(dispatch);
+            }
+        }
+    }
+
+    private void dispatchOrQueue(final Dispatch dispatch, final List<Dispatch> due) {
+        if (pollsInFlight < maxPollsInFlight) {
+            ++pollsInFlight;
+            due.add(dispatch);
+        } else {
+            inFlightQueue.add(dispatch);
+        }
+    }
+
+    private void pollCompleted(final Entry entry, final boolean firstPoll) {
+        final List<Dispatch> due = new ArrayList<>();
+        synchronized (this) {
+            pollsInFlight = Math.max(0, pollsInFlight - 1);
+            Dispatch waiting;
+            while (pollsInFlight < maxPollsInFlight && (waiting = inFlightQueue.poll()) != null) {
+                ++pollsInFlight;
+                due.add(waiting);
+            }
+            if (firstPoll) {
+                entry.firstPollCompleted = true;
+                entry.awaitingFirstPoll = false;
+                firstPollsInProgress = Math.max(0, firstPollsInProgress - 1);
+                final Dispatch next = rampUpQueue.poll();
+                if (next != null) {
+                    ++firstPollsInProgress;
+                    dispatchOrQueue(next, due);
+                }
+            }
+        }
+        execute(due);
+    }
+
+    /**
+     * @return - the number of polls in flight, i.e. started and not yet completed.
+     */
+    public synchronized int getPollsInFlight() {
+        return pollsInFlight;
+    }
+
+    /**
+     * @return - the number of polls waiting for one in flight to complete.
+     */
+    public synchronized int getInFlightQueueLength() {
+        return inFlightQueue.size();
+    }
+
+    /**
+     * @return - the number of first polls of devices waiting for others to complete.
+     */
+    public synchronized int getRampUpQueueLength() {
+        return rampUpQueue.size();
+    }
+
+    /**
+     * Take the poll statistics of each device, resetting their maximum lateness.
+     *
+     * @return - the statistics of each device by its key
+     */
+    public synchronized Map<String, Statistics> snapshotStatistics() {
+        final long now = nanoClock.getAsLong();
+        final Map<String, Statistics> statistics = new TreeMap<>();
+        entries.forEach((key, entry) -> {
+            statistics.put(key,
+                    new Statistics(
+                            entry.dueNanos == NOT_SCHEDULED ? NOT_SCHEDULED
+                                    : Math.max(0, TimeUnit.NANOSECONDS.toMillis(entry.dueNanos - now)),
+                            entry.lateByMillis, entry.maxLateByMillis, entry.polls));
+            entry.maxLateByMillis = 0;
+        });
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private synchronized void started(final Entry entry, final long dueNanos) {
+        final long lateByMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - dueNanos));
+        entry.lateByMillis = lateByMillis;
+        entry.maxLateByMillis = Math.max(entry.maxLateByMillis, lateByMillis);
+        ++entry.polls;
+    }
+
+    /**
+     * The poll statistics of a device.
+     */
+    public static final class Statistics {
+        private final long nextPollInMillis;
+        private final long lateByMillis;
+        private final long maxLateByMillis;
+        private final long polls;
+
+        private Statistics(final long nextPollInMillis, final long lateByMillis, final long maxLateByMillis,
+                final long polls) {
+            this.nextPollInMillis = nextPollInMillis;
+            this.lateByMillis = lateByMillis;
+            this.maxLateByMillis = maxLateByMillis;
+            this.polls = polls;
+        }
+
+        /**
+         * @return - the milliseconds until the next poll of the device is due, or -1 if none is pending.
+         */
+        public long getNextPollInMillis() {
+            return nextPollInMillis;
+        }
+
+        /**
+         * @return - the milliseconds the last poll of the device started after it was due.
+         */
+        public long getLateByMillis() {
+            return lateByMillis;
+        }
+
+        /**
+         * @return - the most milliseconds a poll of the device started after it was due, since the last snapshot.
+         */
+        public long getMaxLateByMillis() {
+            return maxLateByMillis;
+        }
+
+        /**
+         * @return - the number of polls of the device that have been started.
+         */
+        public long getPolls() {
+            return polls;
+        }
+
+        @Override
+        public String toString() {
+            return "next poll in " + nextPollInMillis + " ms, late by " + lateByMillis + " ms (max "
+                    + maxLateByMillis + " ms), " + polls + " polls";
+        }
+    }
+
+    private static final class Slot {
+        private @Nullable Entry head;
+        private @Nullable Entry tail;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private Supplier<CompletableFuture<?>> poll = () -> CompletableFuture.completedFuture(null);
+        private long dueNanos = NOT_SCHEDULED;
+        private long dueTick;
+        private @Nullable Slot slot;
+        private @Nullable Entry previous;
+        private @Nullable Entry next;
+
+        private long lateByMillis;
+        private long maxLateByMillis;
+        private long polls;
+
+        private boolean firstPollCompleted = false;
+        private boolean awaitingFirstPoll = false;
+
+        private Entry(final String key) {
+            this.key = key;
+        }
+    }
+
+    private final class Dispatch implements Runnable {
+        private final Entry entry;
+        private final Supplier<CompletableFuture<?>> poll;
+        private final long dueNanos;
+
+        private Dispatch(final Entry entry, final Supplier<CompletableFuture<?>> poll, final long dueNanos) {
+            this.entry = entry;
+            this.poll = poll;
+            this.dueNanos = dueNanos;
+        }
+
+        @Override
+        public void run() {
+            started(entry, dueNanos);
+            final boolean firstPoll = !entry.firstPollCompleted;
+            try {
+                poll.get().whenComplete((result, failure) -> pollCompleted(entry, firstPoll));
+            } catch (RuntimeException e) {
+                logger.warn("Poll of device {} failed: {}", entry.key, e.getMessage());
+                pollCompleted(entry, firstPoll);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.StringType;
+
+/**
+ * The {@link VeSyncStateCache} shares the immutable states the device handlers publish, so publishing the result of a
+ * poll does not allocate a state for each channel.
+ *
+ * The numbers the devices report are small bounded values - levels, percentages, air quality and counts - so are
+ * cached up to MAX_CACHED_NUMBER. The strings are the modes of the devices, of which there are few, so are cached
+ * until MAX_CACHED_STRINGS different strings have been seen.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public final class VeSyncStateCache {
+
+    public static final int MAX_CACHED_NUMBER = 1000;
+    public static final int MAX_CACHED_STRINGS = 64;
+
+    private static final DecimalType[] NUMBERS = new DecimalType[MAX_CACHED_NUMBER + 1];
+
+    static {
+        for (int value = 0; value <= MAX_CACHED_NUMBER; ++value) {
+            NUMBERS[value] = new DecimalType(value);
+        }
+    }
+
+    private static final Map<String, StringType> STRINGS = new ConcurrentHashMap<>();
+
+    private VeSyncStateCache() {
+    }
+
+    /**
+     * @param value - the number
+     * @return - the state of the number, shared if the number is between 0 and MAX_CACHED_NUMBER.
+     */
+    public static DecimalType number(final int value) {
+        if (value >= 0 && value <= MAX_CACHED_NUMBER) {
+            return NUMBERS[value];
+        }
+        return new DecimalType(value);
+    }
+
+    /**
+     * @param value - the string, if any
+     * @return - the state of the string, shared once the string has been seen.
+     */
+    public static StringType string(final @Nullable String value) {
+        if (value == null) {
+            return StringType.EMPTY;
+        }
+        final StringType cached = STRINGS.get(value);
+        if (cached != null) {
+            return cached;
+        }
+        final StringType state = new StringType(value);
+        if (STRINGS.size() < MAX_CACHED_STRINGS) {
+            STRINGS.putIfAbsent(value, state);
+        }
+        return state;
+    }
+}
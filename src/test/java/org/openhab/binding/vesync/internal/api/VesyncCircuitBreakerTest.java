@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VesyncCircuitBreakerTest} class implements unit test case for {@link VesyncCircuitBreaker}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncCircuitBreakerTest {
+
+    @Test
+    public void opensAfterThresholdAndFailsFast() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncCircuitBreaker breaker = new VesyncCircuitBreaker("bypassV2", 3, 1000, clock::get);
+
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+
+        assertEquals(VesyncCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void halfOpenAllowsSingleProbe() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncCircuitBreaker breaker = new VesyncCircuitBreaker("bypassV2", 1, 1000, clock::get);
+        breaker.onFailure();
+
+        clock.set(1000);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(VesyncCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(VesyncCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void failedProbeReopens() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncCircuitBreaker breaker = new VesyncCircuitBreaker("login", 1, 1000, clock::get);
+        breaker.onFailure();
+
+        clock.set(1000);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(VesyncCircuitBreaker.State.OPEN, breaker.getState());
+        clock.set(1500);
+        assertFalse(breaker.tryAcquire());
+    }
+}
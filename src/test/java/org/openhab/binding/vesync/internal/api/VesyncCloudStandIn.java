@@ -0,0 +1,591 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The {@link VesyncCloudStandIn} is a local stand-in for the VeSync cloud, for integration and load tests. It serves
+ * the login, device list, bypassV2 and 131 V1 device detail endpoints for a simulated fleet of air purifiers and
+ * humidifiers, whose state follows the commands sent to them.
+ *
+ * The latency of responses and the rate of failed responses can be configured. Point the binding at
+ * {@link #getApiHost()} to run it offline against the stand-in.
+ *
+ * The latency of each device request is recorded from the trace id the binding stamps the request with when it is
+ * created, so it covers the time the request spent queued in the binding as well as on the wire.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncCloudStandIn implements AutoCloseable {
+
+    public static final String LOGIN_PATH = V1_LOGIN_ENDPOINT.substring(API_HOST.length());
+    public static final String DEVICES_PATH = V1_MANAGED_DEVICES_ENDPOINT.substring(API_HOST.length());
+    public static final String BYPASS_PATH = V2_BYPASS_ENDPOINT.substring(API_HOST.length());
+    public static final String DEVICE_DETAILS_131_PATH = V1_131_DEVICE_DETAILS_ENDPOINT.substring(API_HOST.length());
+
+    public static final String ACCOUNT_ID = "1234567";
+
+    /**
+     * The prefix of the names of the threads serving requests, to tell them apart from those of the binding.
+     */
+    public static final String THREAD_NAME_PREFIX = "vesync-cloud-stand-in-";
+
+    private static final int MAX_RECORDED_LATENCY_MILLIS = 60_000;
+
+    private static final String[] PURIFIER_TYPES = { "Core400S", "Core200S", "LV-PUR131S" };
+    private static final String[] HUMIDIFIER_TYPES = { "Classic300S", "Dual200S" };
+
+    private final List<Device> devices;
+    private final Map<String, Device> devicesByCid = new ConcurrentHashMap<>();
+    private final Map<String, Device> devicesByUuid = new ConcurrentHashMap<>();
+
+    private final Set<String> validTokens = ConcurrentHashMap.newKeySet();
+    private final AtomicLong issuedTokens = new AtomicLong();
+    private final Map<String, AtomicLong> requestCounts = new ConcurrentHashMap<>();
+    private final AtomicLongArray deviceRequestLatencies = new AtomicLongArray(MAX_RECORDED_LATENCY_MILLIS + 1);
+    private final AtomicLong threadNumber = new AtomicLong();
+
+    private volatile long minLatencyMillis;
+    private volatile long maxLatencyMillis;
+    private volatile double errorRate;
+    private volatile int errorStatus = 500;
+
+    private @Nullable HttpServer server;
+    private @Nullable ExecutorService executor;
+
+    /**
+     * @param purifiers - the number of air purifiers in the fleet
+     * @param humidifiers - the number of humidifiers in the fleet
+     */
+    public VesyncCloudStandIn(final int purifiers, final int humidifiers) {
+        final List<Device> fleet = new ArrayList<>(purifiers + humidifiers);
+        for (int i = 0; i < purifiers + humidifiers; ++i) {
+            final boolean purifier = i < purifiers;
+            final String deviceType = purifier ? PURIFIER_TYPES[i % PURIFIER_TYPES.length]
+                    : HUMIDIFIER_TYPES[(i - purifiers) % HUMIDIFIER_TYPES.length];
+            final Device device = new Device(i, purifier, deviceType);
+            fleet.add(device);
+            devicesByCid.put(device.cid, device);
+            devicesByUuid.put(device.uuid, device);
+        }
+        devices = Collections.unmodifiableList(fleet);
+    }
+
+    /**
+     * Delay each response by a random time in the given range.
+     */
+    public VesyncCloudStandIn withLatency(final long minMillis, final long maxMillis) {
+        minLatencyMillis = Math.max(0, minMillis);
+        maxLatencyMillis = Math.max(minLatencyMillis, maxMillis);
+        return this;
+    }
+
+    /**
+     * Fail the given fraction of requests with the given HTTP status, e.g. 500 or 429.
+     */
+    public VesyncCloudStandIn withErrorRate(final double rate, final int status) {
+        errorRate = Math.max(0, Math.min(1, rate));
+        errorStatus = status;
+        return this;
+    }
+
+    /**
+     * Start serving on an ephemeral port of the loopback interface.
+     */
+    public synchronized VesyncCloudStandIn start() throws IOException {
+        final HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                0);
+        final ExecutorService pool = Executors.newCachedThreadPool(runnable -> {
+            final Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(pool);
+        httpServer.createContext(LOGIN_PATH, exchange -> serve(exchange, this::login));
+        httpServer.createContext(DEVICES_PATH, exchange -> serve(exchange, this::devices));
+        httpServer.createContext(BYPASS_PATH, exchange -> serve(exchange, this::bypass));
+        httpServer.createContext(DEVICE_DETAILS_131_PATH, exchange -> serve(exchange, this::deviceDetails));
+        httpServer.start();
+        server = httpServer;
+        executor = pool;
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        final HttpServer httpServer = server;
+        if (httpServer != null) {
+            httpServer.stop(0);
+            server = null;
+        }
+        final ExecutorService pool = executor;
+        if (pool != null) {
+            pool.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * @return - the scheme, host and port to configure as the API host of the binding.
+     */
+    public synchronized String getApiHost() {
+        final HttpServer httpServer = server;
+        if (httpServer == null) {
+            throw new IllegalStateException("The stand-in has not been started");
+        }
+        return "http://" + httpServer.getAddress().getHostString() + ":" + httpServer.getAddress().getPort();
+    }
+
+    /**
+     * Reject the tokens of all sessions issued so far, as the cloud does when they expire.
+     */
+    public void expireSessions() {
+        validTokens.clear();
+    }
+
+    /**
+     * @return - the number of requests received for the given path, including failed ones.
+     */
+    public long getRequestCount(final String path) {
+        final AtomicLong count = requestCounts.get(path);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * @return - the number of requests received for all paths, including failed ones.
+     */
+    public long getRequestCount() {
+        return requestCounts.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    /**
+     * @return - the number of requests to devices answered.
+     */
+    public long getDeviceRequestCount() {
+        long count = 0;
+        for (int i = 0; i < deviceRequestLatencies.length(); ++i) {
+            count += deviceRequestLatencies.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @param percentile - the percentile, between 0 and 100
+     * @return - the latency in milliseconds the given percentile of answered requests to devices completed within.
+     */
+    public long getDeviceRequestLatencyPercentile(final double percentile) {
+        final long count = getDeviceRequestCount();
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < deviceRequestLatencies.length(); ++i) {
+            seen += deviceRequestLatencies.get(i);
+            if (seen >= rank) {
+                return i;
+            }
+        }
+        return MAX_RECORDED_LATENCY_MILLIS;
+    }
+
+    /**
+     * Clear the request counts and latencies recorded so far.
+     */
+    public void resetStatistics() {
+        requestCounts.clear();
+        for (int i = 0; i < deviceRequestLatencies.length(); ++i) {
+            deviceRequestLatencies.set(i, 0);
+        }
+    }
+
+    public List<Device> getDevices() {
+        return devices;
+    }
+
+    private interface Endpoint {
+        JsonObject handle(JsonObject request);
+    }
+
+    private void serve(final HttpExchange exchange, final Endpoint endpoint) throws IOException {
+        try {
+            requestCounts.computeIfAbsent(exchange.getRequestURI().getPath(), path -> new AtomicLong())
+                    .incrementAndGet();
+            final long latency = maxLatencyMillis > minLatencyMillis
+                    ? ThreadLocalRandom.current().nextLong(minLatencyMillis, maxLatencyMillis + 1)
+                    : minLatencyMillis;
+            if (latency > 0) {
+                TimeUnit.MILLISECONDS.sleep(latency);
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(errorStatus, -1);
+                return;
+            }
+            final JsonObject request;
+            try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+                request = JsonParser.parseReader(reader).getAsJsonObject();
+            } catch (JsonParseException | IllegalStateException e) {
+                exchange.sendResponseHeaders(400, -1);
+                return;
+            }
+            final byte[] body = VeSyncConstants.GSON_WIRE.toJson(endpoint.handle(request))
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            recordLatency(exchange.getRequestURI().getPath(), request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void recordLatency(final String path, final JsonObject request) {
+        if (!BYPASS_PATH.equals(path) && !DEVICE_DETAILS_131_PATH.equals(path)) {
+            return;
+        }
+        try {
+            final long latency = System.currentTimeMillis() - Long.parseLong(getString(request, "traceId"));
+            deviceRequestLatencies.incrementAndGet((int) Math.max(0, Math.min(MAX_RECORDED_LATENCY_MILLIS, latency)));
+        } catch (NumberFormatException e) {
+            // Not stamped by the binding, so the latency is unknown
+        }
+    }
+
+    private JsonObject login(final JsonObject request) {
+        if (getString(request, "email").isEmpty() || getString(request, "password").isEmpty()) {
+            return envelope(-11201000, "password error");
+        }
+        final String token = "standin-token-" + issuedTokens.incrementAndGet();
+        validTokens.add(token);
+        final JsonObject session = new JsonObject();
+        session.addProperty("token", token);
+        session.addProperty("accountID", ACCOUNT_ID);
+        session.addProperty("registerTime", "1634255391");
+        session.addProperty("countryCode", "GB");
+        session.addProperty("acceptLanguage", "en");
+        final JsonObject response = success();
+        response.add("result", session);
+        return response;
+    }
+
+    private JsonObject devices(final JsonObject request) {
+        final @Nullable JsonObject rejected = checkSession(request);
+        if (rejected != null) {
+            return rejected;
+        }
+        final int pageNo = Math.max(1, getInt(request, "pageNo", 1));
+        final int pageSize = Math.max(1, getInt(request, "pageSize", 100));
+        final JsonArray list = new JsonArray();
+        for (int i = (pageNo - 1) * pageSize; i < Math.min(devices.size(), pageNo * pageSize); ++i) {
+            list.add(devices.get(i).toManagedDevice());
+        }
+        final JsonObject page = new JsonObject();
+        page.addProperty("total", devices.size());
+        page.addProperty("pageNo", pageNo);
+        page.addProperty("pageSize", pageSize);
+        page.add("list", list);
+        final JsonObject response = success();
+        response.add("result", page);
+        return response;
+    }
+
+    private JsonObject bypass(final JsonObject request) {
+        final @Nullable JsonObject rejected = checkSession(request);
+        if (rejected != null) {
+            return rejected;
+        }
+        final Device device = devicesByCid.get(getString(request, "cid"));
+        if (device == null) {
+            return envelope(-11300030, "device offline");
+        }
+        final JsonElement payload = request.get("payload");
+        if (payload == null || !payload.isJsonObject()) {
+            return envelope(-11000000, "request failed");
+        }
+        final JsonObject inner = device.apply(getString(payload.getAsJsonObject(), "method"),
+                payload.getAsJsonObject().get("data"));
+        final JsonObject response = success();
+        response.add("result", inner);
+        return response;
+    }
+
+    private JsonObject deviceDetails(final JsonObject request) {
+        final @Nullable JsonObject rejected = checkSession(request);
+        if (rejected != null) {
+            return rejected;
+        }
+        final Device device = devicesByUuid.get(getString(request, "uuid"));
+        if (device == null) {
+            return envelope(-11300030, "device offline");
+        }
+        return device.toV1Details();
+    }
+
+    private @Nullable JsonObject checkSession(final JsonObject request) {
+        if (!validTokens.contains(getString(request, "token"))
+                || !ACCOUNT_ID.equals(getString(request, "accountID"))) {
+            return envelope(4001004, "token expired");
+        }
+        return null;
+    }
+
+    private static JsonObject success() {
+        return envelope(0, "request success");
+    }
+
+    private static JsonObject envelope(final int code, final String msg) {
+        final JsonObject response = new JsonObject();
+        response.addProperty("traceId", Long.toString(System.currentTimeMillis()));
+        response.addProperty("code", code);
+        response.addProperty("msg", msg);
+        return response;
+    }
+
+    private static String getString(final JsonObject object, final String member) {
+        final JsonElement value = object.get(member);
+        return value != null && value.isJsonPrimitive() ? value.getAsString() : "";
+    }
+
+    private static int getInt(final JsonObject object, final String member, final int fallback) {
+        try {
+            return Integer.parseInt(getString(object, member));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static boolean getBoolean(final @Nullable JsonElement data, final String member, final boolean fallback) {
+        if (data == null || !data.isJsonObject()) {
+            return fallback;
+        }
+        final JsonElement value = data.getAsJsonObject().get(member);
+        return value != null && value.isJsonPrimitive() ? value.getAsBoolean() : fallback;
+    }
+
+    private static int getInt(final @Nullable JsonElement data, final String member, final int fallback) {
+        if (data == null || !data.isJsonObject()) {
+            return fallback;
+        }
+        return getInt(data.getAsJsonObject(), member, fallback);
+    }
+
+    private static String getString(final @Nullable JsonElement data, final String member, final String fallback) {
+        if (data == null || !data.isJsonObject()) {
+            return fallback;
+        }
+        final String value = getString(data.getAsJsonObject(), member);
+        return value.isEmpty() ? fallback : value;
+    }
+
+    /**
+     * A simulated device of the fleet.
+     */
+    public static final class Device {
+        public final String macId;
+        public final String cid;
+        public final String uuid;
+        public final String deviceName;
+        public final String deviceType;
+        public final boolean purifier;
+
+        private boolean enabled = true;
+        private boolean display = true;
+        private boolean childLock;
+        private String mode = "manual";
+        private int level = 1;
+        private int humidity = 45;
+        private int targetHumidity = 50;
+        private int mistLevel = 1;
+        private boolean automaticStop = true;
+        private int nightLightBrightness;
+
+        Device(final int index, final boolean purifier, final String deviceType) {
+            this.macId = String.format("00:00:%02x:%02x:%02x:%02x", (index >> 24) & 0xff, (index >> 16) & 0xff,
+                    (index >> 8) & 0xff, index & 0xff);
+            this.cid = String.format("standin-cid-%06d", index);
+            this.uuid = String.format("00000000-0000-0000-0000-%012d", index);
+            this.deviceName = (purifier ? "Purifier " : "Humidifier ") + index;
+            this.deviceType = deviceType;
+            this.purifier = purifier;
+        }
+
+        public synchronized boolean isEnabled() {
+            return enabled;
+        }
+
+        public synchronized int getLevel() {
+            return level;
+        }
+
+        synchronized JsonObject apply(final String method, final @Nullable JsonElement data) {
+            switch (method) {
+                case DEVICE_GET_PURIFIER_STATUS:
+                case DEVICE_GET_HUMIDIFIER_STATUS:
+                    break;
+                case DEVICE_SET_SWITCH:
+                    enabled = getBoolean(data, "enabled", enabled);
+                    break;
+                case DEVICE_SET_DISPLAY:
+                    display = getBoolean(data, "state", display);
+                    break;
+                case DEVICE_SET_CHILD_LOCK:
+                    childLock = getBoolean(data, "child_lock", childLock);
+                    break;
+                case DEVICE_SET_LEVEL:
+                case DEVICE_SET_VIRTUAL_LEVEL:
+                    level = getInt(data, "level", level);
+                    mistLevel = level;
+                    break;
+                case DEVICE_SET_PURIFIER_MODE:
+                    mode = getString(data, "mode", mode);
+                    break;
+                case DEVICE_SET_HUMIDITY_MODE:
+                    mode = getString(data, "mode", mode);
+                    break;
+                case DEVICE_SET_TARGET_HUMIDITY_MODE:
+                    targetHumidity = getInt(data, "target_humidity", targetHumidity);
+                    break;
+                case DEVICE_SET_AUTOMATIC_STOP:
+                    automaticStop = getBoolean(data, "enabled", automaticStop);
+                    break;
+                case DEVICE_SET_NIGHT_LIGHT_BRIGHTNESS:
+                    nightLightBrightness = getInt(data, "night_light_brightness", nightLightBrightness);
+                    break;
+                default:
+                    return envelope(-1, "method not supported");
+            }
+            final JsonObject inner = success();
+            inner.add("result", purifier ? purifierStatus() : humidifierStatus());
+            return inner;
+        }
+
+        private JsonObject purifierStatus() {
+            final JsonObject status = new JsonObject();
+            status.addProperty("enabled", enabled);
+            status.addProperty("filter_life", 90);
+            status.addProperty("mode", mode);
+            status.addProperty("level", level);
+            status.addProperty("air_quality", 1);
+            status.addProperty("air_quality_value", 5);
+            status.addProperty("display", display);
+            status.addProperty("child_lock", childLock);
+            status.addProperty("device_error_code", 0);
+            final JsonObject autoPreference = new JsonObject();
+            autoPreference.addProperty("type", "default");
+            autoPreference.addProperty("room_size", 600);
+            final JsonObject configuration = new JsonObject();
+            configuration.addProperty("display", display);
+            configuration.addProperty("display_forever", false);
+            configuration.add("auto_preference", autoPreference);
+            status.add("configuration", configuration);
+            final JsonObject extension = new JsonObject();
+            extension.addProperty("schedule_count", 0);
+            extension.addProperty("timer_remain", 0);
+            status.add("extension", extension);
+            return status;
+        }
+
+        private JsonObject humidifierStatus() {
+            final JsonObject status = new JsonObject();
+            status.addProperty("enabled", enabled);
+            status.addProperty("humidity", humidity);
+            status.addProperty("mist_virtual_level", mistLevel);
+            status.addProperty("mist_level", mistLevel);
+            status.addProperty("mode", mode);
+            status.addProperty("water_lacks", false);
+            status.addProperty("humidity_high", humidity > targetHumidity);
+            status.addProperty("water_tank_lifted", false);
+            status.addProperty("display", display);
+            status.addProperty("automatic_stop_reach_target", automaticStop);
+            status.addProperty("night_light_brightness", nightLightBrightness);
+            status.addProperty("warm_enabled", false);
+            status.addProperty("warm_level", 0);
+            final JsonObject configuration = new JsonObject();
+            configuration.addProperty("auto_target_humidity", targetHumidity);
+            configuration.addProperty("display", display);
+            configuration.addProperty("automatic_stop", automaticStop);
+            status.add("configuration", configuration);
+            return status;
+        }
+
+        JsonObject toManagedDevice() {
+            final JsonObject device = new JsonObject();
+            device.addProperty("deviceRegion", "EU");
+            device.addProperty("deviceType", deviceType);
+            device.addProperty("deviceName", deviceName);
+            device.addProperty("deviceStatus", isEnabled() ? "on" : "off");
+            device.addProperty("cid", cid);
+            device.addProperty("connectionStatus", "online");
+            device.addProperty("connectionType", "WiFi+BTOnboarding+BTNotify");
+            device.addProperty("type", purifier ? "wifi-air" : "wifi-humi");
+            device.addProperty("uuid", uuid);
+            device.addProperty("macID", macId);
+            device.addProperty("configModule", purifier ? "WiFiBTOnboardingNotify_AirPurifier_" + deviceType + "_EU"
+                    : "WiFiBTOnboardingNotify_AirHumidifier_" + deviceType + "_EU");
+            device.addProperty("currentFirmVersion", "1.0.0");
+            return device;
+        }
+
+        synchronized JsonObject toV1Details() {
+            final JsonObject details = success();
+            details.addProperty("deviceName", deviceName);
+            details.addProperty("deviceStatus", enabled ? "on" : "off");
+            details.addProperty("connectionStatus", "online");
+            details.addProperty("screenStatus", display ? "on" : "off");
+            details.addProperty("childLock", childLock ? "on" : "off");
+            details.addProperty("airQuality", 1);
+            details.addProperty("level", level);
+            details.addProperty("mode", mode);
+            details.addProperty("currentFirmVersion", "1.0.0");
+            return details;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncLoginCredentials;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequest;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDevicesPage;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestV1ManagedDeviceDetails;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncLoginResponse;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassHumidifierStatus;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassPurifierStatus;
+import org.openhab.binding.vesync.internal.dto.responses.v1.VesyncV1AirPurifierDeviceDetailsResponse;
+import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.SessionRejectedException;
+
+/**
+ * The {@link VesyncCloudStandInTest} class implements unit test case for {@link VesyncCloudStandIn}, checking it
+ * speaks the protocol the binding's request and response DTOs describe.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncCloudStandInTest {
+
+    private static <T extends VesyncResponse> T post(final VesyncCloudStandIn standIn, final String url,
+            final VesyncRequest request, final Class<T> responseType) throws IOException, AuthenticationException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(
+                standIn.getApiHost() + url.substring(API_HOST.length())).openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json; utf-8");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(VesyncRequestEncoder.encode(request));
+        }
+        assertEquals(HttpURLConnection.HTTP_OK, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return VesyncResponseDecoder.decodeAccepted(in, StandardCharsets.UTF_8, responseType);
+        }
+    }
+
+    private static VesyncLoginResponse.VesyncUserSession login(final VesyncCloudStandIn standIn)
+            throws IOException, AuthenticationException {
+        return post(standIn, V1_LOGIN_ENDPOINT, new VesyncLoginCredentials("user@example.com", "md5"),
+                VesyncLoginResponse.class).getUserSession();
+    }
+
+    @Test
+    public void servesFleetInPages() throws IOException, AuthenticationException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(3, 2).start()) {
+            final VesyncLoginResponse.VesyncUserSession session = login(standIn);
+            assertEquals(VesyncCloudStandIn.ACCOUNT_ID, session.getAccountId());
+
+            final VesyncManagedDevicesPage first = post(standIn, V1_MANAGED_DEVICES_ENDPOINT,
+                    new VesyncRequestManagedDevicesPage(session, 1, 4), VesyncManagedDevicesPage.class);
+            final VesyncManagedDevicesPage second = post(standIn, V1_MANAGED_DEVICES_ENDPOINT,
+                    new VesyncRequestManagedDevicesPage(session, 2, 4), VesyncManagedDevicesPage.class);
+
+            assertEquals("5", first.result.total);
+            assertEquals(4, first.result.list.length);
+            assertEquals(1, second.result.list.length);
+            assertEquals(standIn.getDevices().get(4).macId, second.result.list[0].getMacId());
+            assertEquals(2, standIn.getRequestCount(VesyncCloudStandIn.DEVICES_PATH));
+        }
+    }
+
+    @Test
+    public void devicesFollowCommands() throws IOException, AuthenticationException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(3, 1).start()) {
+            final VesyncLoginResponse.VesyncUserSession session = login(standIn);
+            final VesyncCloudStandIn.Device purifier = standIn.getDevices().get(0);
+
+            final VesyncRequestManagedDeviceBypassV2 command = new VesyncRequestManagedDeviceBypassV2();
+            command.applyAuthentication(session);
+            command.cid = purifier.cid;
+            command.payload.method = DEVICE_SET_SWITCH;
+            command.payload.data = new VesyncRequestManagedDeviceBypassV2.SetSwitchPayload(false, 0);
+            post(standIn, V2_BYPASS_ENDPOINT, command, VesyncResponse.class);
+            assertFalse(purifier.isEnabled());
+
+            final VesyncRequestManagedDeviceBypassV2 status = new VesyncRequestManagedDeviceBypassV2();
+            status.applyAuthentication(session);
+            status.cid = purifier.cid;
+            status.payload.method = DEVICE_GET_PURIFIER_STATUS;
+            final VesyncV2BypassPurifierStatus purifierStatus = post(standIn, V2_BYPASS_ENDPOINT, status,
+                    VesyncV2BypassPurifierStatus.class);
+            assertEquals("0", purifierStatus.result.getCode());
+            assertFalse(purifierStatus.result.result.enabled);
+
+            status.cid = standIn.getDevices().get(3).cid;
+            status.payload.method = DEVICE_GET_HUMIDIFIER_STATUS;
+            final VesyncV2BypassHumidifierStatus humidifierStatus = post(standIn, V2_BYPASS_ENDPOINT, status,
+                    VesyncV2BypassHumidifierStatus.class);
+            assertTrue(humidifierStatus.result.result.enabled);
+
+            final VesyncV1AirPurifierDeviceDetailsResponse details = post(standIn, V1_131_DEVICE_DETAILS_ENDPOINT,
+                    new VesyncRequestV1ManagedDeviceDetails(session, standIn.getDevices().get(2).uuid),
+                    VesyncV1AirPurifierDeviceDetailsResponse.class);
+            assertTrue(details.isDeviceOnline());
+        }
+    }
+
+    @Test
+    public void expiredSessionsAreRejected() throws IOException, AuthenticationException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(1, 0).start()) {
+            final VesyncLoginResponse.VesyncUserSession session = login(standIn);
+            standIn.expireSessions();
+
+            assertThrows(SessionRejectedException.class, () -> post(standIn, V1_MANAGED_DEVICES_ENDPOINT,
+                    new VesyncRequestManagedDevicesPage(session, 1, 100), VesyncManagedDevicesPage.class));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+
+/**
+ * The {@link VesyncDeviceCatalogDiffTest} class implements unit test case for {@link VesyncDeviceCatalogDiff}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncDeviceCatalogDiffTest {
+
+    private static VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device(final String macId,
+            final String name, final String connectionStatus, final String cid) {
+        final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device = VeSyncConstants.GSON.fromJson("{\"macID\": \""
+                + macId + "\", \"deviceName\": \"" + name + "\", \"connectionStatus\": \"" + connectionStatus
+                + "\", \"cid\": \"" + cid + "\", \"deviceType\": \"Core400S\", \"uuid\": \"uuid-" + macId + "\"}",
+                VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase.class);
+        if (device == null) {
+            return fail("GSON returned null");
+        }
+        return device;
+    }
+
+    @Test
+    public void unchangedCatalogHasNoChanges() {
+        final VesyncDeviceCatalogDiff diff = VesyncDeviceCatalogDiff.compute(
+                Map.of("aa", device("aa", "Lounge", "online", "c1")),
+                Map.of("aa", device("aa", "Lounge", "online", "c1")));
+
+        assertTrue(diff.isEmpty());
+        assertTrue(diff.getChangedMacIds().isEmpty());
+    }
+
+    @Test
+    public void changesAreClassified() {
+        final VesyncDeviceCatalogDiff diff = VesyncDeviceCatalogDiff.compute(
+                Map.of("aa", device("aa", "Lounge", "online", "c1"), "bb", device("bb", "Bedroom", "online", "c2"),
+                        "cc", device("cc", "Study", "online", "c3"), "dd", device("dd", "Hall", "online", "c4")),
+                Map.of("aa", device("aa", "Living Room", "online", "c1"), "bb", device("bb", "Bedroom", "offline", "c2"),
+                        "cc", device("cc", "Study", "online", "c3-new"), "ee", device("ee", "Kitchen", "online", "c5")));
+
+        assertEquals(Set.of("ee"), diff.getAdded().keySet());
+        assertEquals(Set.of("dd"), diff.getRemoved().keySet());
+        assertEquals(Set.of("aa"), diff.getRenamed().keySet());
+        assertEquals(Set.of("bb"), diff.getConnectionStatusChanged().keySet());
+        assertEquals(Set.of("cc"), diff.getAddressingChanged().keySet());
+        assertEquals(Set.of("aa", "bb", "cc", "dd", "ee"), diff.getChangedMacIds());
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+
+/**
+ * The {@link VesyncDeviceCatalogStoreTest} class implements unit test case for {@link VesyncDeviceCatalogStore}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncDeviceCatalogStoreTest {
+
+    private static VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device(final String macId) {
+        final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device = VeSyncConstants.GSON.fromJson(
+                "{\"macID\": \"" + macId + "\", \"cid\": \"cid-" + macId + "\", \"configModule\": \"WiFiBTOnboarding\", "
+                        + "\"deviceRegion\": \"EU\", \"deviceType\": \"Core400S\", \"uuid\": \"uuid-" + macId + "\", "
+                        + "\"deviceName\": \"Lounge\", \"type\": \"wifi-air\", \"connectionStatus\": \"online\", "
+                        + "\"deviceImg\": \"https://image.vesync.com/device.png\", \"currentFirmVersion\": \"1.0.0\"}",
+                VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase.class);
+        if (device == null) {
+            return fail("GSON returned null");
+        }
+        return device;
+    }
+
+    @Test
+    public void snapshotKeepsAddressingOfDevices() throws IOException {
+        final Path file = Files.createTempDirectory("vesync").resolve("bridge.devices.json");
+        final VesyncDeviceCatalogStore store = new VesyncDeviceCatalogStore(file);
+
+        store.save("account", Map.of("aa", device("aa"), "bb", device("bb")));
+
+        final Map<String, VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase> restored = store.load("account");
+        if (restored == null) {
+            fail("Devices were not stored");
+            return;
+        }
+        assertEquals(2, restored.size());
+        final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device = restored.get("aa");
+        if (device == null) {
+            fail("Device was not stored");
+            return;
+        }
+        assertEquals("cid-aa", device.getCid());
+        assertEquals("WiFiBTOnboarding", device.getConfigModule());
+        assertEquals("EU", device.getDeviceRegion());
+        assertEquals("Core400S", device.getDeviceType());
+        assertEquals("uuid-aa", device.getUuid());
+        assertEquals("online", device.getConnectionStatus());
+        assertNull(device.getDeviceImg());
+        assertTrue(VesyncDeviceCatalogDiff.compute(Map.of("aa", device("aa")), Map.of("aa", device)).isEmpty());
+
+        assertNull(store.load("other account"));
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.io.net.http.HttpClientFactory;
+
+/**
+ * The {@link VesyncHttpTransportTest} class implements unit test case for {@link VesyncHttpTransport}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncHttpTransportTest {
+
+    private static final HttpClientFactory NO_CLIENTS = new HttpClientFactory() {
+        @Override
+        public HttpClient createHttpClient(String consumerName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public HttpClient getCommonHttpClient() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    @Test
+    public void endpointsAreGroupedByUrl() {
+        assertEquals(VesyncHttpTransport.Endpoint.LOGIN, VesyncHttpTransport.Endpoint.forUrl(V1_LOGIN_ENDPOINT));
+        assertEquals(VesyncHttpTransport.Endpoint.DEVICE_LIST,
+                VesyncHttpTransport.Endpoint.forUrl(V1_MANAGED_DEVICES_ENDPOINT));
+        assertEquals(VesyncHttpTransport.Endpoint.DEVICE, VesyncHttpTransport.Endpoint.forUrl(V2_BYPASS_ENDPOINT));
+        assertEquals(VesyncHttpTransport.Endpoint.DEVICE,
+                VesyncHttpTransport.Endpoint.forUrl(V1_131_DEVICE_DETAILS_ENDPOINT));
+    }
+
+    @Test
+    public void requestTimeoutsAreConfiguredPerEndpoint() {
+        final VesyncHttpTransport transport = new VesyncHttpTransport(NO_CLIENTS, "test");
+        transport.configureRequestTimeout(VesyncHttpTransport.Endpoint.LOGIN, 20);
+        transport.configureRequestTimeout(VesyncHttpTransport.Endpoint.DEVICE, 0);
+
+        assertEquals(20, transport.getRequestTimeoutSeconds(VesyncHttpTransport.Endpoint.LOGIN));
+        assertEquals(VesyncHttpTransport.DEFAULT_DEVICE_LIST_TIMEOUT_SECONDS,
+                transport.getRequestTimeoutSeconds(VesyncHttpTransport.Endpoint.DEVICE_LIST));
+        assertEquals(1, transport.getRequestTimeoutSeconds(VesyncHttpTransport.Endpoint.DEVICE));
+    }
+
+    @Test
+    public void requestsAreSentToConfiguredHost() {
+        final VesyncHttpTransport transport = new VesyncHttpTransport(NO_CLIENTS, "test");
+        assertEquals(V2_BYPASS_ENDPOINT, transport.resolve(V2_BYPASS_ENDPOINT));
+
+        transport.configureApiHost("http://127.0.0.1:8080/");
+        assertEquals("http://127.0.0.1:8080/cloud/v2/deviceManaged/bypassV2", transport.resolve(V2_BYPASS_ENDPOINT));
+        assertEquals("http://127.0.0.1:8080/131airPurifier/v1/device/deviceDetail",
+                transport.resolve(V1_131_DEVICE_DETAILS_ENDPOINT));
+
+        transport.configureApiHost(" ");
+        assertEquals(V1_LOGIN_ENDPOINT, transport.resolve(V1_LOGIN_ENDPOINT));
+    }
+
+    @Test
+    public void eachBridgeHasItsOwnClientName() {
+        assertEquals("vesync-home", VesyncHttpTransport.consumerName("home"));
+        assertEquals("vesync-my_account_1", VesyncHttpTransport.consumerName("My.Account 1"));
+        assertEquals("vesync-a-very-long-b", VesyncHttpTransport.consumerName("a-very-long-bridge-id"));
+    }
+
+    @Test
+    public void requestsNeedStartedTransport() {
+        final VesyncHttpTransport transport = new VesyncHttpTransport(NO_CLIENTS, "test");
+
+        assertThrows(IllegalStateException.class, () -> transport.newPost(V2_BYPASS_ENDPOINT));
+        assertEquals(0, transport.getPoolStatistics().getActiveConnections());
+    }
+}
@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VesyncPageFetcherTest} class implements unit test case for {@link VesyncPageFetcher}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncPageFetcherTest {
+
+    @Test
+    public void limitsPagesInFlightAndKeepsPageOrder() {
+        final Map<Integer, CompletableFuture<String>> requested = new ConcurrentHashMap<>();
+
+        final CompletableFuture<List<String>> result = VesyncPageFetcher.fetchPages(2, 5, 2, pageNo -> {
+            final CompletableFuture<String> page = new CompletableFuture<>();
+            requested.put(pageNo, page);
+            return page;
+        });
+
+        assertEquals(2, requested.size());
+        requested.get(3).complete("page3");
+        assertEquals(3, requested.size());
+        requested.get(4).complete("page4");
+        requested.get(2).complete("page2");
+        assertFalse(result.isDone());
+        requested.get(5).complete("page5");
+
+        assertEquals(List.of("page2", "page3", "page4", "page5"), result.join());
+    }
+
+    @Test
+    public void emptyRangeCompletesImmediately() {
+        final CompletableFuture<List<String>> result = VesyncPageFetcher.fetchPages(2, 1, 4,
+                pageNo -> CompletableFuture.completedFuture("unexpected"));
+
+        assertTrue(result.join().isEmpty());
+    }
+
+    @Test
+    public void failedPageFailsTheFetch() {
+        final CompletableFuture<List<String>> result = VesyncPageFetcher.fetchPages(1, 3, 3,
+                pageNo -> pageNo == 2 ? CompletableFuture.failedFuture(new IllegalStateException("boom"))
+                        : CompletableFuture.completedFuture("page" + pageNo));
+
+        assertTrue(result.isCompletedExceptionally());
+    }
+}
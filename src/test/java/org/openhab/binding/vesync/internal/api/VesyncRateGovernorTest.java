@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VesyncRateGovernorTest} class implements unit test case for {@link VesyncRateGovernor}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRateGovernorTest {
+
+    @Test
+    public void burstIsReleasedImmediatelyThenQueued() {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final AtomicLong clock = new AtomicLong();
+            final VesyncRateGovernor governor = new VesyncRateGovernor(scheduler, clock::get);
+            governor.configure(60, 3);
+
+            assertTrue(governor.acquire().isDone());
+            assertTrue(governor.acquire().isDone());
+            assertTrue(governor.acquire().isDone());
+
+            final CompletableFuture<Void> queued = governor.acquire();
+            assertFalse(queued.isDone());
+            assertEquals(1, governor.getQueueDepth());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void queuedRequestIsReleasedWhenBudgetRefills() throws Exception {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final VesyncRateGovernor governor = new VesyncRateGovernor(scheduler);
+            governor.configure(600, 1);
+
+            assertTrue(governor.acquire().isDone());
+            final CompletableFuture<Void> queued = governor.acquire();
+            queued.get(2, TimeUnit.SECONDS);
+            assertEquals(0, governor.getQueueDepth());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void throttlingHalvesBudgetAndSuccessRestoresIt() {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final AtomicLong clock = new AtomicLong();
+            final VesyncRateGovernor governor = new VesyncRateGovernor(scheduler, clock::get);
+            governor.configure(120, 10);
+
+            governor.onThrottled();
+            assertEquals(60.0, governor.getBudget());
+            assertFalse(governor.acquire().isDone());
+
+            for (int i = 0; i < 100; ++i) {
+                governor.onSuccess();
+            }
+            assertEquals(120.0, governor.getBudget());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void throttlingDuringThePauseDoesNotBackOffAgain() {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final AtomicLong clock = new AtomicLong();
+            final VesyncRateGovernor governor = new VesyncRateGovernor(scheduler, clock::get);
+            governor.configure(120, 10);
+
+            governor.onThrottled();
+            governor.onThrottled();
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            governor.onThrottled();
+            assertEquals(60.0, governor.getBudget());
+
+            clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            governor.onThrottled();
+            assertEquals(30.0, governor.getBudget());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void maxWaitCoversThePauseAndTheRequestsWaiting() {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final AtomicLong clock = new AtomicLong();
+            final VesyncRateGovernor governor = new VesyncRateGovernor(scheduler, clock::get);
+            governor.configure(60, 1);
+            assertEquals(TimeUnit.SECONDS.toNanos(1), governor.getMaxWaitNanos());
+
+            governor.acquire();
+            governor.acquire();
+            assertEquals(TimeUnit.SECONDS.toNanos(2), governor.getMaxWaitNanos());
+
+            // Paused for 2 seconds, and released at half the rate afterwards
+            governor.onThrottled();
+            assertEquals(TimeUnit.SECONDS.toNanos(2 + 4), governor.getMaxWaitNanos());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void closeFailsTheWaitingRequests() {
+        final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final AtomicLong clock = new AtomicLong();
+            final VesyncRateGovernor governor = new VesyncRateGovernor(scheduler, clock::get);
+            governor.configure(60, 1);
+
+            assertTrue(governor.acquire().isDone());
+            final CompletableFuture<Void> queued = governor.acquire();
+            assertFalse(queued.isDone());
+
+            governor.close();
+            assertEquals(0, governor.getQueueDepth());
+            final ExecutionException e = assertThrows(ExecutionException.class, queued::get);
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
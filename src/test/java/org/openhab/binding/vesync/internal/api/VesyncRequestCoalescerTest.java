@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VesyncRequestCoalescerTest} class implements unit test case for {@link VesyncRequestCoalescer}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRequestCoalescerTest {
+
+    @Test
+    public void concurrentRequestsShareOneExchange() {
+        final VesyncRequestCoalescer coalescer = new VesyncRequestCoalescer();
+        final CompletableFuture<String> exchange = new CompletableFuture<>();
+        final AtomicInteger sent = new AtomicInteger();
+
+        final String key = VesyncRequestCoalescer.key("aa:bb", "getPurifierStatus");
+        final CompletableFuture<String> first = coalescer.execute(key, () -> {
+            sent.incrementAndGet();
+            return exchange;
+        });
+        final CompletableFuture<String> second = coalescer.execute(key, () -> {
+            sent.incrementAndGet();
+            return exchange;
+        });
+
+        exchange.complete("result");
+
+        assertEquals(1, sent.get());
+        assertEquals("result", first.join());
+        assertEquals("result", second.join());
+        assertEquals(1, coalescer.getHitCount());
+        assertEquals(1, coalescer.getMissCount());
+    }
+
+    @Test
+    public void completedRequestIsNotReused() {
+        final VesyncRequestCoalescer coalescer = new VesyncRequestCoalescer();
+        final String key = VesyncRequestCoalescer.key("aa:bb", "getPurifierStatus");
+
+        assertEquals("1", coalescer.execute(key, () -> CompletableFuture.completedFuture("1")).join());
+        assertEquals("2", coalescer.execute(key, () -> CompletableFuture.completedFuture("2")).join());
+        assertEquals(0, coalescer.getHitCount());
+        assertEquals(2, coalescer.getMissCount());
+    }
+
+    @Test
+    public void forgetStopsNewCallersJoining() {
+        final VesyncRequestCoalescer coalescer = new VesyncRequestCoalescer();
+        final String key = VesyncRequestCoalescer.key("aa:bb", "getPurifierStatus");
+        final CompletableFuture<String> staleExchange = new CompletableFuture<>();
+
+        final CompletableFuture<String> stale = coalescer.execute(key, () -> staleExchange);
+        coalescer.forget("aa:bb");
+        final CompletableFuture<String> fresh = coalescer.execute(key, () -> CompletableFuture.completedFuture("new"));
+        staleExchange.complete("old");
+
+        assertEquals("old", stale.join());
+        assertEquals("new", fresh.join());
+        assertTrue(coalescer.getHitCount() == 0);
+    }
+}
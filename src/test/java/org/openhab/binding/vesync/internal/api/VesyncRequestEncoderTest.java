@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+
+import com.google.gson.JsonParser;
+
+/**
+ * The {@link VesyncRequestEncoderTest} class implements unit test case for {@link VesyncRequestEncoder}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRequestEncoderTest {
+
+    @Test
+    public void encodingIsCompactAndMatchesDiagnosticForm() {
+        final VesyncRequestManagedDeviceBypassV2 request = new VesyncRequestManagedDeviceBypassV2();
+        request.payload.method = "getPurifierStatus";
+
+        final String encoded = new String(VesyncRequestEncoder.encode(request), StandardCharsets.UTF_8);
+
+        assertFalse(encoded.contains("\n"));
+        assertEquals(JsonParser.parseString(VeSyncConstants.GSON.toJson(request)), JsonParser.parseString(encoded));
+    }
+
+    @Test
+    public void reusedBufferDoesNotAffectEarlierResults() {
+        final VesyncRequestManagedDeviceBypassV2 first = new VesyncRequestManagedDeviceBypassV2();
+        first.payload.method = "getPurifierStatus";
+        final VesyncRequestManagedDeviceBypassV2 second = new VesyncRequestManagedDeviceBypassV2();
+        second.payload.method = "setSwitch";
+
+        final byte[] firstEncoded = VesyncRequestEncoder.encode(first);
+        final String firstBody = new String(firstEncoded, StandardCharsets.UTF_8);
+        VesyncRequestEncoder.encode(second);
+
+        assertEquals(firstBody, new String(firstEncoded, StandardCharsets.UTF_8));
+    }
+}
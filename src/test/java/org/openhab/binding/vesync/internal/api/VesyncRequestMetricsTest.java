@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VesyncRequestMetricsTest} class implements unit test case for {@link VesyncRequestMetrics}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRequestMetricsTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final VesyncRequestMetrics metrics = new VesyncRequestMetrics(now::get);
+
+    private void record(final VesyncRequestMetrics.Operation operation, final VesyncRequestMetrics.Outcome outcome,
+            final long latencyMillis) {
+        final long start = metrics.startTimer();
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        operation.record(outcome, start);
+    }
+
+    @Test
+    public void bucketsBoundLatencyWithinAnEighth() {
+        for (long millis = 0; millis < 100_000; millis += 7) {
+            final long highest = VesyncRequestMetrics.highestValueOf(VesyncRequestMetrics.bucketOf(millis));
+            assertTrue(highest >= millis, "bucket below " + millis);
+            assertTrue(highest <= millis + millis / 8, "bucket too coarse for " + millis);
+        }
+        assertEquals(VesyncRequestMetrics.MAX_TRACKED_MILLIS, VesyncRequestMetrics
+                .highestValueOf(VesyncRequestMetrics.bucketOf(VesyncRequestMetrics.MAX_TRACKED_MILLIS + 1000)));
+    }
+
+    @Test
+    public void percentilesRatesAndOutcomesAreReported() {
+        final VesyncRequestMetrics.Operation status = metrics.forOperation(V2_BYPASS_ENDPOINT, "getPurifierStatus");
+        for (int i = 1; i <= 100; ++i) {
+            record(status, VesyncRequestMetrics.Outcome.SUCCESS, i);
+        }
+        final VesyncRequestMetrics.Operation login = metrics.forOperation(V1_LOGIN_ENDPOINT, "login");
+        record(login, VesyncRequestMetrics.Outcome.AUTH_FAILURE, 10);
+        record(login, VesyncRequestMetrics.Outcome.TIMEOUT, 10);
+        record(status, VesyncRequestMetrics.Outcome.DEVICE_OFFLINE, 10);
+        record(status, VesyncRequestMetrics.Outcome.HTTP_ERROR, 10);
+        now.set(TimeUnit.MINUTES.toNanos(2));
+
+        final VesyncRequestMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertEquals(104, snapshot.getRequests());
+        assertEquals(3, snapshot.getErrors());
+        assertEquals(52.0, snapshot.getRequestsPerMinute(), 0.001);
+        assertEquals(300.0 / 104, snapshot.getErrorRatePercent(), 0.001);
+        assertEquals(1, snapshot.getCount(VesyncRequestMetrics.Outcome.TIMEOUT));
+        assertEquals(2, snapshot.getOperations().size());
+
+        final VesyncRequestMetrics.Snapshot statusSnapshot = snapshot.getOperations()
+                .get("/cloud/v2/deviceManaged/bypassV2 getPurifierStatus");
+        assertEquals(102, statusSnapshot.getRequests());
+        assertEquals(1, statusSnapshot.getCount(VesyncRequestMetrics.Outcome.DEVICE_OFFLINE));
+        final long p95 = statusSnapshot.getLatencyPercentileMillis(95);
+        assertTrue(p95 >= 94 && p95 <= 106, "p95 was " + p95);
+        final long max = statusSnapshot.getLatencyPercentileMillis(100);
+        assertTrue(max >= 100 && max <= 112, "max was " + max);
+    }
+
+    @Test
+    public void snapshotDrainsTheInterval() {
+        record(metrics.forOperation(V2_BYPASS_ENDPOINT, "getHumidifierStatus"), VesyncRequestMetrics.Outcome.SUCCESS,
+                50);
+        assertEquals(1, metrics.snapshot().getRequests());
+
+        final VesyncRequestMetrics.Snapshot empty = metrics.snapshot();
+        assertEquals(0, empty.getRequests());
+        assertEquals(0, empty.getLatencyPercentileMillis(99));
+        assertEquals(0, empty.getErrorRatePercent(), 0.001);
+        assertTrue(empty.getOperations().isEmpty());
+    }
+}
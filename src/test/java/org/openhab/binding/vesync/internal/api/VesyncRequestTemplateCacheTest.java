@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+
+/**
+ * The {@link VesyncRequestTemplateCacheTest} class implements unit test case for {@link VesyncRequestTemplateCache}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncRequestTemplateCacheTest {
+
+    private static VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device() {
+        final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device = VeSyncConstants.GSON.fromJson(
+                "{\"cid\": \"cid-1\", \"configModule\": \"WFON_AP\", \"deviceRegion\": \"EU\", \"macID\": \"aa:bb\"}",
+                VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase.class);
+        if (device == null) {
+            return fail("GSON returned null");
+        }
+        return device;
+    }
+
+    private static String reflectiveEncoding(final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase device,
+            final VesyncRequestManagedDeviceBypassV2 request, final String accountId, final String token) {
+        request.cid = device.cid;
+        request.configModule = device.configModule;
+        request.deviceRegion = device.deviceRegion;
+        request.accountId = accountId;
+        request.token = token;
+        return new String(VesyncRequestEncoder.encode(request), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void templateMatchesReflectiveEncoding() {
+        final VesyncRequestTemplateCache cache = new VesyncRequestTemplateCache();
+        final VesyncRequestManagedDeviceBypassV2 request = new VesyncRequestManagedDeviceBypassV2();
+        request.payload.method = "setLevel";
+        request.payload.data = new VesyncRequestManagedDeviceBypassV2.SetLevelPayload(0, "wind", 2);
+
+        final String templated = new String(cache.encode("aa:bb", device(), "1234", "tk\"1", request),
+                StandardCharsets.UTF_8);
+
+        assertEquals(reflectiveEncoding(device(), request, "1234", "tk\"1"), templated);
+    }
+
+    @Test
+    public void variableFieldsAreSplicedPerRequest() {
+        final VesyncRequestTemplateCache cache = new VesyncRequestTemplateCache();
+        final VesyncRequestManagedDeviceBypassV2 first = new VesyncRequestManagedDeviceBypassV2();
+        first.payload.method = "setSwitch";
+        first.payload.data = new VesyncRequestManagedDeviceBypassV2.SetSwitchPayload(true, 0);
+        final VesyncRequestManagedDeviceBypassV2 second = new VesyncRequestManagedDeviceBypassV2();
+        second.payload.method = "setSwitch";
+        second.payload.data = new VesyncRequestManagedDeviceBypassV2.SetSwitchPayload(false, 0);
+        second.traceId = "99";
+
+        cache.encode("aa:bb", device(), "1234", "token1", first);
+        final String templated = new String(cache.encode("aa:bb", device(), "1234", "token2", second),
+                StandardCharsets.UTF_8);
+
+        assertEquals(1, cache.size());
+        assertEquals(reflectiveEncoding(device(), second, "1234", "token2"), templated);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.dto.responses.v1.VesyncV1AirPurifierDeviceDetailsResponse;
+import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.RequestRejectedException;
+import org.openhab.binding.vesync.internal.exceptions.SessionRejectedException;
+
+/**
+ * The {@link VesyncResponseDecoderTest} class implements unit test case for {@link VesyncResponseDecoder}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncResponseDecoderTest {
+
+    @Test
+    public void decodesStreamDirectlyIntoType() throws AuthenticationException {
+        final String body = "{\"code\": 0, \"msg\": \"request success\", \"traceId\": \"1634255391\", "
+                + "\"deviceName\": \"Lounge Air Purifier\", \"level\": 2}";
+
+        final VesyncV1AirPurifierDeviceDetailsResponse response = VesyncResponseDecoder.decodeAccepted(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8,
+                VesyncV1AirPurifierDeviceDetailsResponse.class);
+
+        assertEquals("1634255391", response.getTraceId());
+        assertEquals("Lounge Air Purifier", response.getDeviceName());
+        assertEquals(2, response.getLevel());
+    }
+
+    @Test
+    public void acceptsDeviceOfflineEnvelope() throws AuthenticationException {
+        final VesyncResponse response = VesyncResponseDecoder.decodeAccepted(
+                new StringReader("{\"code\": -11300030, \"msg\": \"device offline\"}"), VesyncResponse.class);
+
+        assertEquals("-11300030", response.getCode());
+    }
+
+    @Test
+    public void rejectsFailedEnvelope() {
+        assertThrows(AuthenticationException.class, () -> VesyncResponseDecoder.decodeAccepted(
+                new StringReader("{\"code\": -11000000, \"msg\": \"request failed\"}"), VesyncResponse.class));
+    }
+
+    @Test
+    public void identifiesRejectedSession() {
+        assertThrows(SessionRejectedException.class, () -> VesyncResponseDecoder
+                .decodeAccepted(new StringReader("{\"code\": 4001004, \"msg\": \"token expired\"}"), VesyncResponse.class));
+    }
+
+    @Test
+    public void identifiesRejectedSessionByCodeOnly() throws AuthenticationException {
+        final AuthenticationException e = assertThrows(AuthenticationException.class,
+                () -> VesyncResponseDecoder.decodeAccepted(
+                        new StringReader("{\"code\": -11000000, \"msg\": \"token of the device is invalid\"}"),
+                        VesyncResponse.class));
+        assertFalse(e instanceof SessionRejectedException);
+
+        assertTrue(VesyncResponseDecoder.isSessionRejected(VesyncResponseDecoder
+                .decode(new StringReader("{\"code\": 4001004, \"msg\": \"request failed\"}"), VesyncResponse.class)));
+    }
+
+    @Test
+    public void identifiesThrottledRequestByConfiguredCode() {
+        final Set<String> throttledCodes = VesyncResponseDecoder.parseCodes(" -11003000, ,4290000");
+        assertEquals(Set.of("-11003000", "4290000"), throttledCodes);
+
+        final RequestRejectedException throttled = assertThrows(RequestRejectedException.class,
+                () -> VesyncResponseDecoder.decodeAccepted(
+                        new StringReader("{\"code\": -11003000, \"msg\": \"request failed\"}"), VesyncResponse.class));
+        assertTrue(VesyncResponseDecoder.isThrottled(throttled, throttledCodes));
+
+        final RequestRejectedException rejected = assertThrows(RequestRejectedException.class,
+                () -> VesyncResponseDecoder.decodeAccepted(
+                        new StringReader("{\"code\": -11000000, \"msg\": \"request failed\"}"), VesyncResponse.class));
+        assertFalse(VesyncResponseDecoder.isThrottled(rejected, throttledCodes));
+        assertFalse(VesyncResponseDecoder.isThrottled(throttled, VesyncResponseDecoder.parseCodes(null)));
+    }
+
+    @Test
+    public void rejectsMalformedAndEmptyBodies() {
+        assertThrows(AuthenticationException.class,
+                () -> VesyncResponseDecoder.decode(new StringReader("{\"msg\": "), VesyncResponse.class));
+        assertThrows(AuthenticationException.class,
+                () -> VesyncResponseDecoder.decode(new StringReader(""), VesyncResponse.class));
+    }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncLoginResponse;
+import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.SessionRejectedException;
+
+/**
+ * The {@link VesyncSessionManagerTest} class implements unit test case for {@link VesyncSessionManager}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncSessionManagerTest {
+
+    private static VesyncLoginResponse.VesyncUserSession session(final String token) {
+        final VesyncLoginResponse response = VeSyncConstants.GSON.fromJson(
+                "{\"msg\": \"request success\", \"result\": {\"token\": \"" + token + "\", \"accountID\": \"1\"}}",
+                VesyncLoginResponse.class);
+        if (response == null) {
+            return fail("GSON returned null");
+        }
+        return response.getUserSession();
+    }
+
+    @Test
+    public void concurrentRequestsShareOneLogin() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncSessionManager sessions = new VesyncSessionManager(clock::get, TimeUnit.HOURS.toNanos(1));
+        final CompletableFuture<VesyncLoginResponse.VesyncUserSession> login = new CompletableFuture<>();
+        sessions.setLogin(() -> login);
+
+        final List<CompletableFuture<VesyncLoginResponse.VesyncUserSession>> waiting = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            waiting.add(sessions.getSession());
+        }
+        final VesyncLoginResponse.VesyncUserSession established = session("t1");
+        login.complete(established);
+
+        assertEquals(1, sessions.getLoginCount());
+        waiting.forEach(future -> assertSame(established, future.join()));
+    }
+
+    @Test
+    public void rejectedRequestsAreReplayedAfterOneRelogin() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncSessionManager sessions = new VesyncSessionManager(clock::get, TimeUnit.HOURS.toNanos(1));
+        final AtomicInteger logins = new AtomicInteger();
+        sessions.setLogin(() -> CompletableFuture.completedFuture(session("t" + logins.incrementAndGet())));
+        sessions.login().join();
+
+        final List<CompletableFuture<String>> requests = new ArrayList<>();
+        for (int i = 0; i < 5; ++i) {
+            requests.add(sessions.execute(current -> "t1".equals(current.getToken())
+                    ? CompletableFuture.failedFuture(new SessionRejectedException("token expired"))
+                    : CompletableFuture.completedFuture(current.getToken())));
+        }
+
+        requests.forEach(request -> assertEquals("t2", request.join()));
+        assertEquals(2, sessions.getLoginCount());
+    }
+
+    @Test
+    public void expiredTokenTriggersLogin() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncSessionManager sessions = new VesyncSessionManager(clock::get, 1000);
+        final AtomicInteger logins = new AtomicInteger();
+        sessions.setLogin(() -> CompletableFuture.completedFuture(session("t" + logins.incrementAndGet())));
+
+        assertEquals("t1", sessions.getSession().join().getToken());
+        clock.set(999);
+        assertEquals("t1", sessions.getSession().join().getToken());
+        clock.set(1000);
+        assertEquals("t2", sessions.getSession().join().getToken());
+    }
+
+    @Test
+    public void failedLoginIsNotRetriedImmediately() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncSessionManager sessions = new VesyncSessionManager(clock::get, TimeUnit.HOURS.toNanos(1));
+        sessions.setLogin(() -> CompletableFuture.failedFuture(new AuthenticationException("bad password")));
+
+        assertTrue(sessions.getSession().isCompletedExceptionally());
+        assertTrue(sessions.getSession().isCompletedExceptionally());
+        assertEquals(1, sessions.getLoginCount());
+
+        clock.set(TimeUnit.SECONDS.toNanos(30));
+        assertTrue(sessions.getSession().isCompletedExceptionally());
+        assertEquals(2, sessions.getLoginCount());
+    }
+
+    @Test
+    public void restoredSessionIsUsedUntilItExpires() {
+        final AtomicLong clock = new AtomicLong();
+        final VesyncSessionManager sessions = new VesyncSessionManager(clock::get, 1000);
+        final AtomicInteger logins = new AtomicInteger();
+        sessions.setLogin(() -> CompletableFuture.completedFuture(session("t" + logins.incrementAndGet())));
+
+        assertFalse(sessions.restore(session("stale"), 1000));
+        assertTrue(sessions.restore(session("stored"), 600));
+        assertFalse(sessions.restore(session("other"), 0));
+
+        assertEquals("stored", sessions.getSession().join().getToken());
+        assertEquals(0, sessions.getLoginCount());
+        clock.set(400);
+        assertEquals("t1", sessions.getSession().join().getToken());
+    }
+}
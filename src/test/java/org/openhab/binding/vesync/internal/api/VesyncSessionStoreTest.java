@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncLoginResponse;
+
+/**
+ * The {@link VesyncSessionStoreTest} class implements unit test case for {@link VesyncSessionStore}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncSessionStoreTest {
+
+    private static VesyncLoginResponse.VesyncUserSession session(final String token) {
+        final VesyncLoginResponse response = VeSyncConstants.GSON.fromJson(
+                "{\"msg\": \"request success\", \"result\": {\"token\": \"" + token
+                        + "\", \"accountID\": \"1\", \"countryCode\": \"GB\"}}",
+                VesyncLoginResponse.class);
+        if (response == null) {
+            return fail("GSON returned null");
+        }
+        return response.getUserSession();
+    }
+
+    @Test
+    public void storedSessionIsReusedForSameAccountOnly() throws IOException {
+        final Path folder = Files.createTempDirectory("vesync");
+        final AtomicLong clock = new AtomicLong(1000);
+        final VesyncSessionStore store = new VesyncSessionStore(folder.resolve("sessions/bridge.session.json"),
+                clock::get);
+
+        store.save("account", session("t1"));
+        clock.set(4000);
+
+        final VesyncSessionStore.StoredSession stored = store.load("account");
+        if (stored == null) {
+            fail("Session was not stored");
+            return;
+        }
+        assertEquals("t1", stored.getSession().getToken());
+        assertEquals("1", stored.getSession().getAccountId());
+        assertEquals("GB", stored.getSession().countryCode);
+        assertEquals(3000, store.getAgeMillis(stored));
+        assertNull(store.load("other account"));
+
+        store.delete();
+        assertNull(store.load("account"));
+    }
+
+    @Test
+    public void failedWriteLeavesNoTemporaryFile() throws IOException {
+        final Path folder = Files.createTempDirectory("vesync");
+        final Path file = folder.resolve("bridge.session.json");
+        // A folder that is not empty cannot be replaced by the file
+        Files.createDirectories(file.resolve("occupied"));
+        final VesyncSessionStore store = new VesyncSessionStore(file, System::currentTimeMillis);
+
+        store.save("account", session("t1"));
+
+        try (Stream<Path> files = Files.list(folder)) {
+            assertEquals(List.of(file), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void storedSessionIsOnlyAccessibleByOwner() throws IOException {
+        if (!FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            return;
+        }
+        final Path file = Files.createTempDirectory("vesync").resolve("sessions/bridge.session.json");
+        new VesyncSessionStore(file).save("account", session("t1"));
+
+        assertEquals("rw-------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file)));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(file.getParent())));
+    }
+
+    @Test
+    public void unreadableSessionIsDiscarded() throws IOException {
+        final Path file = Files.createTempFile("vesync", ".session.json");
+        Files.write(file, "{\"account\": ".getBytes(StandardCharsets.UTF_8));
+
+        assertNull(new VesyncSessionStore(file).load("account"));
+        assertFalse(Files.exists(file));
+    }
+}
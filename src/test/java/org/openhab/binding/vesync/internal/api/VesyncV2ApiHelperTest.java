@@ -0,0 +1,190 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.requests.VesyncRequestManagedDeviceBypassV2;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassPurifierStatus;
+import org.openhab.binding.vesync.internal.exceptions.AuthenticationException;
+import org.openhab.binding.vesync.internal.exceptions.CredentialsRejectedException;
+import org.openhab.core.io.net.http.HttpClientFactory;
+
+/**
+ * The {@link VesyncV2ApiHelperTest} class implements integration test case for {@link VesyncV2ApiHelper}, against
+ * the {@link VesyncCloudStandIn}.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VesyncV2ApiHelperTest {
+
+    private static final HttpClientFactory HTTP_CLIENTS = new HttpClientFactory() {
+        @Override
+        public HttpClient createHttpClient(String consumerName) {
+            return new HttpClient();
+        }
+
+        @Override
+        public HttpClient getCommonHttpClient() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private static VesyncV2ApiHelper connect(final VesyncCloudStandIn standIn) {
+        final VesyncHttpTransport transport = new VesyncHttpTransport(HTTP_CLIENTS, "test");
+        transport.configureApiHost(standIn.getApiHost());
+        transport.start();
+        return new VesyncV2ApiHelper(transport);
+    }
+
+    private static VesyncRequestManagedDeviceBypassV2 purifierStatusRequest() {
+        final VesyncRequestManagedDeviceBypassV2 request = new VesyncRequestManagedDeviceBypassV2();
+        request.payload.method = DEVICE_GET_PURIFIER_STATUS;
+        return request;
+    }
+
+    private static VesyncRequestManagedDeviceBypassV2 switchOffRequest() {
+        final VesyncRequestManagedDeviceBypassV2 request = new VesyncRequestManagedDeviceBypassV2();
+        request.payload.method = DEVICE_SET_SWITCH;
+        request.payload.data = new VesyncRequestManagedDeviceBypassV2.SetSwitchPayload(false, 0);
+        return request;
+    }
+
+    @Test
+    public void discoversFleetAcrossConcurrentPages() throws IOException, AuthenticationException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(150, 100).withLatency(5, 20).start()) {
+            final VesyncV2ApiHelper api = connect(standIn);
+            try {
+                api.configureDiscovery(50, 4);
+                api.login("user@example.com", "md5", "Europe/London");
+
+                assertEquals(250, api.discoverDevices().getAdded().size());
+                assertEquals(250, api.getMacLookupMap().size());
+                assertEquals(5, standIn.getRequestCount(VesyncCloudStandIn.DEVICES_PATH));
+                assertEquals(0, api.discoverDevices().getChangedMacIds().size());
+            } finally {
+                api.getTransport().stop();
+            }
+        }
+    }
+
+    @Test
+    public void rejectedSessionIsReestablishedAndRequestReplayed()
+            throws IOException, AuthenticationException, InterruptedException, ExecutionException, TimeoutException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(1, 0).start()) {
+            final VesyncV2ApiHelper api = connect(standIn);
+            try {
+                api.login("user@example.com", "md5", "Europe/London");
+                api.discoverDevices();
+                standIn.expireSessions();
+
+                final VesyncV2BypassPurifierStatus status = api
+                        .reqV2AuthorizedStatusAsync(V2_BYPASS_ENDPOINT, standIn.getDevices().get(0).macId,
+                                purifierStatusRequest(), VesyncV2BypassPurifierStatus.class)
+                        .get(10, TimeUnit.SECONDS);
+
+                assertEquals("0", status.result.getCode());
+                assertEquals(2, api.getLoginCount());
+                assertEquals(2, standIn.getRequestCount(VesyncCloudStandIn.LOGIN_PATH));
+            } finally {
+                api.getTransport().stop();
+            }
+        }
+    }
+
+    @Test
+    public void loginRejectedByTheApiRejectsTheCredentials() throws IOException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(1, 0).start()) {
+            final VesyncV2ApiHelper api = connect(standIn);
+            try {
+                assertThrows(CredentialsRejectedException.class,
+                        () -> api.login("user@example.com", "", "Europe/London"));
+            } finally {
+                api.getTransport().stop();
+            }
+        }
+    }
+
+    @Test
+    public void loginUnauthorizedRejectsTheCredentials() throws IOException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(1, 0).withErrorRate(1, 401).start()) {
+            final VesyncV2ApiHelper api = connect(standIn);
+            try {
+                assertThrows(CredentialsRejectedException.class,
+                        () -> api.login("user@example.com", "md5", "Europe/London"));
+            } finally {
+                api.getTransport().stop();
+            }
+        }
+    }
+
+    @Test
+    public void loginFailingWithAServerErrorDoesNotRejectTheCredentials() throws IOException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(1, 0).withErrorRate(1, 503).start()) {
+            final VesyncV2ApiHelper api = connect(standIn);
+            try {
+                final AuthenticationException e = assertThrows(AuthenticationException.class,
+                        () -> api.login("user@example.com", "md5", "Europe/London"));
+                assertFalse(e instanceof CredentialsRejectedException);
+            } finally {
+                api.getTransport().stop();
+            }
+        }
+    }
+
+    @Test
+    public void commandIsSentAndDecodedWithoutBlockingAndFailuresCompleteTheFuture()
+            throws IOException, AuthenticationException, InterruptedException, ExecutionException, TimeoutException {
+        try (VesyncCloudStandIn standIn = new VesyncCloudStandIn(1, 0).withLatency(200, 200).start()) {
+            final VesyncV2ApiHelper api = connect(standIn);
+            try {
+                api.login("user@example.com", "md5", "Europe/London");
+                api.discoverDevices();
+                final String macId = standIn.getDevices().get(0).macId;
+
+                final CompletableFuture<String> command = api.reqV2AuthorizedAsync(V2_BYPASS_ENDPOINT, macId,
+                        switchOffRequest());
+                assertFalse(command.isDone());
+                final VesyncResponse response = VeSyncConstants.GSON.fromJson(command.get(10, TimeUnit.SECONDS),
+                        VesyncResponse.class);
+                assertTrue(response.isMsgSuccess());
+                assertFalse(standIn.getDevices().get(0).isEnabled());
+
+                standIn.withErrorRate(1, 500);
+                final CompletableFuture<String> failed = api.reqV2AuthorizedAsync(V2_BYPASS_ENDPOINT, macId,
+                        switchOffRequest());
+                final ExecutionException e = assertThrows(ExecutionException.class,
+                        () -> failed.get(10, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof AuthenticationException);
+            } finally {
+                api.getTransport().stop();
+            }
+        }
+    }
+}
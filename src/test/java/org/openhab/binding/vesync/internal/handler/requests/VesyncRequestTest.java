@@ -10,7 +10,7 @@
  *
  * SPDX-License-Identifier: EPL-2.0
  */
-package java.org.openhab.binding.vesync.internal.handler.requests;
+package org.openhab.binding.vesync.internal.handler.requests;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.handlers.VeSyncAdaptivePollPolicy.Observation;
+
+/**
+ * The {@link VeSyncAdaptivePollPolicyTest} class implements unit test case for {@link VeSyncAdaptivePollPolicy}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncAdaptivePollPolicyTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final VeSyncAdaptivePollPolicy policy = new VeSyncAdaptivePollPolicy(now::get);
+
+    public VeSyncAdaptivePollPolicyTest() {
+        policy.configure(10, 100, 2.0, 60, 600);
+    }
+
+    private void advanceSeconds(final long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    public void idleDeviceDecaysToTheCeiling() {
+        assertEquals(10, policy.getIntervalSeconds());
+        policy.onPollResult(Observation.UNCHANGED);
+        assertEquals(20, policy.getIntervalSeconds());
+        policy.onPollResult(Observation.POWERED_OFF);
+        assertEquals(40, policy.getIntervalSeconds());
+        policy.onPollResult(Observation.UNCHANGED);
+        policy.onPollResult(Observation.UNCHANGED);
+        assertEquals(100, policy.getIntervalSeconds());
+    }
+
+    @Test
+    public void activityPollsAtTheFloorForTheWindow() {
+        policy.onPollResult(Observation.UNCHANGED);
+        policy.onPollResult(Observation.UNCHANGED);
+        policy.onActivity();
+        assertEquals(10, policy.getIntervalSeconds());
+
+        // Idle polls within the window do not slow the polling down
+        advanceSeconds(30);
+        policy.onPollResult(Observation.UNCHANGED);
+        assertEquals(10, policy.getIntervalSeconds());
+
+        // A change restarts the window
+        advanceSeconds(20);
+        policy.onPollResult(Observation.CHANGED);
+        advanceSeconds(50);
+        policy.onPollResult(Observation.UNCHANGED);
+        assertEquals(10, policy.getIntervalSeconds());
+
+        advanceSeconds(20);
+        policy.onPollResult(Observation.UNCHANGED);
+        assertEquals(20, policy.getIntervalSeconds());
+    }
+
+    @Test
+    public void offlineDevicePollsAtTheHeartbeat() {
+        policy.onPollResult(Observation.OFFLINE);
+        assertTrue(policy.isOffline());
+        assertEquals(600, policy.getIntervalSeconds());
+
+        // Seen again, the device is polled at the floor in case it was used while offline
+        policy.onPollResult(Observation.UNCHANGED);
+        assertFalse(policy.isOffline());
+        assertEquals(10, policy.getIntervalSeconds());
+    }
+
+    @Test
+    public void ceilingBelowTheFloorPollsAtAFixedRate() {
+        policy.configure(30, 5, 2.0, 60, 600);
+        policy.onPollResult(Observation.UNCHANGED);
+        policy.onPollResult(Observation.POWERED_OFF);
+        assertEquals(30, policy.getIntervalSeconds());
+    }
+}
@@ -0,0 +1,404 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.openhab.binding.vesync.internal.VeSyncConstants.DEVICE_CHANNEL_AF_AUTO_OFF_CALC_TIME;
+import static org.openhab.binding.vesync.internal.VeSyncConstants.DEVICE_CHANNEL_AIRQUALITY_BASIC;
+import static org.openhab.binding.vesync.internal.VeSyncConstants.DEVICE_CHANNEL_ENABLED;
+import static org.openhab.binding.vesync.internal.VeSyncConstants.DEVICE_CHANNEL_FAN_MODE_ENABLED;
+import static org.openhab.binding.vesync.internal.VeSyncConstants.THING_TYPE_AIR_PURIFIER;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.MODE_OFF;
+import static org.openhab.binding.vesync.internal.dto.requests.VeSyncProtocolConstants.MODE_ON;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.vesync.internal.VeSyncBridgeConfiguration;
+import org.openhab.binding.vesync.internal.VeSyncConstants;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncManagedDevicesPage;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncResponse;
+import org.openhab.binding.vesync.internal.dto.responses.VesyncV2BypassPurifierStatus;
+import org.openhab.core.cache.ExpiringCache;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatus;
+import org.openhab.core.thing.ThingStatusDetail;
+import org.openhab.core.thing.ThingStatusInfo;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+import org.openhab.core.thing.binding.builder.ThingBuilder;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link VeSyncBaseDeviceHandlerTest} class implements unit test case for {@link VeSyncBaseDeviceHandler}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncBaseDeviceHandlerTest {
+
+    private static final int DEVICE_LIST_REFRESH_INTERVAL = 60;
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger polls = new AtomicInteger();
+    private final AtomicInteger offlineProbes = new AtomicInteger();
+    private final VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase deviceListEntry = newDeviceListEntry();
+    private final Thing thing = ThingBuilder.create(THING_TYPE_AIR_PURIFIER, "purifier").build();
+    private final VeSyncPollScheduler pollScheduler = new VeSyncPollScheduler(now::get, 100);
+
+    // The status the device reports when polled, if any
+    private volatile @Nullable VesyncV2BypassPurifierStatus deviceStatus;
+
+    // While set, polls wait for the responses the test completes, in place of the status the device reports
+    private volatile boolean deferResponses = false;
+    private final Queue<CompletableFuture<@Nullable VesyncV2BypassPurifierStatus>> pendingResponses =
+            new ConcurrentLinkedQueue<>();
+
+    // The channels the callback reports as linked, and the states published to the channels
+    private final Set<String> linked = ConcurrentHashMap.newKeySet();
+    private final Map<String, State> published = new ConcurrentHashMap<>();
+
+    private final VeSyncBaseDeviceHandler handler = new VeSyncDeviceAirPurifierHandler(thing, now::get) {
+        @Override
+        VesyncManagedDevicesPage.Result.@Nullable VesyncManagedDeviceBase getDeviceListEntry() {
+            return deviceListEntry;
+        }
+
+        @Override
+        @Nullable VeSyncPollScheduler getPollScheduler() {
+            return pollScheduler;
+        }
+
+        @Override
+        protected CompletableFuture<?> pollForDeviceData(final ExpiringCache<VesyncResponse> cachedResponse,
+                final boolean offlineProbe) {
+            final VesyncResponse response = cachedResponse.getValue();
+            if (response instanceof VesyncV2BypassPurifierStatus) {
+                applyV2BypassPollResult((VesyncV2BypassPurifierStatus) response, cachedResponse, true);
+                return CompletableFuture.completedFuture(null);
+            }
+            polls.incrementAndGet();
+            if (offlineProbe) {
+                offlineProbes.incrementAndGet();
+            }
+            if (deferResponses) {
+                final CompletableFuture<@Nullable VesyncV2BypassPurifierStatus> pending = new CompletableFuture<>();
+                pendingResponses.add(pending);
+                return requestPollResult(() -> pending,
+                        status -> applyV2BypassPollResult(status, cachedResponse, false));
+            }
+            applyV2BypassPollResult(deviceStatus, cachedResponse, false);
+            return CompletableFuture.completedFuture(null);
+        }
+    };
+
+    public VeSyncBaseDeviceHandlerTest() {
+        thing.setStatusInfo(new ThingStatusInfo(ThingStatus.ONLINE, ThingStatusDetail.NONE, null));
+        handler.setCallback(createCallback());
+        final VeSyncBridgeConfiguration config = new VeSyncBridgeConfiguration();
+        config.piggybackPolling = true;
+        config.deviceListRefreshInterval = DEVICE_LIST_REFRESH_INTERVAL;
+        handler.updateBackgroundPolling(config);
+    }
+
+    private ThingHandlerCallback createCallback() {
+        return (ThingHandlerCallback) Proxy.newProxyInstance(ThingHandlerCallback.class.getClassLoader(),
+                new Class<?>[] { ThingHandlerCallback.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "stateUpdated":
+                            published.put(((ChannelUID) args[0]).getId(), (State) args[1]);
+                            return null;
+                        case "statusUpdated":
+                            ((Thing) args[0]).setStatusInfo((ThingStatusInfo) args[1]);
+                            return null;
+                        case "isChannelLinked":
+                            return linked.contains(((ChannelUID) args[0]).getId());
+                        default:
+                            return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                    }
+                });
+    }
+
+    private void advanceSeconds(final long seconds) {
+        now.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private void link(final String channelID) {
+        linked.add(channelID);
+        handler.channelLinked(new ChannelUID(thing.getUID(), channelID));
+    }
+
+    private void unlink(final String channelID) {
+        linked.remove(channelID);
+        handler.channelUnlinked(new ChannelUID(thing.getUID(), channelID));
+    }
+
+    private static VesyncManagedDevicesPage.Result.VesyncManagedDeviceBase newDeviceListEntry() {
+        return new VesyncManagedDevicesPage().new Result().new VesyncManagedDeviceBase();
+    }
+
+    private static VesyncV2BypassPurifierStatus purifierStatus(final String mode, final int airQuality) {
+        return VeSyncConstants.GSON.fromJson("{\"traceId\":\"1\",\"code\":0,\"msg\":\"request success\","
+                + "\"result\":{\"code\":0,\"result\":{\"enabled\":true,\"mode\":\"" + mode
+                + "\",\"level\":1,\"air_quality\":" + airQuality + ",\"configuration\":{\"display\":true,"
+                + "\"display_forever\":false,\"auto_preference\":{\"type\":\"default\",\"room_size\":0}}}}}",
+                VesyncV2BypassPurifierStatus.class);
+    }
+
+    private void deviceListReports(final String connectionStatus, final String deviceStatus) {
+        deviceListEntry.connectionStatus = connectionStatus;
+        deviceListEntry.deviceStatus = deviceStatus;
+        handler.updateFromDeviceList();
+    }
+
+    @Test
+    public void devicesTheDeviceListReportsOffAreNotPolledOnceDetailed() {
+        deviceListReports("online", MODE_OFF);
+
+        // The first poll fills in what the device list does not have
+        handler.backgroundPoll();
+        assertEquals(1, polls.get());
+
+        assertTrue(handler.isPollCoveredByDeviceList());
+        handler.backgroundPoll();
+        handler.backgroundPoll();
+        assertEquals(1, polls.get());
+    }
+
+    @Test
+    public void devicesTheDeviceListReportsOfflineAreNotPolledOnceDetailed() {
+        deviceListReports("online", MODE_ON);
+        handler.backgroundPoll();
+        assertEquals(1, polls.get());
+
+        deviceListReports("offline", MODE_ON);
+        assertTrue(handler.isPollCoveredByDeviceList());
+        handler.backgroundPoll();
+        assertEquals(1, polls.get());
+    }
+
+    @Test
+    public void pollingResumesWhenTheDeviceListReportsTheDeviceOnlineAgain() {
+        deviceListReports("online", MODE_ON);
+        handler.backgroundPoll();
+        deviceListReports("offline", MODE_ON);
+        handler.backgroundPoll();
+        assertEquals(1, polls.get());
+
+        deviceListReports("online", MODE_ON);
+        assertFalse(handler.isPollCoveredByDeviceList());
+        handler.backgroundPoll();
+        assertEquals(2, polls.get());
+    }
+
+    @Test
+    public void pollingResumesWhenTheDeviceListReportsTheDeviceSwitchedOn() {
+        deviceListReports("online", MODE_OFF);
+        handler.backgroundPoll();
+        handler.backgroundPoll();
+        assertEquals(1, polls.get());
+
+        // Switched on away from openHAB, so the device is read back in full
+        deviceListReports("online", MODE_ON);
+        assertFalse(handler.isPollCoveredByDeviceList());
+        handler.backgroundPoll();
+        assertEquals(2, polls.get());
+        handler.backgroundPoll();
+        assertEquals(3, polls.get());
+    }
+
+    @Test
+    public void staleDeviceListDoesNotCoverPolls() {
+        deviceListReports("online", MODE_OFF);
+        handler.backgroundPoll();
+
+        advanceSeconds(DEVICE_LIST_REFRESH_INTERVAL);
+        assertTrue(handler.isPollCoveredByDeviceList());
+
+        // One refresh of the device list may be missed, but no more
+        advanceSeconds(DEVICE_LIST_REFRESH_INTERVAL);
+        assertFalse(handler.isPollCoveredByDeviceList());
+        handler.backgroundPoll();
+        assertEquals(2, polls.get());
+
+        // A refresh of the device list covers the polls again
+        deviceListReports("online", MODE_OFF);
+        assertTrue(handler.isPollCoveredByDeviceList());
+    }
+
+    @Test
+    public void devicesAreAlwaysPolledWithoutPiggybackPolling() {
+        final VeSyncBridgeConfiguration config = new VeSyncBridgeConfiguration();
+        config.piggybackPolling = false;
+        handler.updateBackgroundPolling(config);
+
+        deviceListReports("online", MODE_OFF);
+        handler.backgroundPoll();
+        handler.backgroundPoll();
+        assertEquals(2, polls.get());
+    }
+
+    @Test
+    public void devicesWithoutLinkedChannelsAreNotPolled() {
+        assertFalse(pollScheduler.isScheduled(handler.getPollKey()));
+
+        // Nor polled on request, e.g. after a command or when the device list reports a change
+        handler.requestPoll(0);
+        deviceListReports("online", MODE_ON);
+        assertFalse(pollScheduler.isScheduled(handler.getPollKey()));
+        advanceSeconds(60);
+        pollScheduler.advance();
+        assertEquals(0, polls.get());
+    }
+
+    @Test
+    public void linkingAChannelResumesPolling() {
+        link(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        assertTrue(pollScheduler.isScheduled(handler.getPollKey()));
+        advanceSeconds(1);
+        pollScheduler.advance();
+        assertEquals(1, polls.get());
+
+        // Polled in the background from then on
+        assertTrue(pollScheduler.isScheduled(handler.getPollKey()));
+
+        unlink(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        assertFalse(pollScheduler.isScheduled(handler.getPollKey()));
+    }
+
+    @Test
+    public void unlinkedChannelsAreNotPublished() {
+        link(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+
+        handler.updateState(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType("auto"));
+        handler.updateState(DEVICE_CHANNEL_AF_AUTO_OFF_CALC_TIME, new StringType("12:00"));
+        handler.updateState(DEVICE_CHANNEL_ENABLED, OnOffType.ON);
+
+        assertEquals(Map.of(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType("auto")), published);
+        assertFalse(handler.isChannelLinked(DEVICE_CHANNEL_ENABLED));
+    }
+
+    @Test
+    public void unchangedStatesAreNotPublishedAgain() {
+        link(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        link(DEVICE_CHANNEL_AIRQUALITY_BASIC);
+        deviceStatus = purifierStatus("auto", 1);
+        handler.pollForUpdate();
+        assertEquals(Map.of(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType("auto"), DEVICE_CHANNEL_AIRQUALITY_BASIC,
+                VeSyncStateCache.number(1)), published);
+
+        // A fresh poll, of which only the air quality has changed
+        published.clear();
+        handler.lastPollResultCache.invalidateValue();
+        deviceStatus = purifierStatus("auto", 2);
+        handler.pollForUpdate();
+        assertEquals(2, polls.get());
+        assertEquals(Map.of(DEVICE_CHANNEL_AIRQUALITY_BASIC, VeSyncStateCache.number(2)), published);
+
+        // Nothing has changed
+        published.clear();
+        final long suppressed = handler.getSuppressedStateUpdates();
+        handler.lastPollResultCache.invalidateValue();
+        handler.pollForUpdate();
+        assertEquals(3, polls.get());
+        assertTrue(published.isEmpty());
+        assertTrue(handler.getSuppressedStateUpdates() > suppressed);
+    }
+
+    @Test
+    public void refreshPublishesEveryLinkedChannelAgain() {
+        link(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        link(DEVICE_CHANNEL_AIRQUALITY_BASIC);
+        deviceStatus = purifierStatus("auto", 1);
+        handler.pollForUpdate();
+
+        published.clear();
+        handler.refreshStates();
+        // From the cached result of the last poll
+        assertEquals(1, polls.get());
+        assertEquals(Map.of(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType("auto"), DEVICE_CHANNEL_AIRQUALITY_BASIC,
+                VeSyncStateCache.number(1)), published);
+
+        // Only the refresh is forced
+        published.clear();
+        handler.pollForUpdate();
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    public void relinkedChannelIsPublishedAgain() {
+        link(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        link(DEVICE_CHANNEL_AIRQUALITY_BASIC);
+        deviceStatus = purifierStatus("auto", 1);
+        handler.pollForUpdate();
+
+        unlink(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        link(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        published.clear();
+        handler.lastPollResultCache.invalidateValue();
+        handler.pollForUpdate();
+        assertEquals(Map.of(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType("auto")), published);
+    }
+
+    @Test
+    public void onlyTheHeartbeatPollOfAnOfflineDeviceIsAProbe() {
+        handler.backgroundPoll();
+        assertEquals(1, polls.get());
+        assertEquals(0, offlineProbes.get());
+
+        handler.onPollFoundOffline();
+        handler.backgroundPoll();
+        assertEquals(2, polls.get());
+        assertEquals(1, offlineProbes.get());
+
+        // A poll for another reason meanwhile is not let through while the device is offline
+        handler.pollForUpdate();
+        assertEquals(3, polls.get());
+        assertEquals(1, offlineProbes.get());
+    }
+
+    @Test
+    public void responseToAnEarlierPollIsDroppedOnceALaterOneIsApplied() throws Exception {
+        link(DEVICE_CHANNEL_FAN_MODE_ENABLED);
+        deferResponses = true;
+        final CompletableFuture<?> first = handler.pollForUpdate();
+        final CompletableFuture<?> second = handler.pollForUpdate();
+        final CompletableFuture<@Nullable VesyncV2BypassPurifierStatus> firstResponse = pendingResponses.remove();
+
+        pendingResponses.remove().complete(purifierStatus("sleep", 1));
+        second.get(5, TimeUnit.SECONDS);
+        firstResponse.complete(purifierStatus("auto", 1));
+        first.get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, polls.get());
+        assertEquals(Map.of(DEVICE_CHANNEL_FAN_MODE_ENABLED, new StringType("sleep")), published);
+        final VesyncResponse cached = handler.lastPollResultCache.getValue();
+        assertTrue(cached instanceof VesyncV2BypassPurifierStatus);
+        assertEquals("sleep", ((VesyncV2BypassPurifierStatus) cached).result.result.mode);
+    }
+}
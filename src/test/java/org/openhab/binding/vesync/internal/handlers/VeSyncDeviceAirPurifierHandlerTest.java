@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VeSyncDeviceAirPurifierHandlerTest} class implements unit test case for
+ * {@link VeSyncDeviceAirPurifierHandler}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncDeviceAirPurifierHandlerTest {
+
+    @Test
+    public void timerExpiryIsStableBetweenPolls() {
+        final LocalDateTime start = LocalDateTime.of(2022, 6, 1, 12, 0, 0, 250_000_000);
+        final LocalDateTime expiry = VeSyncDeviceAirPurifierHandler.stableTimerExpiry(null, start, 3600);
+        assertEquals(LocalDateTime.of(2022, 6, 1, 13, 0, 0), expiry);
+
+        // A later poll, whose request took a few seconds longer
+        assertEquals(expiry, VeSyncDeviceAirPurifierHandler.stableTimerExpiry(expiry, start.plusSeconds(120), 3484));
+
+        // The timer was set again
+        assertEquals(LocalDateTime.of(2022, 6, 1, 14, 2, 0),
+                VeSyncDeviceAirPurifierHandler.stableTimerExpiry(expiry, start.plusSeconds(120), 7200));
+    }
+}
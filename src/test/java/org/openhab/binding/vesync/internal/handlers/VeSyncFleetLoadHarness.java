@@ -0,0 +1,507 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.openhab.binding.vesync.internal.VeSyncConstants.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.openhab.binding.vesync.internal.api.VesyncCloudStandIn;
+import org.openhab.binding.vesync.internal.api.VesyncHttpTransport;
+import org.openhab.binding.vesync.internal.api.VesyncV2ApiHelper;
+import org.openhab.core.OpenHAB;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.Configuration;
+import org.openhab.core.io.net.http.HttpClientFactory;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatus;
+import org.openhab.core.thing.ThingStatusInfo;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.BaseThingHandler;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+import org.openhab.core.thing.binding.builder.BridgeBuilder;
+import org.openhab.core.thing.binding.builder.ThingBuilder;
+import org.openhab.core.thing.internal.BridgeImpl;
+
+/**
+ * The {@link VeSyncFleetLoadHarness} runs the real bridge, air purifier and humidifier handlers for a simulated fleet
+ * against the {@link VesyncCloudStandIn}, for a fixed duration, and reports what it cost: requests per second, poll
+ * latency percentiles, the depth of the thing handler scheduler's queue, how late the bridge dispatched polls, the
+ * number of threads and the growth of the heap. The framework is replaced by a minimal callback that tracks the status of each thing.
+ *
+ * Run {@link #main(String[])} with the fleet sizes to test, e.g. {@code 100 500 1000}. The duration, poll interval
+ * and stand-in latency are set with the {@code vesync.loadtest.*} system properties, and any parameter of the bridge
+ * with {@code vesync.loadtest.bridge.<parameter>}, e.g. {@code -Dvesync.loadtest.bridge.apiRequestsPerMinute=6000}.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncFleetLoadHarness {
+
+    public static final int[] DEFAULT_FLEET_SIZES = { 100, 500, 1000 };
+    public static final int DEFAULT_DURATION_SECONDS = 120;
+    public static final int DEFAULT_POLL_INTERVAL_SECONDS = 30;
+    public static final int DEFAULT_MIN_LATENCY_MILLIS = 20;
+    public static final int DEFAULT_MAX_LATENCY_MILLIS = 150;
+
+    private static final String PROPERTY_PREFIX = "vesync.loadtest.";
+    private static final String BRIDGE_PROPERTY_PREFIX = PROPERTY_PREFIX + "bridge.";
+
+    // The pool BaseThingHandler schedules on
+    private static final String THING_HANDLER_POOL = "thingHandler";
+
+    private static final long BRIDGE_ONLINE_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(60);
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000;
+
+    // The channels of each device items are linked to, those not applicable to the type of the device are ignored
+    private static final String[] LINKED_CHANNELS = { DEVICE_CHANNEL_ENABLED, DEVICE_CHANNEL_FAN_MODE_ENABLED,
+            DEVICE_CHANNEL_FAN_SPEED_ENABLED, DEVICE_CHANNEL_AIRQUALITY_PPM25, DEVICE_CHANNEL_HUMIDIFIER_MODE,
+            DEVICE_CHANNEL_HUMIDITY, DEVICE_CHANNEL_MIST_LEVEL };
+
+    private static final HttpClientFactory HTTP_CLIENTS = new HttpClientFactory() {
+        @Override
+        public HttpClient createHttpClient(String consumerName) {
+            return new HttpClient();
+        }
+
+        @Override
+        public HttpClient getCommonHttpClient() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private final int fleetSize;
+    private int durationSeconds = DEFAULT_DURATION_SECONDS;
+    private int pollIntervalSeconds = DEFAULT_POLL_INTERVAL_SECONDS;
+    private long minLatencyMillis = DEFAULT_MIN_LATENCY_MILLIS;
+    private long maxLatencyMillis = DEFAULT_MAX_LATENCY_MILLIS;
+    private final Map<String, Object> bridgeParameters = new HashMap<>();
+
+    private final Map<ThingUID, BaseThingHandler> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * @param fleetSize - the number of devices, half of which are air purifiers and half humidifiers
+     */
+    public VeSyncFleetLoadHarness(final int fleetSize) {
+        this.fleetSize = fleetSize;
+    }
+
+    public VeSyncFleetLoadHarness withDuration(final int seconds) {
+        durationSeconds = Math.max(1, seconds);
+        return this;
+    }
+
+    public VeSyncFleetLoadHarness withPollInterval(final int seconds) {
+        pollIntervalSeconds = Math.max(1, seconds);
+        return this;
+    }
+
+    public VeSyncFleetLoadHarness withLatency(final long minMillis, final long maxMillis) {
+        minLatencyMillis = minMillis;
+        maxLatencyMillis = maxMillis;
+        return this;
+    }
+
+    /**
+     * Set a parameter of the bridge, as it would be configured for the bridge thing.
+     */
+    public VeSyncFleetLoadHarness withBridgeParameter(final String name, final Object value) {
+        bridgeParameters.put(name, value);
+        return this;
+    }
+
+    /**
+     * Start the stand-in and the handlers, let the handlers poll for the configured duration and stop them again.
+     *
+     * @return - the report of the run, covering the time after all handlers were initialized
+     */
+    public Report run() throws IOException, InterruptedException {
+        final Path userData = Files.createTempDirectory("vesync-load");
+        final @Nullable String previousUserData = System.getProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT);
+        System.setProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT, userData.toString());
+        final int purifiers = fleetSize / 2;
+        try (VesyncCloudStandIn cloud = new VesyncCloudStandIn(purifiers, fleetSize - purifiers)
+                .withLatency(minLatencyMillis, maxLatencyMillis).start()) {
+            final Map<String, Object> parameters = new HashMap<>();
+            parameters.put("username", "loadtest@example.com");
+            parameters.put("password", "loadtest");
+            parameters.put("apiHost", cloud.getApiHost());
+            parameters.put("airPurifierPollInterval", BigDecimal.valueOf(pollIntervalSeconds));
+            parameters.putAll(bridgeParameters);
+            final BridgeImpl bridge = (BridgeImpl) BridgeBuilder.create(THING_TYPE_BRIDGE, "loadtest")
+                    .withConfiguration(new Configuration(parameters)).build();
+            final ThingHandlerCallback callback = createCallback(bridge);
+
+            final VeSyncBridgeHandler bridgeHandler = new VeSyncBridgeHandler(bridge,
+                    new VesyncV2ApiHelper(new VesyncHttpTransport(HTTP_CLIENTS, bridge.getUID().getId())));
+            start(bridge, bridgeHandler, callback);
+            try {
+                awaitOnline(bridge);
+                for (VesyncCloudStandIn.Device device : cloud.getDevices()) {
+                    final Thing thing = ThingBuilder
+                            .create(device.purifier ? THING_TYPE_AIR_PURIFIER : THING_TYPE_AIR_HUMIDIFIER,
+                                    new ThingUID(device.purifier ? THING_TYPE_AIR_PURIFIER : THING_TYPE_AIR_HUMIDIFIER,
+                                            bridge.getUID(), device.cid))
+                            .withBridge(bridge.getUID()).withLabel(device.deviceName)
+                            .withConfiguration(new Configuration(Map.of("macId", device.macId))).build();
+                    bridge.addThing(thing);
+                    final BaseThingHandler handler = device.purifier ? new VeSyncDeviceAirPurifierHandler(thing)
+                            : new VeSyncDeviceAirHumidifierHandler(thing);
+                    start(thing, handler, callback);
+                    // Link items as a user would, the devices are only polled while channels are linked
+                    for (String channelID : LINKED_CHANNELS) {
+                        handler.channelLinked(new ChannelUID(thing.getUID(), channelID));
+                    }
+                }
+                return measure(cloud, bridge, bridgeHandler.getPollScheduler());
+            } finally {
+                for (BaseThingHandler handler : handlers.values()) {
+                    if (handler != bridgeHandler) {
+                        handler.dispose();
+                    }
+                }
+                bridgeHandler.dispose();
+                handlers.clear();
+            }
+        } finally {
+            if (previousUserData != null) {
+                System.setProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT, previousUserData);
+            } else {
+                System.clearProperty(OpenHAB.USERDATA_DIR_PROG_ARGUMENT);
+            }
+            try (Stream<Path> files = Files.walk(userData)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private void start(final Thing thing, final BaseThingHandler handler, final ThingHandlerCallback callback) {
+        handlers.put(thing.getUID(), handler);
+        thing.setHandler(handler);
+        handler.setCallback(callback);
+        handler.initialize();
+    }
+
+    private static void awaitOnline(final Thing bridge) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + BRIDGE_ONLINE_TIMEOUT_MILLIS;
+        while (!ThingStatus.ONLINE.equals(bridge.getStatus())) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("The bridge did not come online: " + bridge.getStatusInfo());
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private Report measure(final VesyncCloudStandIn cloud, final BridgeImpl bridge,
+            final VeSyncPollScheduler pollScheduler) throws InterruptedException {
+        final ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(THING_HANDLER_POOL);
+        final long heapBefore = usedHeapAfterGc();
+        cloud.resetStatistics();
+        pollScheduler.snapshotStatistics();
+
+        final long start = System.nanoTime();
+        final long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        int samples = 0;
+        long queueDepthSum = 0;
+        int maxQueueDepth = 0;
+        int peakThreads = 0;
+        int peakBindingThreads = 0;
+        while (System.nanoTime() < end) {
+            Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+            final int queueDepth = getOverdueTasks(scheduler);
+            queueDepthSum += queueDepth;
+            maxQueueDepth = Math.max(maxQueueDepth, queueDepth);
+            peakThreads = Math.max(peakThreads, ManagementFactory.getThreadMXBean().getThreadCount());
+            peakBindingThreads = Math.max(peakBindingThreads, countBindingThreads());
+            ++samples;
+        }
+        final double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        final long maxPollLateByMillis = pollScheduler.snapshotStatistics().values().stream()
+                .mapToLong(VeSyncPollScheduler.Statistics::getMaxLateByMillis).max().orElse(0);
+
+        final long onlineThings = bridge.getThings().stream().filter(th -> ThingStatus.ONLINE.equals(th.getStatus()))
+                .count();
+        return new Report(fleetSize, elapsedSeconds, cloud.getRequestCount(), cloud.getDeviceRequestCount(),
+                cloud.getDeviceRequestLatencyPercentile(50), cloud.getDeviceRequestLatencyPercentile(90),
+                cloud.getDeviceRequestLatencyPercentile(99), cloud.getDeviceRequestLatencyPercentile(100),
+                samples > 0 ? (double) queueDepthSum / samples : 0, maxQueueDepth, maxPollLateByMillis, peakThreads,
+                peakBindingThreads, usedHeapAfterGc() - heapBefore, onlineThings);
+    }
+
+    /**
+     * @return - the number of tasks of the scheduler that are due to run but waiting for a thread.
+     */
+    private static int getOverdueTasks(final ScheduledExecutorService scheduler) {
+        if (!(scheduler instanceof ThreadPoolExecutor)) {
+            return 0;
+        }
+        int overdue = 0;
+        for (Runnable task : ((ThreadPoolExecutor) scheduler).getQueue()) {
+            if (task instanceof Delayed && ((Delayed) task).getDelay(TimeUnit.MILLISECONDS) <= 0) {
+                ++overdue;
+            }
+        }
+        return overdue;
+    }
+
+    private static int countBindingThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        final Thread[] threads = new Thread[root.activeCount() * 2];
+        final int count = root.enumerate(threads, true);
+        int bindingThreads = 0;
+        for (int i = 0; i < count; ++i) {
+            if (!threads[i].getName().startsWith(VesyncCloudStandIn.THREAD_NAME_PREFIX)) {
+                ++bindingThreads;
+            }
+        }
+        return bindingThreads;
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Create the callback standing in for the framework. It keeps the status of each thing, keeps the things of the
+     * bridge up to date as handlers edit them and reports every channel as linked.
+     */
+    private ThingHandlerCallback createCallback(final BridgeImpl bridge) {
+        return (ThingHandlerCallback) Proxy.newProxyInstance(ThingHandlerCallback.class.getClassLoader(),
+                new Class<?>[] { ThingHandlerCallback.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "statusUpdated":
+                            ((Thing) args[0]).setStatusInfo((ThingStatusInfo) args[1]);
+                            return null;
+                        case "thingUpdated":
+                            thingUpdated(bridge, (Thing) args[0]);
+                            return null;
+                        case "getBridge":
+                            return bridge.getUID().equals(args[0]) ? bridge : null;
+                        case "isChannelLinked":
+                            return true;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "VeSync load test callback";
+                        default:
+                            return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+                    }
+                });
+    }
+
+    private void thingUpdated(final BridgeImpl bridge, final Thing updated) {
+        if (updated == bridge) {
+            return;
+        }
+        final BaseThingHandler handler = handlers.get(updated.getUID());
+        if (handler != null) {
+            updated.setHandler(handler);
+        }
+        for (Thing current : bridge.getThings()) {
+            if (current != updated && current.getUID().equals(updated.getUID())) {
+                // An edited thing is a new instance, carry the status over as the framework does
+                updated.setStatusInfo(current.getStatusInfo());
+                bridge.removeThing(current);
+                bridge.addThing(updated);
+                break;
+            }
+        }
+    }
+
+    /**
+     * The results of a run.
+     */
+    public static final class Report {
+        private final int fleetSize;
+        private final double elapsedSeconds;
+        private final long requests;
+        private final long devicePolls;
+        private final long p50LatencyMillis;
+        private final long p90LatencyMillis;
+        private final long p99LatencyMillis;
+        private final long maxLatencyMillis;
+        private final double meanQueueDepth;
+        private final int maxQueueDepth;
+        private final long maxPollLateByMillis;
+        private final int peakThreads;
+        private final int peakBindingThreads;
+        private final long heapGrowthBytes;
+        private final long onlineThings;
+
+        Report(final int fleetSize, final double elapsedSeconds, final long requests, final long devicePolls,
+                final long p50LatencyMillis, final long p90LatencyMillis, final long p99LatencyMillis,
+                final long maxLatencyMillis, final double meanQueueDepth, final int maxQueueDepth,
+                final long maxPollLateByMillis, final int peakThreads, final int peakBindingThreads,
+                final long heapGrowthBytes, final long onlineThings) {
+            this.fleetSize = fleetSize;
+            this.elapsedSeconds = elapsedSeconds;
+            this.requests = requests;
+            this.devicePolls = devicePolls;
+            this.p50LatencyMillis = p50LatencyMillis;
+            this.p90LatencyMillis = p90LatencyMillis;
+            this.p99LatencyMillis = p99LatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+            this.meanQueueDepth = meanQueueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+            this.maxPollLateByMillis = maxPollLateByMillis;
+            this.peakThreads = peakThreads;
+            this.peakBindingThreads = peakBindingThreads;
+            this.heapGrowthBytes = heapGrowthBytes;
+            this.onlineThings = onlineThings;
+        }
+
+        public int getFleetSize() {
+            return fleetSize;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public double getRequestsPerSecond() {
+            return elapsedSeconds > 0 ? requests / elapsedSeconds : 0;
+        }
+
+        public long getDevicePolls() {
+            return devicePolls;
+        }
+
+        public long getP50LatencyMillis() {
+            return p50LatencyMillis;
+        }
+
+        public long getP90LatencyMillis() {
+            return p90LatencyMillis;
+        }
+
+        public long getP99LatencyMillis() {
+            return p99LatencyMillis;
+        }
+
+        public long getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+
+        public double getMeanQueueDepth() {
+            return meanQueueDepth;
+        }
+
+        public int getMaxQueueDepth() {
+            return maxQueueDepth;
+        }
+
+        public long getMaxPollLateByMillis() {
+            return maxPollLateByMillis;
+        }
+
+        public int getPeakThreads() {
+            return peakThreads;
+        }
+
+        public int getPeakBindingThreads() {
+            return peakBindingThreads;
+        }
+
+        public long getHeapGrowthBytes() {
+            return heapGrowthBytes;
+        }
+
+        public long getOnlineThings() {
+            return onlineThings;
+        }
+
+        public static String header() {
+            return String.format(Locale.ROOT, "%7s %8s %9s %7s %7s %7s %7s %9s %9s %9s %8s %8s %10s %7s",
+                    "devices", "req/s", "polls", "p50ms", "p90ms", "p99ms", "maxms", "queueAvg", "queueMax",
+                    "lateMaxMs", "threads", "binding", "heapKiB", "online");
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%7d %8.1f %9d %7d %7d %7d %7d %9.1f %9d %9d %8d %8d %10d %7d",
+                    fleetSize, getRequestsPerSecond(), devicePolls, p50LatencyMillis, p90LatencyMillis,
+                    p99LatencyMillis, maxLatencyMillis, meanQueueDepth, maxQueueDepth, maxPollLateByMillis,
+                    peakThreads, peakBindingThreads, heapGrowthBytes / 1024, onlineThings);
+        }
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        final List<Integer> fleetSizes = new ArrayList<>();
+        for (String arg : args) {
+            fleetSizes.add(Integer.parseInt(arg));
+        }
+        if (fleetSizes.isEmpty()) {
+            for (int size : DEFAULT_FLEET_SIZES) {
+                fleetSizes.add(size);
+            }
+        }
+
+        System.out.println(Report.header());
+        for (int fleetSize : fleetSizes) {
+            final VeSyncFleetLoadHarness harness = new VeSyncFleetLoadHarness(fleetSize)
+                    .withDuration(Integer.getInteger(PROPERTY_PREFIX + "duration", DEFAULT_DURATION_SECONDS))
+                    .withPollInterval(
+                            Integer.getInteger(PROPERTY_PREFIX + "pollInterval", DEFAULT_POLL_INTERVAL_SECONDS))
+                    .withLatency(Integer.getInteger(PROPERTY_PREFIX + "minLatency", DEFAULT_MIN_LATENCY_MILLIS),
+                            Integer.getInteger(PROPERTY_PREFIX + "maxLatency", DEFAULT_MAX_LATENCY_MILLIS));
+            for (String name : System.getProperties().stringPropertyNames()) {
+                if (name.startsWith(BRIDGE_PROPERTY_PREFIX)) {
+                    harness.withBridgeParameter(name.substring(BRIDGE_PROPERTY_PREFIX.length()),
+                            toParameterValue(System.getProperty(name, "")));
+                }
+            }
+            System.out.println(harness.run());
+        }
+    }
+
+    private static Object toParameterValue(final String value) {
+        if ("true".equalsIgnoreCase(value) || "false".equalsIgnoreCase(value)) {
+            return Boolean.valueOf(value);
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+    }
+}
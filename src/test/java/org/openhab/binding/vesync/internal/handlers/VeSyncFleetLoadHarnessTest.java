@@ -0,0 +1,44 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VeSyncFleetLoadHarnessTest} class implements a short run of the {@link VeSyncFleetLoadHarness}, to
+ * check the handlers of a small fleet poll the stand-in. It runs for seconds of wall clock time, so is tagged to only
+ * run with the load profile.
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncFleetLoadHarnessTest {
+
+    @Test
+    @Tag("load")
+    public void smallFleetIsPolled() throws IOException, InterruptedException {
+        final VeSyncFleetLoadHarness.Report report = new VeSyncFleetLoadHarness(10).withDuration(3)
+                .withPollInterval(1).withLatency(0, 5).run();
+
+        assertEquals(10, report.getOnlineThings());
+        assertTrue(report.getDevicePolls() >= 10);
+        assertTrue(report.getRequestsPerSecond() > 0);
+    }
+}
@@ -0,0 +1,271 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The {@link VeSyncPollSchedulerTest} class implements unit test case for {@link VeSyncPollScheduler}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncPollSchedulerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final VeSyncPollScheduler pollScheduler = new VeSyncPollScheduler(now::get, 100);
+    private final List<String> polled = new ArrayList<>();
+
+    private void advanceMillis(final long millis) {
+        // Advance a tick at a time, as the timer would
+        for (long step = 0; step < millis; step += 100) {
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(Math.min(100, millis - step)));
+            pollScheduler.advance();
+        }
+    }
+
+    private Supplier<CompletableFuture<?>> poll(final String key) {
+        return () -> {
+            polled.add(key);
+            return CompletableFuture.completedFuture(null);
+        };
+    }
+
+    @Test
+    public void pollsAreDispatchedWhenDue() {
+        pollScheduler.schedule("a", poll("a"), 300);
+        pollScheduler.schedule("b", poll("b"), 1000);
+
+        advanceMillis(200);
+        assertTrue(polled.isEmpty());
+        advanceMillis(100);
+        assertEquals(List.of("a"), polled);
+        assertFalse(pollScheduler.isScheduled("a"));
+
+        advanceMillis(700);
+        assertEquals(List.of("a", "b"), polled);
+    }
+
+    @Test
+    public void eachDeviceHasOneDueTime() {
+        pollScheduler.schedule("a", poll("a"), 500);
+        pollScheduler.schedule("a", poll("a"), 1000);
+        pollScheduler.scheduleNoLaterThan("b", poll("b"), 200);
+        pollScheduler.scheduleNoLaterThan("b", poll("b"), 800);
+
+        advanceMillis(600);
+        assertEquals(List.of("b"), polled);
+
+        pollScheduler.scheduleNoLaterThan("a", poll("a"), 100);
+        advanceMillis(100);
+        assertEquals(List.of("b", "a"), polled);
+
+        pollScheduler.schedule("c", poll("c"), 100);
+        pollScheduler.cancel("c");
+        advanceMillis(2000);
+        assertEquals(List.of("b", "a"), polled);
+    }
+
+    @Test
+    public void pollsBeyondOneTurnOfTheWheelWait() {
+        // 512 slots of 100 ms, so a poll due in 2 minutes shares a slot with earlier ticks
+        pollScheduler.schedule("a", poll("a"), TimeUnit.MINUTES.toMillis(2));
+        advanceMillis(TimeUnit.MINUTES.toMillis(2) - 100);
+        assertTrue(polled.isEmpty());
+        advanceMillis(100);
+        assertEquals(List.of("a"), polled);
+    }
+
+    @Test
+    public void latenessIsReported() {
+        pollScheduler.schedule("a", poll("a"), 100);
+        pollScheduler.schedule("b", poll("b"), 5000);
+        // A late timer dispatches all the polls it missed
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        pollScheduler.advance();
+        assertEquals(List.of("a"), polled);
+
+        final VeSyncPollScheduler.Statistics a = pollScheduler.snapshotStatistics().get("a");
+        assertEquals(300, a.getLateByMillis());
+        assertEquals(300, a.getMaxLateByMillis());
+        assertEquals(1, a.getPolls());
+        assertEquals(-1, a.getNextPollInMillis());
+        assertEquals(4600, pollScheduler.snapshotStatistics().get("b").getNextPollInMillis());
+        assertEquals(0, pollScheduler.snapshotStatistics().get("a").getMaxLateByMillis());
+    }
+
+    private static String macOf(final int device) {
+        return String.format("a4:c1:38:%02x:%02x:%02x", device >> 16, (device >> 8) & 0xff, device & 0xff);
+    }
+
+    @Test
+    public void phasesSpreadPollsAcrossTheInterval() {
+        final long interval = TimeUnit.SECONDS.toNanos(60);
+        final int[] buckets = new int[6];
+        for (int device = 0; device < 600; ++device) {
+            final double phase = VeSyncPollScheduler.phaseOf(macOf(device));
+            assertEquals(phase, VeSyncPollScheduler.phaseOf(macOf(device)));
+            final long due = VeSyncPollScheduler.phasedDueNanos(TimeUnit.SECONDS.toNanos(1000), interval, phase);
+            // Due between half and one and a half intervals from now, at the device's phase
+            assertTrue(due >= TimeUnit.SECONDS.toNanos(1030) && due < TimeUnit.SECONDS.toNanos(1090));
+            assertEquals((long) (interval * phase), due % interval);
+            ++buckets[(int) ((due % interval) / TimeUnit.SECONDS.toNanos(10))];
+        }
+        for (int count : buckets) {
+            assertTrue(count > 60 && count < 140, "uneven phases " + count);
+        }
+    }
+
+    @Test
+    public void firstPollsRampUp() {
+        final Map<String, CompletableFuture<@Nullable Void>> inProgress = new HashMap<>();
+        final VeSyncPollScheduler rampedScheduler = new VeSyncPollScheduler(now::get, 100, 2);
+        for (int device = 0; device < 5; ++device) {
+            final String key = "device" + device;
+            rampedScheduler.schedule(key, () -> {
+                final CompletableFuture<@Nullable Void> poll = new CompletableFuture<>();
+                inProgress.put(key, poll);
+                return poll;
+            }, 0);
+        }
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        rampedScheduler.advance();
+        assertEquals(2, inProgress.size());
+        assertEquals(3, rampedScheduler.getRampUpQueueLength());
+
+        inProgress.get("device0").complete(null);
+        assertEquals(3, inProgress.size());
+        assertEquals(2, rampedScheduler.getRampUpQueueLength());
+
+        // Later polls of a device that has completed its first poll are not held back
+        rampedScheduler.schedule("device0", poll("device0"), 0);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        rampedScheduler.advance();
+        assertEquals(List.of("device0"), polled);
+        assertEquals(2, rampedScheduler.getRampUpQueueLength());
+    }
+
+    @Test
+    public void pollsInFlightAreBoundedUntilTheyComplete() {
+        final Map<String, CompletableFuture<@Nullable Void>> inProgress = new HashMap<>();
+        final VeSyncPollScheduler boundedScheduler = new VeSyncPollScheduler(now::get, 100, 10, 2);
+        for (int device = 0; device < 4; ++device) {
+            final String key = "device" + device;
+            boundedScheduler.schedule(key, () -> {
+                final CompletableFuture<@Nullable Void> poll = new CompletableFuture<>();
+                inProgress.put(key, poll);
+                return poll;
+            }, 0);
+        }
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        boundedScheduler.advance();
+        assertEquals(2, inProgress.size());
+        assertEquals(2, boundedScheduler.getPollsInFlight());
+        assertEquals(2, boundedScheduler.getInFlightQueueLength());
+
+        inProgress.get("device1").complete(null);
+        assertEquals(3, inProgress.size());
+        assertEquals(2, boundedScheduler.getPollsInFlight());
+        assertEquals(1, boundedScheduler.getInFlightQueueLength());
+
+        inProgress.get("device0").complete(null);
+        assertEquals(4, inProgress.size());
+        assertEquals(0, boundedScheduler.getInFlightQueueLength());
+        inProgress.get("device2").complete(null);
+        inProgress.get("device3").complete(null);
+        assertEquals(0, boundedScheduler.getPollsInFlight());
+    }
+
+    @Test
+    public void pollDueDuringTheFirstPollIsRescheduled() {
+        final Map<String, CompletableFuture<@Nullable Void>> inProgress = new HashMap<>();
+        final VeSyncPollScheduler rampedScheduler = new VeSyncPollScheduler(now::get, 100, 1);
+        rampedScheduler.schedule("a", () -> {
+            final CompletableFuture<@Nullable Void> poll = new CompletableFuture<>();
+            inProgress.put("a", poll);
+            return poll;
+        }, 0);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        rampedScheduler.advance();
+        assertEquals(1, inProgress.size());
+
+        // A readback of the device falls due while its first poll is in progress
+        rampedScheduler.schedule("a", poll("a"), 0);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        rampedScheduler.advance();
+        assertTrue(polled.isEmpty());
+        assertTrue(rampedScheduler.isScheduled("a"));
+
+        inProgress.get("a").complete(null);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        rampedScheduler.advance();
+        assertEquals(List.of("a"), polled);
+    }
+
+    @Test
+    public void pollsWaitingForAWorkerArePolledOnceRestarted() {
+        final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor();
+        try {
+            // Workers only run when the test runs them
+            final Queue<Runnable> pool = new ConcurrentLinkedQueue<>();
+            pollScheduler.start(ticker, pool::add, 1, 8, 16);
+            pollScheduler.schedule("a", poll("a"), 0);
+            pollScheduler.schedule("b", poll("b"), 0);
+            pollScheduler.schedule("c", poll("c"), 0);
+            advanceMillis(100);
+            // The one worker has been handed a poll, the others wait for it
+            assertEquals(1, pool.size());
+
+            // Stopped, e.g. as the bridge is initialized again, before any poll was started
+            pollScheduler.stop();
+            pool.forEach(Runnable::run);
+            assertTrue(polled.isEmpty());
+            assertTrue(pollScheduler.isScheduled("a"));
+            assertTrue(pollScheduler.isScheduled("b"));
+            assertTrue(pollScheduler.isScheduled("c"));
+
+            final Queue<Runnable> restartedPool = new ConcurrentLinkedQueue<>();
+            pollScheduler.start(ticker, restartedPool::add, 1, 8, 16);
+            advanceMillis(100);
+            Runnable worker;
+            while ((worker = restartedPool.poll()) != null) {
+                worker.run();
+            }
+            assertEquals(Set.of("a", "b", "c"), new HashSet<>(polled));
+        } finally {
+            pollScheduler.stop();
+            ticker.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2010-2022 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.vesync.internal.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.StringType;
+
+/**
+ * The {@link VeSyncStateCacheTest} class implements unit test case for {@link VeSyncStateCache}
+ *
+ * @author David Goodyear - Initial contribution
+ */
+@NonNullByDefault
+public class VeSyncStateCacheTest {
+
+    @Test
+    public void boundedNumbersAreShared() {
+        assertSame(VeSyncStateCache.number(0), VeSyncStateCache.number(0));
+        assertSame(VeSyncStateCache.number(100), VeSyncStateCache.number(100));
+        assertEquals(new DecimalType(4), VeSyncStateCache.number(4));
+
+        assertEquals(new DecimalType(-1), VeSyncStateCache.number(-1));
+        assertEquals(new DecimalType(VeSyncStateCache.MAX_CACHED_NUMBER + 1),
+                VeSyncStateCache.number(VeSyncStateCache.MAX_CACHED_NUMBER + 1));
+    }
+
+    @Test
+    public void stringsAreShared() {
+        assertSame(VeSyncStateCache.string("auto"), VeSyncStateCache.string("auto"));
+        assertEquals(new StringType("sleep"), VeSyncStateCache.string("sleep"));
+        assertEquals(StringType.EMPTY, VeSyncStateCache.string(null));
+    }
+}